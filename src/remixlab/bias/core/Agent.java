@@ -10,10 +10,17 @@
 
 package remixlab.bias.core;
 
-import java.util.ArrayList;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.LockSupport;
 
 import remixlab.bias.event.*;
+import remixlab.util.Histogram;
+import remixlab.util.LongMap;
+import remixlab.util.MpscQueue;
 
 /**
  * Agents gather data from different sources --mostly from input devices such touch
@@ -36,20 +43,130 @@ import remixlab.bias.event.*;
  * {@link #trackedGrabber()} is then set to null. In this case, a non-null
  * {@link #inputGrabber()} may still be set with {@link #setDefaultGrabber(Grabber)} (see
  * also {@link #defaultGrabber()}).
+ * <p>
+ * Re-tracking the grabbers with a {@link remixlab.bias.event.MotionEvent} matching the
+ * one used in the previous {@link #updateTrackedGrabber(BogusEvent)} call is skipped,
+ * provided that the {@link remixlab.bias.core.InputHandler#trackingGeneration()} didn't
+ * change in between (see {@link #isTrackingCacheEnabled()}).
  */
 public abstract class Agent {
+  // the agent grabbers are held by the input handler registry, and viewed by grabberList
+  protected GrabberRegistry registry;
+  protected int slot;
   protected List<Grabber> grabberList;
   protected Grabber trackedGrabber, defaultGrabber;
   protected boolean agentTrckn;
   protected InputHandler handler;
 
+  // T R A C K I N G C A C H E
+  protected boolean trckCache;
+  protected MotionEvent trckEvent;
+  protected long trckGeneration;
+  protected int trckCost, trckTests, trckSaved, frameTrckTests, frameTrckSaved;
+
+  protected static final float[] unitSens = { 1f, 1f, 1f, 1f, 1f, 1f };
+  protected boolean coalescing = true;
+  protected InputHandler.Priority priority = InputHandler.Priority.NORMAL;
+
+  /**
+   * Input pipeline stages whose latency may be measured, see {@link #latency(Stage)}.
+   */
+  public enum Stage {
+    /**
+     * From the event capture to its tuple enqueuing.
+     */
+    ENQUEUE,
+    /**
+     * From the tuple enqueuing to its dequeuing by the
+     * {@link remixlab.bias.core.InputHandler#handle()}.
+     */
+    QUEUE,
+    /**
+     * Duration of {@link #updateTrackedGrabber(BogusEvent)}.
+     */
+    TRACKING,
+    /**
+     * Duration of the grabber {@link remixlab.bias.core.Grabber#performInteraction(BogusEvent)}.
+     */
+    PERFORM,
+    /**
+     * From the capture of the oldest event performed during a frame to the frame being
+     * presented (see {@link remixlab.bias.core.InputHandler#framePresented()}).
+     */
+    PRESENT
+  }
+
+  protected Histogram[] latencies;
+  protected long presentStamp = -1;
+
+  // motion filters, keyed by motion id
+  protected MotionFilter motionFilter;
+  protected LongMap<MotionFilter> motionFilters;
+  protected long horizon, measuredHorizon;
+
+  // feed polling thread and the samples it hands to the main thread
+  protected volatile Thread poller;
+  protected MpscQueue<BogusEvent> samples;
+
+  // event log the agent input is recorded into
+  protected volatile EventLogWriter recorder;
+
   /**
    * Constructs an Agent with the given name and registers is at the given inputHandler.
    */
   public Agent(InputHandler inputHandler) {
-    grabberList = new ArrayList<Grabber>();
-    setTracking(true);
     handler = inputHandler;
+    registry = handler.grabberRegistry();
+    slot = registry.newAgentSlot();
+    grabberList = new AbstractList<Grabber>() {
+      @Override
+      public Grabber get(int index) {
+        if (index >= 0)
+          for (int i = 0; i < registry.end(); i++)
+            if (registry.grabberAt(i) != null && registry.isHeld(i, slot) && index-- == 0)
+              return registry.grabberAt(i);
+        throw new IndexOutOfBoundsException("Index: " + index);
+      }
+
+      @Override
+      public int size() {
+        return registry.size(slot);
+      }
+
+      @Override
+      public Iterator<Grabber> iterator() {
+        return new Iterator<Grabber>() {
+          int next = advance(0);
+
+          int advance(int i) {
+            while (i < registry.end() && (registry.grabberAt(i) == null || !registry.isHeld(i, slot)))
+              i++;
+            return i;
+          }
+
+          @Override
+          public boolean hasNext() {
+            return next < registry.end();
+          }
+
+          @Override
+          public Grabber next() {
+            if (!hasNext())
+              throw new NoSuchElementException();
+            Grabber grabber = registry.grabberAt(next);
+            next = advance(next + 1);
+            return grabber;
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+    };
+    trckCache = true;
+    setTracking(true);
     handler.registerAgent(this);
   }
 
@@ -68,7 +185,8 @@ public abstract class Agent {
       setDefaultGrabber(null);
     if (trackedGrabber() == grabber)
       resetTrackedGrabber();
-    return grabberList.remove(grabber);
+    invalidateTrackingCache();
+    return registry.remove(grabber, slot);
   }
 
   /**
@@ -82,11 +200,17 @@ public abstract class Agent {
   public void removeGrabbers() {
     setDefaultGrabber(null);
     trackedGrabber = null;
-    grabberList.clear();
+    invalidateTrackingCache();
+    registry.clear(slot);
   }
 
   /**
    * Returns the list of grabber (and interactive-grabber) objects handled by this agent.
+   * <p>
+   * The list is a read-only view of the input handler
+   * {@link remixlab.bias.core.InputHandler#grabberRegistry()}, kept in insertion order.
+   * Iterate over it rather than indexing it, since {@link List#get(int)} takes linear
+   * time.
    * 
    * @see #removeGrabber(Grabber)
    * @see #addGrabber(Grabber)
@@ -106,10 +230,7 @@ public abstract class Agent {
    * @see #removeGrabbers()
    */
   public boolean hasGrabber(Grabber grabber) {
-    for (Grabber g : grabbers())
-      if (g == grabber)
-        return true;
-    return false;
+    return registry.contains(grabber, slot);
   }
 
   /**
@@ -123,9 +244,10 @@ public abstract class Agent {
   public boolean addGrabber(Grabber grabber) {
     if (grabber == null)
       return false;
-    if (hasGrabber(grabber))
+    if (!registry.add(grabber, slot))
       return false;
-    return grabberList.add(grabber);
+    invalidateTrackingCache();
+    return true;
   }
 
   /**
@@ -183,6 +305,165 @@ public abstract class Agent {
     return null;
   }
 
+  /**
+   * Returns {@code true} if the agent feeds are polled by a background thread (see
+   * {@link #startPolling(float)}), and {@code false} if they're polled once per frame by
+   * the {@link remixlab.bias.core.InputHandler#handle()}.
+   */
+  public boolean isPolling() {
+    return poller != null;
+  }
+
+  /**
+   * Same as {@code startPolling(frequency, 256)}.
+   */
+  public void startPolling(float frequency) {
+    startPolling(frequency, 256);
+  }
+
+  /**
+   * Polls the agent {@link #handleFeed()} (or {@link #feed()}, when the former is null)
+   * from a background daemon thread, {@code frequency} times per second (e.g., at the
+   * device native rate), so that blocking device reads don't stall the main (drawing)
+   * thread and the samples taken between frames are not lost.
+   * <p>
+   * Samples are handed to the main thread through a lock-free buffer holding at most
+   * {@code capacity} of them (extra samples are dropped), and then handled by
+   * {@link remixlab.bias.core.InputHandler#handle()}, which merges the consecutive
+   * motion samples of each frame (see
+   * {@link remixlab.bias.event.MotionEvent#coalesce(MotionEvent)}) so that relative
+   * motion is integrated, unless {@link #isMotionCoalescingEnabled()} is false.
+   * <p>
+   * Note that the feeds are then called from the polling thread and should not access
+   * the scene. {@link #updateTrackedGrabberFeed()} is not used while polling. Dropped and
+   * merged samples are passed to {@link #recycle(BogusEvent)}, the former from the
+   * polling thread.
+   * 
+   * @see #stopPolling()
+   */
+  public void startPolling(float frequency, int capacity) {
+    stopPolling();
+    final long period = (long) (1e9 / Math.max(frequency, 1e-3f));
+    samples = new MpscQueue<BogusEvent>(capacity);
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        long deadline = System.nanoTime();
+        while (poller == Thread.currentThread()) {
+          BogusEvent event = handleFeed();
+          if (event == null)
+            event = feed();
+          if (event != null && !samples.offer(event))
+            recycle(event);
+          deadline += period;
+          long wait = deadline - System.nanoTime();
+          if (wait > 0)
+            LockSupport.parkNanos(wait);
+          else
+            // don't try to catch up after a long read
+            deadline = System.nanoTime();
+        }
+      }
+    }, getClass().getSimpleName() + " poller");
+    thread.setDaemon(true);
+    poller = thread;
+    thread.start();
+  }
+
+  /**
+   * Stops the polling thread (see {@link #startPolling(float)}), so that the feeds are
+   * polled once per frame again. Doesn't wait for the thread to finish its current read.
+   * The thread is unparked rather than interrupted, so that the feeds interruptible
+   * channels (if any) are not closed.
+   */
+  public void stopPolling() {
+    Thread thread = poller;
+    poller = null;
+    if (thread != null)
+      LockSupport.unpark(thread);
+  }
+
+  /**
+   * Returns the number of samples dropped since {@link #startPolling(float, int)} because
+   * the main thread didn't keep up with the polling thread.
+   */
+  public long droppedSamples() {
+    MpscQueue<BogusEvent> queue = samples;
+    return queue == null ? 0 : queue.overflows();
+  }
+
+  /**
+   * Internal use. Called by {@link remixlab.bias.core.InputHandler#handle()} instead of
+   * polling the feeds when the agent {@link #isPolling()}. Tracks and handles the
+   * samples enqueued so far, merging the consecutive motion ones when
+   * {@link #isMotionCoalescingEnabled()}.
+   */
+  protected void handleSamples() {
+    MpscQueue<BogusEvent> queue = samples;
+    if (queue == null)
+      return;
+    BogusEvent pending = null;
+    for (int i = queue.size(); i > 0; i--) {
+      BogusEvent sample = queue.poll();
+      if (sample == null)
+        break;
+      if (isMotionCoalescingEnabled() && pending instanceof MotionEvent
+          && sample instanceof MotionEvent && ((MotionEvent) pending).coalesce((MotionEvent) sample)) {
+        recycle(sample);
+        continue;
+      }
+      if (pending != null)
+        handleSample(pending);
+      pending = sample;
+    }
+    if (pending != null)
+      handleSample(pending);
+  }
+
+  private void handleSample(BogusEvent sample) {
+    updateTrackedGrabber(sample);
+    if (!handle(sample))
+      recycle(sample);
+  }
+
+  /**
+   * Returns {@code true} if the agent input is being recorded (see
+   * {@link #startRecording(WritableByteChannel)}).
+   */
+  public boolean isRecording() {
+    return recorder != null;
+  }
+
+  /**
+   * Same as {@code startRecording(new EventLogWriter(channel))}.
+   */
+  public void startRecording(WritableByteChannel channel) {
+    startRecording(new EventLogWriter(channel));
+  }
+
+  /**
+   * Records every event passed to {@link #updateTrackedGrabber(BogusEvent)} and
+   * {@link #handle(BogusEvent)} (before it gets filtered or modulated), together with the
+   * frame boundaries, into the given binary event log, so that the session may be
+   * replayed later on (see {@link remixlab.bias.ext.ReplayAgent}).
+   * 
+   * @see #stopRecording()
+   */
+  public void startRecording(EventLogWriter writer) {
+    stopRecording();
+    recorder = writer;
+  }
+
+  /**
+   * Stops recording and flushes the event log. Note that the log channel is not closed.
+   */
+  public void stopRecording() {
+    EventLogWriter writer = recorder;
+    recorder = null;
+    if (writer != null)
+      writer.flush();
+  }
+
   /**
    * Returns the {@link remixlab.bias.core.InputHandler} this agent is registered to.
    */
@@ -213,43 +494,377 @@ public abstract class Agent {
   protected Grabber updateTrackedGrabber(BogusEvent event) {
     if (event == null || !inputHandler().isAgentRegistered(this) || !isTracking())
       return trackedGrabber();
+    EventLogWriter writer = recorder;
+    if (writer != null)
+      writer.tracked(event);
+    long start = latencies == null ? 0 : System.nanoTime();
+    if (isTrackingCached(event)) {
+      trckSaved += trckCost;
+      if (latencies != null)
+        record(Stage.TRACKING, System.nanoTime() - start);
+      return trackedGrabber();
+    }
+    trckCost = 0;
+    pollGrabbers(event);
+    trckTests += trckCost;
+    if (latencies != null)
+      record(Stage.TRACKING, System.nanoTime() - start);
+    if (isTrackingCacheEnabled() && event instanceof MotionEvent) {
+      // copy the event values, since the event itself may be recycled
+      if (trckEvent == null || trckEvent.getClass() != event.getClass())
+        trckEvent = ((MotionEvent) event).get();
+      else
+        trckEvent.set(event);
+      trckGeneration = inputHandler().trackingGeneration();
+    }
+    return trackedGrabber();
+  }
+
+  /**
+   * Internal use. Sets the {@link #trackedGrabber()} by querying the grabbers. Called by
+   * {@link #updateTrackedGrabber(BogusEvent)}.
+   */
+  private void pollGrabbers(BogusEvent event) {
     // We first check if default grabber is tracked,
     // i.e., default grabber has the highest priority (which is good for
     // keyboards
     // and doesn't hurt motion grabbers:
     Grabber dG = defaultGrabber();
     if (dG != null)
-      if (dG.checkIfGrabsInput(event)) {
+      if (checkIfGrabsInput(dG, event)) {
         trackedGrabber = dG;
-        return trackedGrabber();
+        return;
       }
     // then if tracked grabber remains the same:
     Grabber tG = trackedGrabber();
     if (tG != null)
-      if (tG.checkIfGrabsInput(event))
-        return trackedGrabber();
+      if (checkIfGrabsInput(tG, event))
+        return;
     // pick the first otherwise
     trackedGrabber = null;
-    for (Grabber grabber : grabberList)
-      if (grabber != dG && grabber != tG)
-        if (grabber.checkIfGrabsInput(event)) {
+    for (int i = 0; i < registry.end(); i++) {
+      Grabber grabber = registry.grabberAt(i);
+      if (grabber != null && grabber != dG && grabber != tG && registry.isHeld(i, slot))
+        if (checkIfGrabsInput(grabber, event)) {
           trackedGrabber = grabber;
-          return trackedGrabber();
+          return;
         }
-    return trackedGrabber();
+    }
+  }
+
+  /**
+   * Internal use. Same as {@code grabber.checkIfGrabsInput(event)}, but counts the test.
+   */
+  private boolean checkIfGrabsInput(Grabber grabber, BogusEvent event) {
+    trckCost++;
+    return grabber.checkIfGrabsInput(event);
+  }
+
+  /**
+   * Returns {@code true} if {@code event} is a {@link remixlab.bias.event.MotionEvent}
+   * that {@link remixlab.bias.event.MotionEvent#matches(MotionEvent)} the one used to
+   * query the grabbers the last time and the
+   * {@link remixlab.bias.core.InputHandler#trackingGeneration()} didn't change since
+   * then, i.e., re-tracking the grabbers would yield the same {@link #trackedGrabber()}.
+   * 
+   * @see #isTrackingCacheEnabled()
+   */
+  protected boolean isTrackingCached(BogusEvent event) {
+    if (!isTrackingCacheEnabled() || trckEvent == null || trckGeneration < 0 || !(event instanceof MotionEvent))
+      return false;
+    return trckGeneration == inputHandler().trackingGeneration() && trckEvent.matches((MotionEvent) event);
+  }
+
+  /**
+   * Discards the event cached by {@link #updateTrackedGrabber(BogusEvent)} so that the
+   * next call queries the grabbers again.
+   * 
+   * @see #isTrackingCached(BogusEvent)
+   */
+  public void invalidateTrackingCache() {
+    trckGeneration = -1;
+  }
+
+  /**
+   * Returns {@code true} if {@link #updateTrackedGrabber(BogusEvent)} skips re-tracking
+   * the grabbers when neither the tracking event nor the
+   * {@link remixlab.bias.core.InputHandler#trackingGeneration()} changed. Enabled by
+   * default.
+   * <p>
+   * Disable it if your grabbers {@link remixlab.bias.core.Grabber#checkIfGrabsInput(BogusEvent)}
+   * depends on some state not reported to
+   * {@link remixlab.bias.core.InputHandler#invalidateTracking()}.
+   * 
+   * @see #enableTrackingCache(boolean)
+   */
+  public boolean isTrackingCacheEnabled() {
+    return trckCache;
+  }
+
+  /**
+   * Enables or disables the tracking cache according to {@code enable}.
+   * 
+   * @see #isTrackingCacheEnabled()
+   */
+  public void enableTrackingCache(boolean enable) {
+    trckCache = enable;
+    invalidateTrackingCache();
+  }
+
+  /**
+   * Returns the number of {@link remixlab.bias.core.Grabber#checkIfGrabsInput(BogusEvent)}
+   * tests performed by {@link #updateTrackedGrabber(BogusEvent)} during the last frame.
+   * 
+   * @see #trackingTestsSaved()
+   */
+  public int trackingTests() {
+    return frameTrckTests;
+  }
+
+  /**
+   * Returns the number of {@link remixlab.bias.core.Grabber#checkIfGrabsInput(BogusEvent)}
+   * tests saved by the tracking cache during the last frame.
+   * 
+   * @see #trackingTests()
+   * @see #isTrackingCacheEnabled()
+   */
+  public int trackingTestsSaved() {
+    return frameTrckSaved;
+  }
+
+  /**
+   * Internal use. Called by {@link remixlab.bias.core.InputHandler#handle()} once per
+   * frame to commit the {@link #trackingTests()} and {@link #trackingTestsSaved()} stats.
+   */
+  protected void updateTrackingStats() {
+    frameTrckTests = trckTests;
+    frameTrckSaved = trckSaved;
+    trckTests = 0;
+    trckSaved = 0;
+  }
+
+  /**
+   * Returns {@code true} if the agent measures the latency of each input pipeline
+   * {@link Stage}, and {@code false} otherwise. Disabled by default.
+   * 
+   * @see #enableLatencyStats(boolean)
+   * @see #latency(Stage)
+   */
+  public boolean isLatencyStatsEnabled() {
+    return latencies != null;
+  }
+
+  /**
+   * Enables or disables the {@link #isLatencyStatsEnabled()} according to
+   * {@code enable}. Disabling it discards the recorded latencies.
+   */
+  public void enableLatencyStats(boolean enable) {
+    if (enable == isLatencyStatsEnabled())
+      return;
+    if (enable) {
+      Histogram[] histograms = new Histogram[Stage.values().length];
+      for (int i = 0; i < histograms.length; i++)
+        histograms[i] = new Histogram();
+      latencies = histograms;
+    } else
+      latencies = null;
+    presentStamp = -1;
+  }
+
+  /**
+   * Returns the histogram of the latencies (in nanoseconds) measured for the given
+   * {@code stage} since the last {@link #resetLatencyStats()}, e.g.,
+   * {@code latency(Stage.PRESENT).percentile(99)}. Returns {@code null} if the
+   * {@link #isLatencyStatsEnabled()} is disabled.
+   */
+  public Histogram latency(Stage stage) {
+    return latencies == null ? null : latencies[stage.ordinal()];
+  }
+
+  /**
+   * Discards the latencies measured so far.
+   * 
+   * @see #latency(Stage)
+   */
+  public void resetLatencyStats() {
+    if (latencies != null)
+      for (Histogram histogram : latencies)
+        histogram.reset();
+  }
+
+  /**
+   * Returns a description of the latencies measured for each {@link Stage}.
+   */
+  public String latencyInfo() {
+    if (latencies == null)
+      return getClass().getSimpleName() + " latency stats are disabled\n";
+    String result = getClass().getSimpleName() + " latencies:\n";
+    for (Stage stage : Stage.values())
+      result += stage + ": " + latencies[stage.ordinal()].info() + "\n";
+    return result;
+  }
+
+  /**
+   * Internal use. Records the {@code nanos} latency of the given {@code stage}.
+   */
+  protected void record(Stage stage, long nanos) {
+    Histogram[] histograms = latencies;
+    if (histograms != null)
+      histograms[stage.ordinal()].record(nanos);
+  }
+
+  /**
+   * Internal use. Called by the {@link remixlab.bias.core.InputHandler} before the
+   * {@code tuple} is performed. Records its {@link Stage#QUEUE} latency and keeps the
+   * oldest event capture time of the frame.
+   */
+  protected void dequeued(EventGrabberTuple tuple, long now) {
+    record(Stage.QUEUE, now - tuple.stamp);
+    long captured = tuple.event.nanoTimestamp();
+    if (presentStamp < 0 || captured - presentStamp < 0)
+      presentStamp = captured;
+  }
+
+  /**
+   * Internal use. Called by {@link remixlab.bias.core.InputHandler#framePresented()} to
+   * record the {@link Stage#PRESENT} latency of the frame.
+   */
+  protected void presented(long now) {
+    if (presentStamp >= 0) {
+      record(Stage.PRESENT, now - presentStamp);
+      if (horizon < 0)
+        measuredHorizon = latencies[Stage.PRESENT.ordinal()].percentile(50);
+    }
+    presentStamp = -1;
+  }
+
+  /**
+   * Returns the filter applied by {@link #handle(BogusEvent)} to the motion events
+   * having the given {@code id}, i.e., the one set with
+   * {@link #setMotionFilter(int, MotionFilter)} or, if none, the default one set with
+   * {@link #setMotionFilter(MotionFilter)}. Returns {@code null} if events with that id
+   * are not filtered.
+   */
+  public MotionFilter motionFilter(int id) {
+    MotionFilter filter = motionFilters == null ? null : motionFilters.get(id);
+    return filter != null ? filter : motionFilter;
+  }
+
+  /**
+   * Sets the default {@code filter} applied to the motion events handled by this agent,
+   * i.e., to those whose id has no filter of its own. Pass {@code null} to remove it.
+   * 
+   * @see #setMotionFilter(int, MotionFilter)
+   */
+  public void setMotionFilter(MotionFilter filter) {
+    motionFilter = filter;
+  }
+
+  /**
+   * Sets the {@code filter} applied to the motion events having the given {@code id}.
+   * Pass {@code null} to remove it. Note that filters are stateful, so that each id
+   * should have its own filter instance.
+   * 
+   * @see #setMotionFilter(MotionFilter)
+   * @see #setPredictionHorizon(long)
+   */
+  public void setMotionFilter(int id, MotionFilter filter) {
+    if (filter == null) {
+      if (motionFilters != null)
+        motionFilters.remove(id);
+      return;
+    }
+    if (motionFilters == null)
+      motionFilters = new LongMap<MotionFilter>();
+    motionFilters.put(id, filter);
+  }
+
+  /**
+   * Returns the number of nanoseconds ahead the {@link #motionFilter(int)}s extrapolate
+   * the motion events to. When the horizon is set to a negative value (see
+   * {@link #setPredictionHorizon(long)}), the measured median
+   * {@link Stage#PRESENT} latency is returned instead, which requires the
+   * {@link #isLatencyStatsEnabled()} (otherwise no extrapolation takes place).
+   */
+  public long predictionHorizon() {
+    return horizon < 0 ? measuredHorizon : horizon;
+  }
+
+  /**
+   * Sets the {@link #predictionHorizon()}. Default is 0, i.e., motion events are only
+   * smoothed. Pass a negative value to use the measured input to present latency.
+   */
+  public void setPredictionHorizon(long nanos) {
+    horizon = nanos;
   }
 
   /**
    * Returns the sensitivities used in {@link #handle(BogusEvent)} to
-   * {@link remixlab.bias.event.MotionEvent#modulate(float[])}.
+   * {@link remixlab.bias.event.MotionEvent#modulate(float[])}. The returned array should
+   * be treated as read-only: the default implementation returns the same unit
+   * sensitivities array every time, and overriding agents are encouraged to do the same
+   * so that no array is allocated per event.
    */
   public float[] sensitivities(MotionEvent event) {
-    return new float[] { 1f, 1f, 1f, 1f, 1f, 1f };
+    return unitSens;
+  }
+
+  /**
+   * Returns {@code true} if the consecutive motion events sent by this agent to the same
+   * grabber during a frame are merged into a single one before being performed (see
+   * {@link remixlab.bias.event.MotionEvent#coalesce(MotionEvent)}), and {@code false}
+   * otherwise. Click and keyboard events are never merged. Enabled by default.
+   * 
+   * @see #enableMotionCoalescing(boolean)
+   */
+  public boolean isMotionCoalescingEnabled() {
+    return coalescing;
+  }
+
+  /**
+   * Enables or disables the {@link #isMotionCoalescingEnabled()} according to
+   * {@code enable}. Disable it if your grabbers need every single motion event.
+   */
+  public void enableMotionCoalescing(boolean enable) {
+    coalescing = enable;
+  }
+
+  /**
+   * Returns the priority class of the event tuples enqueued by this agent, unless one is
+   * set for their shortcut (see
+   * {@link remixlab.bias.core.InputHandler#setPriority(Shortcut, InputHandler.Priority)}
+   * ). Default is {@link remixlab.bias.core.InputHandler.Priority#NORMAL}.
+   * 
+   * @see remixlab.bias.core.InputHandler#frameBudget()
+   */
+  public InputHandler.Priority priority() {
+    return priority;
+  }
+
+  /**
+   * Sets the agent {@link #priority()}, e.g., {@code Priority.HIGH} for a keyboard agent
+   * whose actions should never wait behind expensive motion interactions.
+   */
+  public void setPriority(InputHandler.Priority priority) {
+    this.priority = priority == null ? InputHandler.Priority.NORMAL : priority;
+  }
+
+  /**
+   * Called by the {@link remixlab.bias.core.InputHandler} once the {@code event}
+   * handled by this agent (see {@link #handle(BogusEvent)}) has been performed by its
+   * grabber, so that the agent may reuse it. Does nothing by default.
+   * <p>
+   * Override it together with the event instantiation (e.g., using a
+   * {@link remixlab.util.Pool}) to get rid of the per event allocation. Note that the
+   * grabbers that need to keep an event should keep a copy of it (see
+   * {@link remixlab.bias.core.BogusEvent#get()}).
+   */
+  protected void recycle(BogusEvent event) {
   }
 
   /**
    * Enqueues an EventGrabberTuple(event, inputGrabber()) on the
-   * {@link remixlab.bias.core.InputHandler#eventTupleQueue()}, thus enabling a call on
+   * {@link remixlab.bias.core.InputHandler} event tuple queue, thus enabling a call on
    * the {@link #inputGrabber()}
    * {@link remixlab.bias.core.Grabber#performInteraction(BogusEvent)} method (which is
    * scheduled for execution till the end of this main event loop iteration, see
@@ -262,15 +877,22 @@ public abstract class Agent {
   protected boolean handle(BogusEvent event) {
     if (event == null || !handler.isAgentRegistered(this) || inputHandler() == null)
       return false;
+    EventLogWriter writer = recorder;
+    if (writer != null)
+      writer.handled(event);
     if (event instanceof MotionEvent)
       if (((MotionEvent) event).isAbsolute())
         if (event.isNull() && !event.flushed())
           return false;
-    if (event instanceof MotionEvent)
+    if (event instanceof MotionEvent) {
+      MotionFilter filter = motionFilter(event.id());
+      if (filter != null)
+        filter.filter((MotionEvent) event, predictionHorizon());
       ((MotionEvent) event).modulate(sensitivities((MotionEvent) event));
+    }
     Grabber inputGrabber = inputGrabber();
     if (inputGrabber != null)
-      return inputHandler().enqueueEventTuple(new EventGrabberTuple(event, inputGrabber));
+      return inputHandler().enqueueEventTuple(inputHandler().obtainEventTuple(event, inputGrabber, this));
     return false;
   }
 
@@ -324,6 +946,7 @@ public abstract class Agent {
    */
   public void setTracking(boolean enable) {
     agentTrckn = enable;
+    invalidateTrackingCache();
     if (!isTracking())
       trackedGrabber = null;
   }
@@ -373,6 +996,7 @@ public abstract class Agent {
   public boolean setDefaultGrabber(Grabber grabber) {
     if (grabber == null) {
       this.defaultGrabber = null;
+      invalidateTrackingCache();
       return true;
     }
     if (!hasGrabber(grabber)) {
@@ -381,6 +1005,7 @@ public abstract class Agent {
       return false;
     }
     defaultGrabber = grabber;
+    invalidateTrackingCache();
     return true;
   }
 
@@ -389,5 +1014,6 @@ public abstract class Agent {
    */
   public void resetTrackedGrabber() {
     trackedGrabber = null;
+    invalidateTrackingCache();
   }
 }
\ No newline at end of file
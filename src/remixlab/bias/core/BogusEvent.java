@@ -10,9 +10,12 @@
 
 package remixlab.bias.core;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import remixlab.util.Copyable;
 import remixlab.util.EqualsBuilder;
 import remixlab.util.HashCodeBuilder;
+import remixlab.util.Poolable;
 
 /**
  * The root of all events that are to be handled by an {@link remixlab.bias.core.Agent}.
@@ -34,7 +37,7 @@ import remixlab.util.HashCodeBuilder;
  * of these mechanisms are available (as it often happens when dealing with specialized,
  * non-default input hardware).
  */
-public class BogusEvent implements Copyable {
+public class BogusEvent implements Copyable, Poolable {
   // modifier keys
   public static final int NO_MODIFIER_MASK = 0;
   public static final int NO_ID = 0;
@@ -43,8 +46,21 @@ public class BogusEvent implements Copyable {
   public static final int META = 1 << 2;
   public static final int ALT = 1 << 3;
   public static final int ALT_GRAPH = 1 << 4;
+  // event types, see type()
+  public static final int BOGUS_EVENT = 0;
+  public static final int KEYBOARD_EVENT = 1;
+  public static final int CLICK_EVENT = 2;
+  public static final int MOTION_EVENT = 3;
+  public static final int DOF1_EVENT = 4;
+  public static final int DOF2_EVENT = 5;
+  public static final int DOF3_EVENT = 6;
+  public static final int DOF6_EVENT = 7;
 
   private boolean fire, flush;
+  // 1 while the event is released to a pool, see setReleased()
+  private volatile int released;
+  private static final AtomicIntegerFieldUpdater<BogusEvent> RELEASED = AtomicIntegerFieldUpdater
+      .newUpdater(BogusEvent.class, "released");
 
   @Override
   public int hashCode() {
@@ -65,9 +81,12 @@ public class BogusEvent implements Copyable {
         .append(timestamp, other.timestamp).isEquals();
   }
 
-  protected final int modifiers;
+  protected int modifiers;
   protected long timestamp;
+  protected long nanoTimestamp;
   protected int id;
+  // set by each event class initializer
+  protected int type = BOGUS_EVENT;
 
   /**
    * Constructs an event with an "empty" {@link remixlab.bias.core.Shortcut}.
@@ -76,6 +95,7 @@ public class BogusEvent implements Copyable {
     this.modifiers = NO_MODIFIER_MASK;
     this.id = NO_ID;
     timestamp = System.currentTimeMillis();
+    nanoTimestamp = System.nanoTime();
   }
 
   /**
@@ -86,21 +106,66 @@ public class BogusEvent implements Copyable {
     this.modifiers = modifiers;
     this.id = id;
     timestamp = System.currentTimeMillis();
+    nanoTimestamp = System.nanoTime();
   }
 
   protected BogusEvent(BogusEvent other) {
     this.modifiers = other.modifiers;
     this.id = other.id;
     this.timestamp = other.timestamp;
+    this.nanoTimestamp = other.nanoTimestamp;
     this.fire = other.fire;
     this.flush = other.flush;
   }
 
+  /**
+   * Returns the event type tag, e.g., {@link #DOF2_EVENT} for a
+   * {@link remixlab.bias.event.DOF2Event}, so that grabbers may dispatch the event with a
+   * {@code switch} instead of a chain of {@code instanceof} tests. Motion events having
+   * other degrees-of-freedom than the ones listed here are tagged as
+   * {@link #MOTION_EVENT}.
+   */
+  public final int type() {
+    return type;
+  }
+
   @Override
   public BogusEvent get() {
     return new BogusEvent(this);
   }
 
+  /**
+   * Sets this event values from {@code other}, i.e., same as {@link #get()} but without
+   * allocating a new event. Derived classes copy their own values when {@code other} is
+   * of the same type.
+   */
+  public void set(BogusEvent other) {
+    this.modifiers = other.modifiers;
+    this.id = other.id;
+    this.timestamp = other.timestamp;
+    this.nanoTimestamp = other.nanoTimestamp;
+    this.fire = other.fire;
+    this.flush = other.flush;
+  }
+
+  @Override
+  public boolean setReleased(boolean released) {
+    return RELEASED.compareAndSet(this, released ? 0 : 1, released ? 1 : 0);
+  }
+
+  /**
+   * Internal use. Re-initializes this event as if it was just constructed with
+   * {@code BogusEvent(modifiers, id)}. Used to recycle events.
+   */
+  protected void reset(int modifiers, int id) {
+    this.modifiers = modifiers;
+    this.id = id;
+    this.timestamp = System.currentTimeMillis();
+    this.nanoTimestamp = System.nanoTime();
+    this.fire = false;
+    this.flush = false;
+  }
+
   /**
    * Same as {@code this.get()} but sets the {@link #flushed()} flag to true. Only agents
    * may call this.
@@ -133,6 +198,36 @@ public class BogusEvent implements Copyable {
     return bogusevent;
   }
 
+  /**
+   * Same as {@link #flush()} but sets the {@link #flushed()} flag of this very event
+   * instead of that of a copy, so that agents recycling their events (see
+   * {@link remixlab.util.Pool}) don't allocate. Only agents may call this.
+   * 
+   * @see #markFired()
+   */
+  public BogusEvent markFlushed() {
+    if (fired() || flushed())
+      System.out.println("Warning: event already " + (fired() ? "fired" : "flushed"));
+    else
+      flush = true;
+    return this;
+  }
+
+  /**
+   * Same as {@link #fire()} but sets the {@link #fired()} flag of this very event instead
+   * of that of a copy, so that agents recycling their events (see
+   * {@link remixlab.util.Pool}) don't allocate. Only agents may call this.
+   * 
+   * @see #markFlushed()
+   */
+  public BogusEvent markFired() {
+    if (fired() || flushed())
+      System.out.println("Warning: event already " + (fired() ? "fired" : "flushed"));
+    else
+      fire = true;
+    return this;
+  }
+
   /**
    * Returns true if this is a 'flushed' event. Flushed events indicate gesture
    * termination, such as a mouse-release.
@@ -162,6 +257,15 @@ public class BogusEvent implements Copyable {
     return new Shortcut(modifiers(), id());
   }
 
+  /**
+   * Same as {@code shortcut().code()}, but without instantiating the shortcut.
+   * 
+   * @see remixlab.bias.core.Shortcut#code()
+   */
+  public long shortcutCode() {
+    return Shortcut.code(Shortcut.SHORTCUT, modifiers(), 0, id());
+  }
+
   /**
    * @return the modifiers defining the event {@link remixlab.bias.core.Shortcut}.
    */
@@ -183,6 +287,15 @@ public class BogusEvent implements Copyable {
     return timestamp;
   }
 
+  /**
+   * Returns the {@code System.nanoTime()} at which the event was captured. Only
+   * meaningful to measure elapsed times, see
+   * {@link remixlab.bias.core.Agent#latency(remixlab.bias.core.Agent.Stage)}.
+   */
+  public long nanoTimestamp() {
+    return nanoTimestamp;
+  }
+
   /**
    * Useful when reducing a motion bogus event with higher to lesser dof's.
    * 
@@ -10,6 +10,10 @@
 
 package remixlab.bias.core;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import remixlab.util.Poolable;
+
 /**
  * A [{@link remixlab.bias.core.BogusEvent},{@link remixlab.bias.core.Grabber}] tuple. An
  * enqueued tuple fires {@link remixlab.bias.core.Grabber#performInteraction(BogusEvent)}
@@ -19,9 +23,24 @@ package remixlab.bias.core;
  * {@link remixlab.bias.core.Agent#handle(BogusEvent)}), but may be enqueued manually, see
  * {@link remixlab.bias.core.InputHandler#enqueueEventTuple(EventGrabberTuple)}.
  */
-public class EventGrabberTuple {
+public class EventGrabberTuple implements Poolable {
   protected BogusEvent event;
   protected Grabber grabber;
+  // set only on tuples obtained from the input handler pool
+  protected Agent agent;
+  protected boolean pooled;
+  // System.nanoTime() at which the tuple was enqueued
+  protected long stamp;
+  // number of consecutive frames the tuple has been deferred
+  protected int deferrals;
+  // 1 from the time the tuple is enqueued till the input handler is done with it
+  protected volatile int queued;
+  // 1 while the tuple is released to the input handler pool
+  protected volatile int released;
+  static final AtomicIntegerFieldUpdater<EventGrabberTuple> QUEUED = AtomicIntegerFieldUpdater
+      .newUpdater(EventGrabberTuple.class, "queued");
+  static final AtomicIntegerFieldUpdater<EventGrabberTuple> RELEASED = AtomicIntegerFieldUpdater
+      .newUpdater(EventGrabberTuple.class, "released");
 
   /**
    * Constructs a {@link remixlab.bias.core.BogusEvent},
@@ -37,6 +56,11 @@ public class EventGrabberTuple {
     grabber = g;
   }
 
+  @Override
+  public boolean setReleased(boolean released) {
+    return RELEASED.compareAndSet(this, released ? 0 : 1, released ? 1 : 0);
+  }
+
   /**
    * Calls {@link remixlab.bias.core.Grabber#performInteraction(BogusEvent)}.
    * 
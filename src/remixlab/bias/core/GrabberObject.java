@@ -71,12 +71,19 @@ public abstract class GrabberObject implements Grabber {
 
   @Override
   public void performInteraction(BogusEvent event) {
-    if (event instanceof KeyboardEvent)
+    // dispatched on the event type tag, so that the call sites remain monomorphic
+    switch (event.type()) {
+    case BogusEvent.KEYBOARD_EVENT:
       performInteraction((KeyboardEvent) event);
-    if (event instanceof ClickEvent)
+      break;
+    case BogusEvent.CLICK_EVENT:
       performInteraction((ClickEvent) event);
-    if (event instanceof MotionEvent)
+      break;
+    case BogusEvent.BOGUS_EVENT:
+      break;
+    default:
       performInteraction((MotionEvent) event);
+    }
   }
 
   /**
@@ -88,14 +95,20 @@ public abstract class GrabberObject implements Grabber {
    * {@link remixlab.bias.event.MotionEvent}.
    */
   protected void performInteraction(MotionEvent event) {
-    if (event instanceof DOF1Event)
-      performInteraction((DOF1Event) event);
-    if (event instanceof DOF2Event)
+    switch (event.type()) {
+    case BogusEvent.DOF2_EVENT:
       performInteraction((DOF2Event) event);
-    if (event instanceof DOF3Event)
+      break;
+    case BogusEvent.DOF1_EVENT:
+      performInteraction((DOF1Event) event);
+      break;
+    case BogusEvent.DOF3_EVENT:
       performInteraction((DOF3Event) event);
-    if (event instanceof DOF6Event)
+      break;
+    case BogusEvent.DOF6_EVENT:
       performInteraction((DOF6Event) event);
+      break;
+    }
   }
 
   /**
@@ -142,13 +155,16 @@ public abstract class GrabberObject implements Grabber {
 
   @Override
   public boolean checkIfGrabsInput(BogusEvent event) {
-    if (event instanceof KeyboardEvent)
+    switch (event.type()) {
+    case BogusEvent.KEYBOARD_EVENT:
       return checkIfGrabsInput((KeyboardEvent) event);
-    if (event instanceof ClickEvent)
+    case BogusEvent.CLICK_EVENT:
       return checkIfGrabsInput((ClickEvent) event);
-    if (event instanceof MotionEvent)
+    case BogusEvent.BOGUS_EVENT:
+      return false;
+    default:
       return checkIfGrabsInput((MotionEvent) event);
-    return false;
+    }
   }
 
   /**
@@ -160,14 +176,16 @@ public abstract class GrabberObject implements Grabber {
    * {@link remixlab.bias.event.KeyboardEvent}.
    */
   public boolean checkIfGrabsInput(MotionEvent event) {
-    if (event instanceof DOF1Event)
-      return checkIfGrabsInput((DOF1Event) event);
-    if (event instanceof DOF2Event)
+    switch (event.type()) {
+    case BogusEvent.DOF2_EVENT:
       return checkIfGrabsInput((DOF2Event) event);
-    if (event instanceof DOF3Event)
+    case BogusEvent.DOF1_EVENT:
+      return checkIfGrabsInput((DOF1Event) event);
+    case BogusEvent.DOF3_EVENT:
       return checkIfGrabsInput((DOF3Event) event);
-    if (event instanceof DOF6Event)
+    case BogusEvent.DOF6_EVENT:
       return checkIfGrabsInput((DOF6Event) event);
+    }
     return false;
   }
 
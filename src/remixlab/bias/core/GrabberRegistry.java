@@ -0,0 +1,255 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.core;
+
+/**
+ * The grabbers of all the agents registered at an
+ * {@link remixlab.bias.core.InputHandler} (see
+ * {@link remixlab.bias.core.InputHandler#grabberRegistry()}). Each grabber is held once,
+ * together with a bit mask telling which agents hold it, so that the memory needed is
+ * proportional to the number of grabbers (instead of agents times grabbers). The agent
+ * {@link remixlab.bias.core.Agent#grabbers()} are views filtering the registry.
+ * <p>
+ * Grabbers are compared by identity (not with {@code equals()}) and kept in insertion
+ * order. Adding, removing and querying a grabber take constant (amortized) time.
+ * Entries are stored in slots which may be traversed in order to iterate over the
+ * grabbers of a given agent:
+ *
+ * <pre>
+ * {@code
+ * for (int i = 0; i < registry.end(); i++)
+ *   if (registry.isHeld(i, agentSlot))
+ *     doSomething(registry.grabberAt(i));
+ * }
+ * </pre>
+ */
+public class GrabberRegistry {
+  // grabbers in insertion order, with null holes left by removals
+  protected Grabber[] grabbers = new Grabber[16];
+  // agent bit masks: words per grabber
+  protected long[] masks = new long[16];
+  protected int words = 1, agents;
+  protected int end, size;
+  protected int[] counts = new int[64];
+  // open addressing index: grabber slot, or -1 if free
+  protected int[] table;
+  protected int mask;
+
+  public GrabberRegistry() {
+    rebuild(grabbers.length);
+  }
+
+  /**
+   * Internal use. Returns a new agent slot, i.e., the bit identifying the agent in the
+   * grabber masks. Called by the {@link remixlab.bias.core.Agent} constructor.
+   */
+  public int newAgentSlot() {
+    if (agents == words * 64) {
+      int newWords = words + 1;
+      long[] newMasks = new long[grabbers.length * newWords];
+      for (int i = 0; i < end; i++)
+        System.arraycopy(masks, i * words, newMasks, i * newWords, words);
+      masks = newMasks;
+      words = newWords;
+      int[] newCounts = new int[words * 64];
+      System.arraycopy(counts, 0, newCounts, 0, counts.length);
+      counts = newCounts;
+    }
+    return agents++;
+  }
+
+  /**
+   * Returns the number of grabbers held by any agent.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of grabbers held by the agent identified by {@code agentSlot}.
+   */
+  public int size(int agentSlot) {
+    return counts[agentSlot];
+  }
+
+  /**
+   * Returns {@code true} if the {@code grabber} is held by any agent.
+   */
+  public boolean contains(Grabber grabber) {
+    return indexOf(grabber) != -1;
+  }
+
+  /**
+   * Returns {@code true} if the {@code grabber} is held by the agent identified by
+   * {@code agentSlot}.
+   */
+  public boolean contains(Grabber grabber, int agentSlot) {
+    int i = indexOf(grabber);
+    return i != -1 && isHeld(i, agentSlot);
+  }
+
+  /**
+   * Adds the {@code grabber} to those held by the agent identified by {@code agentSlot}.
+   * Returns {@code false} if the agent already held it.
+   */
+  public boolean add(Grabber grabber, int agentSlot) {
+    if (grabber == null)
+      return false;
+    int i = indexOf(grabber);
+    if (i == -1) {
+      if (end == grabbers.length)
+        // compact when there are enough holes, grow otherwise
+        rebuild(end - size >= end / 4 ? grabbers.length : 2 * grabbers.length);
+      i = end++;
+      grabbers[i] = grabber;
+      index(i);
+      size++;
+    } else if (isHeld(i, agentSlot))
+      return false;
+    masks[i * words + (agentSlot >>> 6)] |= 1L << agentSlot;
+    counts[agentSlot]++;
+    return true;
+  }
+
+  /**
+   * Removes the {@code grabber} from those held by the agent identified by
+   * {@code agentSlot}. Returns {@code false} if the agent didn't hold it.
+   */
+  public boolean remove(Grabber grabber, int agentSlot) {
+    int i = indexOf(grabber);
+    if (i == -1 || !isHeld(i, agentSlot))
+      return false;
+    release(i, agentSlot);
+    return true;
+  }
+
+  /**
+   * Removes all the grabbers held by the agent identified by {@code agentSlot}.
+   */
+  public void clear(int agentSlot) {
+    for (int i = 0; i < end && counts[agentSlot] > 0; i++)
+      if (grabbers[i] != null && isHeld(i, agentSlot))
+        release(i, agentSlot);
+  }
+
+  /**
+   * Returns the upper bound of the grabber slots, i.e., to iterate over the registry.
+   */
+  public int end() {
+    return end;
+  }
+
+  /**
+   * Returns the grabber held at the {@code i}-th slot, or null if the slot is free.
+   */
+  public Grabber grabberAt(int i) {
+    return grabbers[i];
+  }
+
+  /**
+   * Returns {@code true} if the grabber held at the {@code i}-th slot is held by the
+   * agent identified by {@code agentSlot}.
+   */
+  public boolean isHeld(int i, int agentSlot) {
+    return (masks[i * words + (agentSlot >>> 6)] & (1L << agentSlot)) != 0;
+  }
+
+  /**
+   * Internal use. Clears the agent bit of the {@code i}-th grabber and frees the slot
+   * when no agent holds it anymore.
+   */
+  protected void release(int i, int agentSlot) {
+    masks[i * words + (agentSlot >>> 6)] &= ~(1L << agentSlot);
+    counts[agentSlot]--;
+    for (int w = 0; w < words; w++)
+      if (masks[i * words + w] != 0)
+        return;
+    unindex(i);
+    grabbers[i] = null;
+    size--;
+    // trailing holes are simply dropped
+    while (end > 0 && grabbers[end - 1] == null)
+      end--;
+  }
+
+  protected int indexOf(Grabber grabber) {
+    if (grabber == null)
+      return -1;
+    int t = hash(grabber) & mask;
+    while (table[t] != -1) {
+      if (grabbers[table[t]] == grabber)
+        return table[t];
+      t = (t + 1) & mask;
+    }
+    return -1;
+  }
+
+  protected void index(int i) {
+    int t = hash(grabbers[i]) & mask;
+    while (table[t] != -1)
+      t = (t + 1) & mask;
+    table[t] = i;
+  }
+
+  protected void unindex(int i) {
+    int t = hash(grabbers[i]) & mask;
+    while (table[t] != i)
+      t = (t + 1) & mask;
+    table[t] = -1;
+    // backward shift deletion (see remixlab.util.LongMap)
+    int j = t;
+    for (;;) {
+      j = (j + 1) & mask;
+      if (table[j] == -1)
+        return;
+      int k = hash(grabbers[table[j]]) & mask;
+      if (t <= j ? (t < k && k <= j) : (t < k || k <= j))
+        continue;
+      table[t] = table[j];
+      table[j] = -1;
+      t = j;
+    }
+  }
+
+  /**
+   * Internal use. Moves the grabbers (dropping the holes) into new arrays of the given
+   * {@code capacity} and rebuilds the index.
+   */
+  protected void rebuild(int capacity) {
+    Grabber[] newGrabbers = new Grabber[capacity];
+    long[] newMasks = new long[capacity * words];
+    int n = 0;
+    for (int i = 0; i < end; i++)
+      if (grabbers[i] != null) {
+        newGrabbers[n] = grabbers[i];
+        System.arraycopy(masks, i * words, newMasks, n * words, words);
+        n++;
+      }
+    grabbers = newGrabbers;
+    masks = newMasks;
+    end = n;
+    int length = 4;
+    while (length < 2 * capacity)
+      length <<= 1;
+    table = new int[length];
+    mask = length - 1;
+    for (int t = 0; t < length; t++)
+      table[t] = -1;
+    for (int i = 0; i < end; i++)
+      index(i);
+  }
+
+  protected static int hash(Grabber grabber) {
+    int h = System.identityHashCode(grabber);
+    // spread the identity hash bits, since the index is a power of two table
+    return h ^ (h >>> 16);
+  }
+}
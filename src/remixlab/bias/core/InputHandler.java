@@ -11,13 +11,21 @@
 package remixlab.bias.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
+import remixlab.bias.event.EventLogWriter;
+import remixlab.bias.event.MotionEvent;
+import remixlab.util.Histogram;
+import remixlab.util.LongMap;
+import remixlab.util.MpscQueue;
+import remixlab.util.Pool;
+
 /**
  * The InputHandler object is the high level package handler which holds a collection of
  * {@link #agents()}, and an event dispatcher queue of
- * {@link remixlab.bias.core.EventGrabberTuple}s ({@link #eventTupleQueue()}). Such tuple
+ * {@link remixlab.bias.core.EventGrabberTuple}s (the event tuple queue). Such tuple
  * represents a message passing to application objects, allowing an object to be
  * instructed to perform a particular user-defined action from a given
  * {@link remixlab.bias.core.BogusEvent}. For an introduction to BIAS please refer to
@@ -27,17 +35,78 @@ import java.util.List;
  * {@link #handle()}. Therefore, simply attach a call to {@link #handle()} at the end of
  * your main event (drawing) loop for that to take effect (like it's done in
  * <b>dandelion</b> by the <b>AbstractScene.postDraw()</b> method).
+ * <p>
+ * Agents may {@link #enqueueEventTuple(EventGrabberTuple)} from any thread (e.g., the one
+ * delivering the device events). The event tuple queue is a bounded lock-free queue (see
+ * {@link remixlab.util.MpscQueue}) which is drained once per {@link #handle()} call, on
+ * the thread calling it. See {@link #eventQueueCapacity()},
+ * {@link #eventQueueOverflows()} and {@link #eventQueueDepth()}.
+ * <p>
+ * Drained tuples are performed by {@link Priority} class (see
+ * {@link remixlab.bias.core.Agent#setPriority(Priority)} and
+ * {@link #setPriority(Shortcut, Priority)}), in FIFO order within each class. When a
+ * {@link #frameBudget()} is set, the tuples which don't fit in it are deferred to the
+ * next {@link #handle()} call, but no tuple is deferred more than
+ * {@link #maxDeferredFrames()} times in a row. See {@link #deferredEvents()} and
+ * {@link #queueLatency(Priority)}.
  */
 public class InputHandler {
+  /**
+   * Event tuple priority classes. Tuples of a higher class (e.g., keyboard actions) are
+   * performed before those of lower ones (e.g., expensive interactions such as zooming
+   * on region), which are thus the first to be deferred when the {@link #frameBudget()}
+   * runs out.
+   */
+  public enum Priority {
+    HIGH, NORMAL, LOW
+  }
+
   // D E V I C E S & E V E N T S
   protected List<Agent> agents;
-  protected LinkedList<EventGrabberTuple> eventTupleQueue;
+  protected GrabberRegistry grabberRegistry;
+  protected MpscQueue<EventGrabberTuple> eventTupleQueue;
+  protected Pool<EventGrabberTuple> tuplePool;
+  // tuples drained from the queue, once coalesced
+  protected ArrayList<EventGrabberTuple> pendingTuples = new ArrayList<EventGrabberTuple>();
+  protected int coalesced, drained, merged;
+  // performable tuples per priority class, those deferred from previous frames first
+  protected ArrayList<ArrayList<EventGrabberTuple>> queued;
+  protected LongMap<Priority> shortcutPriorities = new LongMap<Priority>();
+  protected long budget;
+  protected int maxDeferrals = 4;
+  protected int deferred, starved;
+  protected Histogram[] queueLatencies;
+  protected int queueDepth, peakQueueDepth;
+  protected long trckGeneration;
 
+  /**
+   * Same as {@code this(1024)}.
+   */
   public InputHandler() {
+    this(1024);
+  }
+
+  /**
+   * Constructs an input handler whose event tuple queue holds at most
+   * {@code queueCapacity} tuples between two {@link #handle()} calls.
+   */
+  public InputHandler(int queueCapacity) {
     // agents
     agents = new ArrayList<Agent>();
+    grabberRegistry = new GrabberRegistry();
     // events
-    eventTupleQueue = new LinkedList<EventGrabberTuple>();
+    eventTupleQueue = new MpscQueue<EventGrabberTuple>(queueCapacity);
+    queued = new ArrayList<ArrayList<EventGrabberTuple>>();
+    for (int i = 0; i < Priority.values().length; i++)
+      queued.add(new ArrayList<EventGrabberTuple>());
+    tuplePool = new Pool<EventGrabberTuple>(eventTupleQueue.capacity()) {
+      @Override
+      protected EventGrabberTuple create() {
+        EventGrabberTuple tuple = new EventGrabberTuple(null, null);
+        tuple.pooled = true;
+        return tuple;
+      }
+    };
   }
 
   /**
@@ -54,10 +123,13 @@ public class InputHandler {
    * {@link remixlab.bias.core.Agent#updateTrackedGrabberFeed()} and
    * {@link remixlab.bias.core.Agent#handleFeed()} methods, respectively. The bogus event
    * may also be obtained from {@link remixlab.bias.core.Agent#handleFeed()} which may
-   * replace both of the previous feeds when they are null.<br>
+   * replace both of the previous feeds when they are null. Agents polled from a
+   * background thread hand their samples instead, see
+   * {@link remixlab.bias.core.Agent#startPolling(float)}.<br>
    * 2. User-defined action consumer loop: which for each
    * {@link remixlab.bias.core.EventGrabberTuple} calls
-   * {@link remixlab.bias.core.EventGrabberTuple#perform()}.<br>
+   * {@link remixlab.bias.core.EventGrabberTuple#perform()}, by {@link Priority} class
+   * and within the {@link #frameBudget()}.<br>
    * 
    * @see remixlab.bias.core.Agent#feed()
    * @see remixlab.bias.core.Agent#updateTrackedGrabberFeed()
@@ -66,13 +138,373 @@ public class InputHandler {
   public void handle() {
     // 1. Agents
     for (Agent agent : agents()) {
-      agent.updateTrackedGrabber(
-          agent.updateTrackedGrabberFeed() != null ? agent.updateTrackedGrabberFeed() : agent.feed());
-      agent.handle(agent.handleFeed() != null ? agent.handleFeed() : agent.feed());
+      if (agent.isPolling())
+        agent.handleSamples();
+      else {
+        agent.updateTrackedGrabber(
+            agent.updateTrackedGrabberFeed() != null ? agent.updateTrackedGrabberFeed() : agent.feed());
+        agent.handle(agent.handleFeed() != null ? agent.handleFeed() : agent.feed());
+      }
+      agent.updateTrackingStats();
+      EventLogWriter writer = agent.recorder;
+      if (writer != null)
+        writer.frame();
+    }
+    // 2. Low level events: only those enqueued so far, so that producers running
+    // on other threads cannot keep this loop busy
+    drain(eventTupleQueue.size());
+    queueDepth = drained;
+    if (queueDepth > peakQueueDepth)
+      peakQueueDepth = queueDepth;
+    coalesced = merged;
+    drained = 0;
+    merged = 0;
+    for (int i = 0; i < pendingTuples.size(); i++) {
+      EventGrabberTuple tuple = pendingTuples.get(i);
+      queued.get(priority(tuple).ordinal()).add(tuple);
+    }
+    pendingTuples.clear();
+    performTuples();
+  }
+
+  /**
+   * Internal use. Moves (at most) {@code count} tuples from the event tuple queue
+   * to the pending ones, coalescing them (see {@link #coalesce(EventGrabberTuple)}).
+   */
+  protected void drain(int count) {
+    for (int i = 0; i < count; i++) {
+      EventGrabberTuple tuple = eventTupleQueue.poll();
+      if (tuple == null)
+        break;
+      drained++;
+      if (coalesce(tuple))
+        merged++;
+      else
+        pendingTuples.add(tuple);
     }
-    // 2. Low level events
-    while (!eventTupleQueue.isEmpty())
-      eventTupleQueue.remove().perform();
+  }
+
+  /**
+   * Internal use. Performs the queued tuples by priority class, deferring those which
+   * don't fit in the {@link #frameBudget()} (unless they've been deferred
+   * {@link #maxDeferredFrames()} times already). At least one tuple is performed.
+   */
+  protected void performTuples() {
+    long deadline = budget > 0 ? System.nanoTime() + budget : 0;
+    boolean exhausted = false;
+    int performed = 0;
+    deferred = 0;
+    starved = 0;
+    for (int p = 0; p < queued.size(); p++) {
+      ArrayList<EventGrabberTuple> tuples = queued.get(p);
+      int kept = 0;
+      for (int i = 0; i < tuples.size(); i++) {
+        EventGrabberTuple tuple = tuples.get(i);
+        if (!exhausted && budget > 0 && performed > 0 && System.nanoTime() - deadline >= 0)
+          exhausted = true;
+        if (exhausted) {
+          // deferred tuples come first, so that the starving ones are performed in order
+          if (tuple.deferrals < maxDeferrals) {
+            tuple.deferrals++;
+            tuples.set(kept++, tuple);
+            continue;
+          }
+          starved++;
+        }
+        performTuple(tuple, p);
+        performed++;
+      }
+      while (tuples.size() > kept)
+        tuples.remove(tuples.size() - 1);
+      deferred += kept;
+    }
+  }
+
+  /**
+   * Internal use. Performs and recycles the {@code tuple}, recording its latencies.
+   */
+  protected void performTuple(EventGrabberTuple tuple, int priority) {
+    tuple.deferrals = 0;
+    Agent agent = tuple.agent;
+    boolean agentStats = agent != null && agent.isLatencyStatsEnabled() && tuple.event != null;
+    Histogram[] histograms = queueLatencies;
+    if (agentStats || histograms != null) {
+      long start = System.nanoTime();
+      if (histograms != null)
+        histograms[priority].record(start - tuple.stamp);
+      if (agentStats)
+        agent.dequeued(tuple, start);
+      tuple.perform();
+      if (agentStats)
+        agent.record(Agent.Stage.PERFORM, System.nanoTime() - start);
+    } else
+      tuple.perform();
+    recycle(tuple);
+  }
+
+  /**
+   * Returns the {@link Priority} class of the {@code tuple}: the one set for its event
+   * shortcut (see {@link #setPriority(Shortcut, Priority)}) or, if none, the
+   * {@link remixlab.bias.core.Agent#priority()} of the agent which enqueued it. Tuples
+   * enqueued manually default to {@link Priority#NORMAL}.
+   */
+  public Priority priority(EventGrabberTuple tuple) {
+    if (!shortcutPriorities.isEmpty() && tuple.event != null) {
+      Priority priority = shortcutPriorities.get(tuple.event.shortcutCode());
+      if (priority != null)
+        return priority;
+    }
+    return tuple.agent != null ? tuple.agent.priority() : Priority.NORMAL;
+  }
+
+  /**
+   * Sets the {@link Priority} class of the tuples whose event shortcut is
+   * {@code shortcut}, overriding the one of the agent which enqueued them. Pass
+   * {@code null} to remove it.
+   */
+  public void setPriority(Shortcut shortcut, Priority priority) {
+    if (priority == null)
+      shortcutPriorities.remove(shortcut.code());
+    else
+      shortcutPriorities.put(shortcut.code(), priority);
+  }
+
+  /**
+   * Returns the {@link Priority} class set for the {@code shortcut}, or {@code null} if
+   * none.
+   * 
+   * @see #setPriority(Shortcut, Priority)
+   */
+  public Priority priority(Shortcut shortcut) {
+    return shortcutPriorities.get(shortcut.code());
+  }
+
+  /**
+   * Returns the time (in nanoseconds) each {@link #handle()} call may spend performing
+   * event tuples, or 0 if it isn't limited (the default). Tuples which don't fit in the
+   * budget are deferred to the next call (lower {@link Priority} classes first).
+   * 
+   * @see #maxDeferredFrames()
+   */
+  public long frameBudget() {
+    return budget;
+  }
+
+  /**
+   * Sets the {@link #frameBudget()}. Pass 0 to perform all the tuples every frame.
+   */
+  public void setFrameBudget(long nanos) {
+    budget = Math.max(0, nanos);
+  }
+
+  /**
+   * Returns the number of consecutive {@link #handle()} calls a tuple may be deferred
+   * when the {@link #frameBudget()} runs out. Tuples deferred that many times are
+   * performed regardless of the budget, so that lower {@link Priority} classes never
+   * starve. Default is 4.
+   */
+  public int maxDeferredFrames() {
+    return maxDeferrals;
+  }
+
+  /**
+   * Sets the {@link #maxDeferredFrames()}.
+   */
+  public void setMaxDeferredFrames(int frames) {
+    maxDeferrals = Math.max(0, frames);
+  }
+
+  /**
+   * Returns the number of tuples the last {@link #handle()} call deferred to the next
+   * one, because they didn't fit in the {@link #frameBudget()}.
+   */
+  public int deferredEvents() {
+    return deferred;
+  }
+
+  /**
+   * Returns the number of tuples the last {@link #handle()} call performed beyond the
+   * {@link #frameBudget()}, because they had been deferred {@link #maxDeferredFrames()}
+   * times already.
+   */
+  public int starvedEvents() {
+    return starved;
+  }
+
+  /**
+   * Returns {@code true} if the handler measures the {@link #queueLatency(Priority)} of
+   * each priority class. Disabled by default.
+   */
+  public boolean isQueueLatencyStatsEnabled() {
+    return queueLatencies != null;
+  }
+
+  /**
+   * Enables or disables the {@link #isQueueLatencyStatsEnabled()} according to
+   * {@code enable}. Disabling it discards the recorded latencies.
+   */
+  public void enableQueueLatencyStats(boolean enable) {
+    if (enable == isQueueLatencyStatsEnabled())
+      return;
+    if (enable) {
+      Histogram[] histograms = new Histogram[Priority.values().length];
+      for (int i = 0; i < histograms.length; i++)
+        histograms[i] = new Histogram();
+      queueLatencies = histograms;
+    } else
+      queueLatencies = null;
+  }
+
+  /**
+   * Returns the histogram of the times (in nanoseconds) the tuples of the given
+   * {@code priority} class spent queued, from their enqueuing to their performing
+   * (deferrals included), since the last {@link #resetEventQueueStats()}. Returns
+   * {@code null} if the {@link #isQueueLatencyStatsEnabled()} is disabled.
+   */
+  public Histogram queueLatency(Priority priority) {
+    Histogram[] histograms = queueLatencies;
+    return histograms == null ? null : histograms[priority.ordinal()];
+  }
+
+  /**
+   * Records the {@link remixlab.bias.core.Agent.Stage#PRESENT} latency of the agents
+   * whose events were performed since the last call. Should be called once the frame
+   * has been drawn (the scene calls it at the end of its
+   * {@link remixlab.dandelion.core.AbstractScene#postDraw()}).
+   * 
+   * @see remixlab.bias.core.Agent#latency(remixlab.bias.core.Agent.Stage)
+   */
+  public void framePresented() {
+    long now = System.nanoTime();
+    for (Agent agent : agents())
+      if (agent.isLatencyStatsEnabled())
+        agent.presented(now);
+  }
+
+  /**
+   * Internal use. Merges the {@code tuple} motion event into the last pending one,
+   * provided it was produced by the same agent, they target the same grabber and the
+   * agent {@link remixlab.bias.core.Agent#isMotionCoalescingEnabled()}. Events are never
+   * merged across the tuples of other agents, so that the order among agents is kept.
+   * Returns {@code true} if the tuple was merged (and recycled).
+   */
+  protected boolean coalesce(EventGrabberTuple tuple) {
+    if (tuple.agent == null || !tuple.agent.isMotionCoalescingEnabled() || !(tuple.event instanceof MotionEvent)
+        || pendingTuples.isEmpty())
+      return false;
+    EventGrabberTuple last = pendingTuples.get(pendingTuples.size() - 1);
+    if (last.agent != tuple.agent || last.grabber != tuple.grabber || !(last.event instanceof MotionEvent)
+        || !((MotionEvent) last.event).coalesce((MotionEvent) tuple.event))
+      return false;
+    recycle(tuple);
+    return true;
+  }
+
+  /**
+   * Returns the number of motion events that were merged into others by the last
+   * {@link #handle()} call.
+   * 
+   * @see remixlab.bias.core.Agent#isMotionCoalescingEnabled()
+   */
+  public int coalescedEvents() {
+    return coalesced;
+  }
+
+  /**
+   * Returns an [{@code event}, {@code grabber}] tuple taken from the tuple pool, which
+   * is automatically recycled (together with the event, see
+   * {@link remixlab.bias.core.Agent#recycle(BogusEvent)}) once it has been performed by
+   * {@link #handle()}. Used by {@link remixlab.bias.core.Agent#handle(BogusEvent)}. May be
+   * called from any thread.
+   */
+  public EventGrabberTuple obtainEventTuple(BogusEvent event, Grabber grabber, Agent agent) {
+    EventGrabberTuple tuple = tuplePool.obtain();
+    tuple.event = event;
+    tuple.grabber = grabber;
+    tuple.agent = agent;
+    tuple.stamp = System.nanoTime();
+    if (agent != null && agent.isLatencyStatsEnabled())
+      agent.record(Agent.Stage.ENQUEUE, tuple.stamp - event.nanoTimestamp());
+    return tuple;
+  }
+
+  /**
+   * Internal use. Returns a performed pooled tuple (and its event) to their pools, and
+   * allows the tuple to be enqueued again.
+   */
+  protected void recycle(EventGrabberTuple tuple) {
+    tuple.queued = 0;
+    if (!tuple.pooled)
+      return;
+    if (tuple.agent != null && tuple.event != null)
+      tuple.agent.recycle(tuple.event);
+    tuple.event = null;
+    tuple.grabber = null;
+    tuple.agent = null;
+    tuplePool.release(tuple);
+  }
+
+  /**
+   * Returns the number of tuples drained from the event tuple queue by the last
+   * {@link #handle()} call.
+   * 
+   * @see #peakEventQueueDepth()
+   */
+  public int eventQueueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * Returns the maximum {@link #eventQueueDepth()} observed since the handler was
+   * instantiated or {@link #resetEventQueueStats()} was last called.
+   */
+  public int peakEventQueueDepth() {
+    return peakQueueDepth;
+  }
+
+  /**
+   * Returns the number of tuples that were discarded because the event tuple queue
+   * was full, i.e., because more than its
+   * {@link remixlab.util.MpscQueue#capacity()} tuples were enqueued between two
+   * {@link #handle()} calls.
+   */
+  public long eventQueueOverflows() {
+    return eventTupleQueue.overflows();
+  }
+
+  /**
+   * Resets the {@link #peakEventQueueDepth()} and the {@link #queueLatency(Priority)}
+   * histograms.
+   */
+  public void resetEventQueueStats() {
+    peakQueueDepth = 0;
+    Histogram[] histograms = queueLatencies;
+    if (histograms != null)
+      for (Histogram histogram : histograms)
+        histogram.reset();
+  }
+
+  /**
+   * Returns the tracking generation, i.e., a counter which is incremented every time
+   * {@link #invalidateTracking()} is called.
+   * 
+   * @see remixlab.bias.core.Agent#isTrackingCacheEnabled()
+   */
+  public long trackingGeneration() {
+    return trckGeneration;
+  }
+
+  /**
+   * Call it when the state the grabbers use to
+   * {@link remixlab.bias.core.Grabber#checkIfGrabsInput(BogusEvent)} changed (e.g., a
+   * frame was moved or the eye modified), so that the agents re-track them on the next
+   * {@link remixlab.bias.core.Agent#updateTrackedGrabber(BogusEvent)} call, even if the
+   * event used to track them remains the same.
+   * 
+   * @see remixlab.bias.core.Agent#isTrackingCacheEnabled()
+   */
+  public void invalidateTracking() {
+    trckGeneration++;
   }
 
   /**
@@ -93,6 +525,28 @@ public class InputHandler {
       agent.removeGrabber(grabber);
   }
 
+  /**
+   * Calls {@link remixlab.bias.core.Agent#addGrabber(Grabber)} on registered
+   * {@link #agents()} for each one of the {@code grabbers}. Takes time proportional to the
+   * number of grabbers times the number of agents.
+   */
+  public void addGrabbers(Collection<? extends Grabber> grabbers) {
+    for (Agent agent : agents())
+      for (Grabber grabber : grabbers)
+        agent.addGrabber(grabber);
+  }
+
+  /**
+   * Calls {@link remixlab.bias.core.Agent#removeGrabber(Grabber)} on registered
+   * {@link #agents()} for each one of the {@code grabbers}. Takes time proportional to
+   * the number of grabbers times the number of agents.
+   */
+  public void removeGrabbers(Collection<? extends Grabber> grabbers) {
+    for (Agent agent : agents())
+      for (Grabber grabber : grabbers)
+        agent.removeGrabber(grabber);
+  }
+
   /**
    * Calls {@link remixlab.bias.core.Agent#removeGrabbers()} on registered
    * {@link #agents()}.
@@ -140,6 +594,14 @@ public class InputHandler {
       agent.resetTrackedGrabber();
   }
 
+  /**
+   * Returns the registry holding the grabbers of all the agents created with this
+   * handler (see {@link remixlab.bias.core.Agent#grabbers()}). Rarely needed.
+   */
+  public GrabberRegistry grabberRegistry() {
+    return grabberRegistry;
+  }
+
   /**
    * Returns a list of the registered agents.
    */
@@ -179,38 +641,117 @@ public class InputHandler {
   }
 
   /**
-   * Returns the event tuple queue. Rarely needed.
+   * Returns the maximum number of tuples the event tuple queue may hold between two
+   * {@link #handle()} calls.
+   * 
+   * @see #eventQueueOverflows()
+   */
+  public int eventQueueCapacity() {
+    return eventTupleQueue.capacity();
+  }
+
+  /**
+   * Returns a snapshot of the event tuples waiting to be performed, i.e., those deferred
+   * (see {@link #frameBudget()}) followed by those enqueued since the last
+   * {@link #handle()} call, which are drained first (see
+   * {@link #removeEventTuple(BogusEvent)}). Should be called from the thread calling
+   * {@link #handle()}.
+   * 
+   * @deprecated The event tuple queue is now a lock-free queue (see
+   *             {@link #eventQueueCapacity()}), so that this method allocates a copy
+   *             of it, whose changes have no effect. Use
+   *             {@link #enqueueEventTuple(EventGrabberTuple)},
+   *             {@link #removeEventTuple(BogusEvent)} and {@link #removeEventTuples()}
+   *             instead.
    */
+  @Deprecated
   public LinkedList<EventGrabberTuple> eventTupleQueue() {
-    return eventTupleQueue;
+    drain(eventTupleQueue.size());
+    LinkedList<EventGrabberTuple> snapshot = new LinkedList<EventGrabberTuple>();
+    for (ArrayList<EventGrabberTuple> tuples : queued)
+      snapshot.addAll(tuples);
+    snapshot.addAll(pendingTuples);
+    return snapshot;
   }
 
   /**
    * Enqueues the eventTuple for later execution which happens at the end of
-   * {@link #handle()}. Returns {@code true} if succeeded and {@code false} otherwise.
+   * {@link #handle()}. Returns {@code true} if succeeded and {@code false} otherwise
+   * (i.e., when the queue is full, see {@link #eventQueueOverflows()}, or when the tuple
+   * is already enqueued and hasn't been performed yet). May be called from any thread.
+   * <p>
+   * A pooled tuple (see {@link #obtainEventTuple(BogusEvent, Grabber, Agent)}) which
+   * doesn't fit in the queue is returned to the pool, but its event is left to the
+   * caller.
    * 
    * @see #handle()
    */
   public boolean enqueueEventTuple(EventGrabberTuple eventTuple) {
-    if (!eventTupleQueue.contains(eventTuple))
-      return eventTupleQueue.add(eventTuple);
+    if (!EventGrabberTuple.QUEUED.compareAndSet(eventTuple, 0, 1))
+      return false;
+    if (!eventTuple.pooled)
+      eventTuple.stamp = System.nanoTime();
+    if (eventTupleQueue.offer(eventTuple))
+      return true;
+    if (eventTuple.pooled)
+      eventTuple.event = null;
+    recycle(eventTuple);
     return false;
   }
 
   /**
-   * Removes the given event from the event queue. No action is executed.
+   * Removes the tuples holding the given event from the event queue (and from those
+   * deferred, see {@link #frameBudget()}), recycling them. No action is executed. Should
+   * be called from the thread calling {@link #handle()}. The queued tuples are drained
+   * (to be performed by the next {@link #handle()} call), so that no tuple may be lost
+   * when producers fill the queue concurrently.
    * 
    * @param event
    *          to be removed.
    */
   public void removeEventTuple(BogusEvent event) {
-    eventTupleQueue.remove(event);
+    drain(eventTupleQueue.size());
+    boolean recycled = removeEventTuple(pendingTuples, event, false);
+    for (ArrayList<EventGrabberTuple> tuples : queued)
+      recycled = removeEventTuple(tuples, event, recycled);
+  }
+
+  /**
+   * Internal use. Removes (and recycles) the {@code tuples} holding the given
+   * {@code event} in place. The event itself is recycled only once, i.e., unless
+   * {@code recycled} is {@code true}. Returns {@code true} if the event was recycled.
+   */
+  protected boolean removeEventTuple(ArrayList<EventGrabberTuple> tuples, BogusEvent event, boolean recycled) {
+    int kept = 0;
+    for (int i = 0; i < tuples.size(); i++) {
+      EventGrabberTuple tuple = tuples.get(i);
+      if (tuple.event != event) {
+        tuples.set(kept++, tuple);
+        continue;
+      }
+      if (recycled)
+        tuple.event = null;
+      recycled = true;
+      recycle(tuple);
+    }
+    while (tuples.size() > kept)
+      tuples.remove(tuples.size() - 1);
+    return recycled;
   }
 
   /**
-   * Clears the event queue. Nothing is executed.
+   * Clears the event queue (and the deferred tuples), recycling the tuples. Nothing is
+   * executed. Should be called from the thread calling {@link #handle()}.
    */
   public void removeEventTuples() {
-    eventTupleQueue.clear();
+    drain(eventTupleQueue.size());
+    for (int i = 0; i < pendingTuples.size(); i++)
+      recycle(pendingTuples.get(i));
+    pendingTuples.clear();
+    for (ArrayList<EventGrabberTuple> tuples : queued) {
+      for (int i = 0; i < tuples.size(); i++)
+        recycle(tuples.get(i));
+      tuples.clear();
+    }
   }
 }
\ No newline at end of file
@@ -11,8 +11,6 @@
 package remixlab.bias.core;
 
 import remixlab.util.Copyable;
-import remixlab.util.EqualsBuilder;
-import remixlab.util.HashCodeBuilder;
 
 /**
  * Shortcuts are {@link remixlab.bias.core.BogusEvent} means to bind user-defined actions
@@ -37,11 +35,21 @@ import remixlab.util.HashCodeBuilder;
  * <li>{@link remixlab.bias.event.KeyboardEvent} /
  * {@link remixlab.bias.event.KeyboardShortcut}</li>
  * </ol>
+ * <p>
+ * Shortcuts are encoded as a single {@code long} (see {@link #code()}), which is what
+ * {@link remixlab.bias.ext.Profile} bindings are keyed by.
  */
 public class Shortcut implements Copyable {
+  // shortcut types, stored at the highest bits of the code()
+  public static final int SHORTCUT = 0;
+  public static final int MOTION = 1;
+  public static final int CLICK = 2;
+  public static final int KEYBOARD = 3;
+
   @Override
   public int hashCode() {
-    return new HashCodeBuilder(17, 37).append(mask).append(id).toHashCode();
+    long code = code();
+    return (int) (code ^ (code >>> 32));
   }
 
   @Override
@@ -54,7 +62,31 @@ public class Shortcut implements Copyable {
       return false;
 
     Shortcut other = (Shortcut) obj;
-    return new EqualsBuilder().append(mask, other.mask).append(id, other.id).isEquals();
+    return code() == other.code();
+  }
+
+  /**
+   * Packs the shortcut {@code type} (4 bits), modifier {@code mask} (12 bits),
+   * {@code extra} data (16 bits, such as the number of clicks or the key) and {@code id}
+   * (32 bits) into a single {@code long}.
+   * 
+   * @see #code()
+   */
+  public static long code(int type, int mask, int extra, int id) {
+    return ((long) (type & 0xF) << 60) | ((long) (mask & 0xFFF) << 48) | ((long) (extra & 0xFFFF) << 32)
+        | (id & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the shortcut encoded as a single {@code long}. Two shortcuts of the same
+   * class are equal iff their codes are equal. Override it (together with
+   * {@link remixlab.bias.core.BogusEvent#shortcutCode()}) if your shortcut defines
+   * additional data.
+   * 
+   * @see #code(int, int, int, int)
+   */
+  public long code() {
+    return code(SHORTCUT, mask, 0, id);
   }
 
   protected final int mask;
@@ -11,6 +11,7 @@
 package remixlab.bias.event;
 
 import remixlab.bias.core.BogusEvent;
+import remixlab.bias.core.Shortcut;
 import remixlab.util.EqualsBuilder;
 import remixlab.util.HashCodeBuilder;
 
@@ -44,6 +45,10 @@ public class ClickEvent extends BogusEvent {
   protected float x, y;
   protected final int numberOfClicks;
 
+  {
+    type = CLICK_EVENT;
+  }
+
   /**
    * Constructs a single click ClickEvent at the given position and from the given button
    * defining the events {@link #shortcut()}
@@ -119,6 +124,11 @@ public class ClickEvent extends BogusEvent {
     return new ClickShortcut(modifiers(), id(), clickCount());
   }
 
+  @Override
+  public long shortcutCode() {
+    return Shortcut.code(Shortcut.CLICK, modifiers(), clickCount() <= 0 ? 1 : clickCount(), id());
+  }
+
   /**
    * @return event x coordinate
    */
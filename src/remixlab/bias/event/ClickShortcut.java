@@ -13,8 +13,6 @@ package remixlab.bias.event;
 import remixlab.bias.core.BogusEvent;
 import remixlab.bias.core.Shortcut;
 import remixlab.util.Copyable;
-import remixlab.util.EqualsBuilder;
-import remixlab.util.HashCodeBuilder;
 
 /**
  * This class represents {@link remixlab.bias.event.ClickEvent} shortcuts.
@@ -25,24 +23,6 @@ import remixlab.util.HashCodeBuilder;
  * Note that click shortcuts should have at least one click.
  */
 public class ClickShortcut extends Shortcut implements Copyable {
-  @Override
-  public int hashCode() {
-    return new HashCodeBuilder(17, 37).appendSuper(super.hashCode()).append(numberOfClicks).toHashCode();
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    if (obj == null)
-      return false;
-    if (obj == this)
-      return true;
-    if (obj.getClass() != getClass())
-      return false;
-
-    ClickShortcut other = (ClickShortcut) obj;
-    return new EqualsBuilder().appendSuper(super.equals(obj)).append(numberOfClicks, other.numberOfClicks).isEquals();
-  }
-
   protected final int numberOfClicks;
 
   /**
@@ -90,6 +70,11 @@ public class ClickShortcut extends Shortcut implements Copyable {
     this.numberOfClicks = other.numberOfClicks;
   }
 
+  @Override
+  public long code() {
+    return code(CLICK, mask, numberOfClicks, id);
+  }
+
   @Override
   public ClickShortcut get() {
     return new ClickShortcut(this);
@@ -10,6 +10,7 @@
 
 package remixlab.bias.event;
 
+import remixlab.bias.core.BogusEvent;
 import remixlab.util.EqualsBuilder;
 import remixlab.util.HashCodeBuilder;
 import remixlab.util.Util;
@@ -38,6 +39,10 @@ public class DOF1Event extends MotionEvent {
 
   protected float x, dx;
 
+  {
+    type = DOF1_EVENT;
+  }
+
   /**
    * Construct an absolute DOF1 event.
    * 
@@ -105,6 +110,59 @@ public class DOF1Event extends MotionEvent {
     return new DOF1Event(this);
   }
 
+  @Override
+  protected void accumulate(MotionEvent other) {
+    DOF1Event event = (DOF1Event) other;
+    this.x = event.x;
+    this.dx += event.dx;
+  }
+
+  @Override
+  public int dofs() {
+    return 1;
+  }
+
+  @Override
+  public float dof(int i) {
+    switch (i) {
+    case 0:
+      return rel ? x : dx;
+    }
+    return 0;
+  }
+
+  @Override
+  public float delta(int i) {
+    switch (i) {
+    case 0:
+      return dx;
+    }
+    return 0;
+  }
+
+  @Override
+  public void setDof(int i, float value, float delta) {
+    switch (i) {
+    case 0:
+      if (rel) {
+        x = value;
+        dx = delta;
+      } else
+        dx = value;
+      break;
+    }
+  }
+
+  @Override
+  public void set(BogusEvent other) {
+    super.set(other);
+    if (other instanceof DOF1Event) {
+      DOF1Event event = (DOF1Event) other;
+      this.x = event.x;
+      this.dx = event.dx;
+    }
+  }
+
   @Override
   public DOF1Event flush() {
     return (DOF1Event) super.flush();
@@ -156,6 +214,14 @@ public class DOF1Event extends MotionEvent {
     return x() - dx();
   }
 
+  @Override
+  public boolean matches(MotionEvent other) {
+    if (!super.matches(other))
+      return false;
+    DOF1Event event = (DOF1Event) other;
+    return x == event.x && dx == event.dx;
+  }
+
   @Override
   public void modulate(float[] sens) {
     if (sens != null)
@@ -10,6 +10,7 @@
 
 package remixlab.bias.event;
 
+import remixlab.bias.core.BogusEvent;
 import remixlab.util.EqualsBuilder;
 import remixlab.util.HashCodeBuilder;
 import remixlab.util.Util;
@@ -42,6 +43,10 @@ public class DOF2Event extends MotionEvent {
   protected float x, dx;
   protected float y, dy;
 
+  {
+    type = DOF2_EVENT;
+  }
+
   /**
    * Construct an absolute event from the given dof's and modifiers.
    * 
@@ -111,6 +116,90 @@ public class DOF2Event extends MotionEvent {
     return new DOF2Event(this);
   }
 
+  @Override
+  protected void accumulate(MotionEvent other) {
+    DOF2Event event = (DOF2Event) other;
+    this.x = event.x;
+    this.dx += event.dx;
+    this.y = event.y;
+    this.dy += event.dy;
+  }
+
+  @Override
+  public int dofs() {
+    return 2;
+  }
+
+  @Override
+  public float dof(int i) {
+    switch (i) {
+    case 0:
+      return rel ? x : dx;
+    case 1:
+      return rel ? y : dy;
+    }
+    return 0;
+  }
+
+  @Override
+  public float delta(int i) {
+    switch (i) {
+    case 0:
+      return dx;
+    case 1:
+      return dy;
+    }
+    return 0;
+  }
+
+  @Override
+  public void setDof(int i, float value, float delta) {
+    switch (i) {
+    case 0:
+      if (rel) {
+        x = value;
+        dx = delta;
+      } else
+        dx = value;
+      break;
+    case 1:
+      if (rel) {
+        y = value;
+        dy = delta;
+      } else
+        dy = value;
+      break;
+    }
+  }
+
+  @Override
+  public void set(BogusEvent other) {
+    super.set(other);
+    if (other instanceof DOF2Event) {
+      DOF2Event event = (DOF2Event) other;
+      this.x = event.x;
+      this.dx = event.dx;
+      this.y = event.y;
+      this.dy = event.dy;
+    }
+  }
+
+  /**
+   * Re-initializes this event as if it was just constructed with
+   * {@code DOF2Event(prevEvent, x, y, modifiers, button)}, and returns it. Meant to
+   * recycle events (see {@link remixlab.util.Pool}), so that high rate devices don't
+   * allocate an event per sample.
+   */
+  public DOF2Event set(DOF2Event prevEvent, float x, float y, int modifiers, int button) {
+    reset(modifiers, button);
+    this.x = x;
+    this.y = y;
+    this.dx = 0;
+    this.dy = 0;
+    setPreviousEvent(prevEvent);
+    return this;
+  }
+
   @Override
   public DOF2Event flush() {
     return (DOF2Event) super.flush();
@@ -185,6 +274,14 @@ public class DOF2Event extends MotionEvent {
     return y() - dy();
   }
 
+  @Override
+  public boolean matches(MotionEvent other) {
+    if (!super.matches(other))
+      return false;
+    DOF2Event event = (DOF2Event) other;
+    return x == event.x && dx == event.dx && y == event.y && dy == event.dy;
+  }
+
   @Override
   public void modulate(float[] sens) {
     if (sens != null)
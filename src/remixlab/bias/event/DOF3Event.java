@@ -10,6 +10,7 @@
 
 package remixlab.bias.event;
 
+import remixlab.bias.core.BogusEvent;
 import remixlab.util.EqualsBuilder;
 import remixlab.util.HashCodeBuilder;
 import remixlab.util.Util;
@@ -43,6 +44,10 @@ public class DOF3Event extends MotionEvent {
   protected float y, dy;
   protected float z, dz;
 
+  {
+    type = DOF3_EVENT;
+  }
+
   /**
    * Construct an absolute event from the given dof's and modifiers.
    * 
@@ -114,7 +119,7 @@ public class DOF3Event extends MotionEvent {
     this.y = other.y;
     this.dy = other.dy;
     this.z = other.z;
-    this.dz = other.z;
+    this.dz = other.dz;
   }
 
   @Override
@@ -122,6 +127,89 @@ public class DOF3Event extends MotionEvent {
     return new DOF3Event(this);
   }
 
+  @Override
+  protected void accumulate(MotionEvent other) {
+    DOF3Event event = (DOF3Event) other;
+    this.x = event.x;
+    this.dx += event.dx;
+    this.y = event.y;
+    this.dy += event.dy;
+    this.z = event.z;
+    this.dz += event.dz;
+  }
+
+  @Override
+  public int dofs() {
+    return 3;
+  }
+
+  @Override
+  public float dof(int i) {
+    switch (i) {
+    case 0:
+      return rel ? x : dx;
+    case 1:
+      return rel ? y : dy;
+    case 2:
+      return rel ? z : dz;
+    }
+    return 0;
+  }
+
+  @Override
+  public float delta(int i) {
+    switch (i) {
+    case 0:
+      return dx;
+    case 1:
+      return dy;
+    case 2:
+      return dz;
+    }
+    return 0;
+  }
+
+  @Override
+  public void setDof(int i, float value, float delta) {
+    switch (i) {
+    case 0:
+      if (rel) {
+        x = value;
+        dx = delta;
+      } else
+        dx = value;
+      break;
+    case 1:
+      if (rel) {
+        y = value;
+        dy = delta;
+      } else
+        dy = value;
+      break;
+    case 2:
+      if (rel) {
+        z = value;
+        dz = delta;
+      } else
+        dz = value;
+      break;
+    }
+  }
+
+  @Override
+  public void set(BogusEvent other) {
+    super.set(other);
+    if (other instanceof DOF3Event) {
+      DOF3Event event = (DOF3Event) other;
+      this.x = event.x;
+      this.dx = event.dx;
+      this.y = event.y;
+      this.dy = event.dy;
+      this.z = event.z;
+      this.dz = event.dz;
+    }
+  }
+
   @Override
   public DOF3Event flush() {
     return (DOF3Event) super.flush();
@@ -224,6 +312,14 @@ public class DOF3Event extends MotionEvent {
     return z() - dz();
   }
 
+  @Override
+  public boolean matches(MotionEvent other) {
+    if (!super.matches(other))
+      return false;
+    DOF3Event event = (DOF3Event) other;
+    return x == event.x && dx == event.dx && y == event.y && dy == event.dy && z == event.z && dz == event.dz;
+  }
+
   @Override
   public void modulate(float[] sens) {
     if (sens != null)
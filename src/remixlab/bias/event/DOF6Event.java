@@ -10,6 +10,7 @@
 
 package remixlab.bias.event;
 
+import remixlab.bias.core.BogusEvent;
 import remixlab.util.EqualsBuilder;
 import remixlab.util.HashCodeBuilder;
 import remixlab.util.Util;
@@ -48,6 +49,10 @@ public class DOF6Event extends MotionEvent {
   protected float ry, dry;
   protected float rz, drz;
 
+  {
+    type = DOF6_EVENT;
+  }
+
   /**
    * Construct an absolute event from the given dof's and modifiers.
    * 
@@ -144,7 +149,7 @@ public class DOF6Event extends MotionEvent {
     this.y = other.y;
     this.dy = other.dy;
     this.z = other.z;
-    this.dz = other.z;
+    this.dz = other.dz;
     this.rx = other.rx;
     this.drx = other.drx;
     this.ry = other.ry;
@@ -158,6 +163,134 @@ public class DOF6Event extends MotionEvent {
     return new DOF6Event(this);
   }
 
+  @Override
+  protected void accumulate(MotionEvent other) {
+    DOF6Event event = (DOF6Event) other;
+    this.x = event.x;
+    this.dx += event.dx;
+    this.y = event.y;
+    this.dy += event.dy;
+    this.z = event.z;
+    this.dz += event.dz;
+    this.rx = event.rx;
+    this.drx += event.drx;
+    this.ry = event.ry;
+    this.dry += event.dry;
+    this.rz = event.rz;
+    this.drz += event.drz;
+  }
+
+  @Override
+  public int dofs() {
+    return 6;
+  }
+
+  @Override
+  public float dof(int i) {
+    switch (i) {
+    case 0:
+      return rel ? x : dx;
+    case 1:
+      return rel ? y : dy;
+    case 2:
+      return rel ? z : dz;
+    case 3:
+      return rel ? rx : drx;
+    case 4:
+      return rel ? ry : dry;
+    case 5:
+      return rel ? rz : drz;
+    }
+    return 0;
+  }
+
+  @Override
+  public float delta(int i) {
+    switch (i) {
+    case 0:
+      return dx;
+    case 1:
+      return dy;
+    case 2:
+      return dz;
+    case 3:
+      return drx;
+    case 4:
+      return dry;
+    case 5:
+      return drz;
+    }
+    return 0;
+  }
+
+  @Override
+  public void setDof(int i, float value, float delta) {
+    switch (i) {
+    case 0:
+      if (rel) {
+        x = value;
+        dx = delta;
+      } else
+        dx = value;
+      break;
+    case 1:
+      if (rel) {
+        y = value;
+        dy = delta;
+      } else
+        dy = value;
+      break;
+    case 2:
+      if (rel) {
+        z = value;
+        dz = delta;
+      } else
+        dz = value;
+      break;
+    case 3:
+      if (rel) {
+        rx = value;
+        drx = delta;
+      } else
+        drx = value;
+      break;
+    case 4:
+      if (rel) {
+        ry = value;
+        dry = delta;
+      } else
+        dry = value;
+      break;
+    case 5:
+      if (rel) {
+        rz = value;
+        drz = delta;
+      } else
+        drz = value;
+      break;
+    }
+  }
+
+  @Override
+  public void set(BogusEvent other) {
+    super.set(other);
+    if (other instanceof DOF6Event) {
+      DOF6Event event = (DOF6Event) other;
+      this.x = event.x;
+      this.dx = event.dx;
+      this.y = event.y;
+      this.dy = event.dy;
+      this.z = event.z;
+      this.dz = event.dz;
+      this.rx = event.rx;
+      this.drx = event.drx;
+      this.ry = event.ry;
+      this.dry = event.dry;
+      this.rz = event.rz;
+      this.drz = event.drz;
+    }
+  }
+
   @Override
   public DOF6Event flush() {
     return (DOF6Event) super.flush();
@@ -349,6 +482,16 @@ public class DOF6Event extends MotionEvent {
     return rz() - drz();
   }
 
+  @Override
+  public boolean matches(MotionEvent other) {
+    if (!super.matches(other))
+      return false;
+    DOF6Event event = (DOF6Event) other;
+    return x == event.x && dx == event.dx && y == event.y && dy == event.dy && z == event.z && dz == event.dz
+        && rx == event.rx && drx == event.drx && ry == event.ry && dry == event.dry && rz == event.rz
+        && drz == event.drz;
+  }
+
   @Override
   public void modulate(float[] sens) {
     if (sens != null)
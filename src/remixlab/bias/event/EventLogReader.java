@@ -0,0 +1,202 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.event;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import remixlab.bias.core.BogusEvent;
+
+/**
+ * Reads the records of a binary event log written by an {@link EventLogWriter}. Call
+ * {@link #next()} to advance to the next record, which is either a frame mark (see
+ * {@link #isFrame()}) or an {@link #event()}, re-instantiated with the recorded values
+ * (floats are quantized, see {@link EventLogWriter#quantum()}) and the current time as
+ * timestamp.
+ * <p>
+ * A truncated last record (e.g., if the recording application crashed) is discarded.
+ */
+public class EventLogReader {
+  protected ReadableByteChannel channel;
+  protected ByteBuffer buffer;
+  protected boolean eof;
+  protected float quantum;
+  protected long time;
+  protected int tag;
+  protected BogusEvent event;
+
+  /**
+   * Reads the log header from the {@code channel}. Throws an {@code IOException} if the
+   * channel doesn't hold an event log (of a supported version).
+   */
+  public EventLogReader(ReadableByteChannel channel) throws IOException {
+    this.channel = channel;
+    buffer = ByteBuffer.allocateDirect(8192);
+    buffer.limit(0);
+    fill();
+    if (buffer.remaining() < 9 || buffer.getInt() != EventLogWriter.MAGIC)
+      throw new IOException("Not an event log");
+    byte version = buffer.get();
+    if (version != EventLogWriter.VERSION)
+      throw new IOException("Unsupported event log version: " + version);
+    quantum = buffer.getFloat();
+  }
+
+  /**
+   * Returns the float quantization step the log was recorded with.
+   */
+  public float quantum() {
+    return quantum;
+  }
+
+  /**
+   * Advances to the next record. Returns {@code false} at the end of the log.
+   */
+  public boolean next() throws IOException {
+    fill();
+    event = null;
+    if (!buffer.hasRemaining())
+      return false;
+    try {
+      tag = buffer.get() & 0xFF;
+      time += unzigzag(getVarLong()) * 1000;
+      if (isFrame())
+        return true;
+      int modifiers = (int) getVarLong();
+      int id = (int) unzigzag(getVarLong());
+      switch (tag & EventLogWriter.TYPE_MASK) {
+      case EventLogWriter.DOF1:
+        event = motion(new DOF1Event(0, modifiers, id));
+        break;
+      case EventLogWriter.DOF2:
+        event = motion(new DOF2Event(0, 0, modifiers, id));
+        break;
+      case EventLogWriter.DOF3:
+        event = motion(new DOF3Event(0, 0, 0, modifiers, id));
+        break;
+      case EventLogWriter.DOF6:
+        event = motion(new DOF6Event(0, 0, 0, 0, 0, 0, modifiers, id));
+        break;
+      case EventLogWriter.CLICK:
+        float x = getFloat();
+        float y = getFloat();
+        event = new ClickEvent(x, y, modifiers, id, (int) getVarLong());
+        break;
+      case EventLogWriter.KEYBOARD:
+        event = new KeyboardEvent((char) getVarLong(), modifiers, id);
+        break;
+      default:
+        event = new BogusEvent(modifiers, id);
+      }
+    } catch (BufferUnderflowException e) {
+      eof = true;
+      buffer.position(buffer.limit());
+      event = null;
+      return false;
+    }
+    if ((tag & EventLogWriter.FIRED) != 0)
+      event.markFired();
+    else if ((tag & EventLogWriter.FLUSHED) != 0)
+      event.markFlushed();
+    return true;
+  }
+
+  /**
+   * Returns {@code true} if the current record marks the end of a frame.
+   */
+  public boolean isFrame() {
+    return (tag & EventLogWriter.TYPE_MASK) == EventLogWriter.FRAME;
+  }
+
+  /**
+   * Returns {@code true} if the current {@link #event()} was used to track the agent
+   * grabbers.
+   */
+  public boolean isTracked() {
+    return (tag & EventLogWriter.TRACKED) != 0;
+  }
+
+  /**
+   * Returns {@code true} if the current {@link #event()} was handled by the agent.
+   */
+  public boolean isHandled() {
+    return (tag & EventLogWriter.HANDLED) != 0;
+  }
+
+  /**
+   * Returns the current record event, or null if it {@link #isFrame()}.
+   */
+  public BogusEvent event() {
+    return event;
+  }
+
+  /**
+   * Returns the number of nanoseconds elapsed between the first and the current records
+   * (with microsecond precision).
+   */
+  public long time() {
+    return time;
+  }
+
+  protected MotionEvent motion(MotionEvent motion) {
+    boolean relative = (tag & EventLogWriter.RELATIVE) != 0;
+    motion.rel = relative;
+    for (int i = 0; i < motion.dofs(); i++) {
+      float value = getFloat();
+      motion.setDof(i, value, relative ? getFloat() : 0);
+    }
+    if (relative) {
+      motion.delay = unzigzag(getVarLong());
+      motion.distance = getFloat();
+      motion.speed = motion.delay == 0 ? motion.distance : motion.distance / motion.delay;
+    }
+    return motion;
+  }
+
+  /**
+   * Internal use. Refills the buffer, so that it holds at least a whole record (unless
+   * the end of the channel is reached).
+   */
+  protected void fill() throws IOException {
+    if (eof || buffer.remaining() >= EventLogWriter.MAX_RECORD)
+      return;
+    buffer.compact();
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer);
+      if (read < 0)
+        eof = true;
+      if (read <= 0)
+        break;
+    }
+    buffer.flip();
+  }
+
+  protected float getFloat() {
+    return unzigzag(getVarLong()) * quantum;
+  }
+
+  protected long getVarLong() {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0)
+        break;
+    }
+    return value;
+  }
+
+  protected static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
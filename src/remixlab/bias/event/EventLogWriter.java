@@ -0,0 +1,259 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import remixlab.bias.core.BogusEvent;
+
+/**
+ * Writes the events handled by an agent into a compact binary log (see
+ * {@link remixlab.bias.core.Agent#startRecording(WritableByteChannel)}), which may be
+ * replayed with an {@link EventLogReader} (e.g., by the
+ * {@link remixlab.bias.ext.ReplayAgent}).
+ * <p>
+ * The log starts with a header (the {@link #MAGIC} number, the {@link #VERSION} and the
+ * {@link #quantum()}) followed by a sequence of records. Each record starts with a tag
+ * byte holding the record type and flags, followed by its timestamp (the microseconds
+ * elapsed since the previous record, as a zigzag varint), and for events: the modifiers
+ * and the id as varints and the event values. Floats are quantized to multiples of the
+ * {@link #quantum()} and stored as zigzag varints. Frame records mark the end of each
+ * {@link remixlab.bias.core.InputHandler#handle()} call, so that the events may be
+ * replayed frame by frame.
+ * <p>
+ * Records are buffered and written to the channel once the buffer is full (and on
+ * {@link #flush()}). Write errors are reported once, and then the writer stops recording.
+ * All methods are thread-safe.
+ */
+public class EventLogWriter {
+  /**
+   * Log magic number ("BIAS").
+   */
+  public static final int MAGIC = 0x42494153;
+  /**
+   * Log format version.
+   */
+  public static final byte VERSION = 1;
+
+  // record types (tag low bits)
+  static final int FRAME = 0, DOF1 = 1, DOF2 = 2, DOF3 = 3, DOF6 = 4, CLICK = 5, KEYBOARD = 6, BOGUS = 7;
+  static final int TYPE_MASK = 0x07;
+  // record flags
+  static final int RELATIVE = 0x08, TRACKED = 0x10, HANDLED = 0x20, FIRED = 0x40, FLUSHED = 0x80;
+  // upper bound of a record size (tag, stamp, modifiers, id and 6 dofs)
+  static final int MAX_RECORD = 256;
+
+  protected WritableByteChannel channel;
+  protected ByteBuffer buffer;
+  protected float quantum;
+  protected long lastStamp, records, written;
+  protected boolean stamped;
+  // the last recorded event and the buffer position of its tag
+  protected BogusEvent lastEvent;
+  protected int lastTag = -1;
+  protected boolean failed;
+
+  /**
+   * Same as {@code this(channel, 1f / 256, 8192)}.
+   */
+  public EventLogWriter(WritableByteChannel channel) {
+    this(channel, 1f / 256, 8192);
+  }
+
+  /**
+   * Creates a writer quantizing the event floats to multiples of {@code quantum} and
+   * buffering (at least) {@code bufferSize} bytes before writing them to the
+   * {@code channel}.
+   */
+  public EventLogWriter(WritableByteChannel channel, float quantum, int bufferSize) {
+    this.channel = channel;
+    this.quantum = quantum;
+    buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 2 * MAX_RECORD));
+    buffer.putInt(MAGIC);
+    buffer.put(VERSION);
+    buffer.putFloat(quantum);
+  }
+
+  /**
+   * Returns the float quantization step.
+   */
+  public float quantum() {
+    return quantum;
+  }
+
+  /**
+   * Returns the number of records written so far.
+   */
+  public synchronized long records() {
+    return records;
+  }
+
+  /**
+   * Returns the number of bytes written to the channel so far.
+   */
+  public synchronized long bytes() {
+    return written;
+  }
+
+  /**
+   * Records an event used to track the agent grabbers (see
+   * {@link remixlab.bias.core.Agent#updateTrackedGrabber(BogusEvent)}).
+   */
+  public synchronized void tracked(BogusEvent event) {
+    record(event, TRACKED);
+  }
+
+  /**
+   * Records an event handled by the agent (see
+   * {@link remixlab.bias.core.Agent#handle(BogusEvent)}).
+   */
+  public synchronized void handled(BogusEvent event) {
+    record(event, HANDLED);
+  }
+
+  /**
+   * Records the end of a frame.
+   */
+  public synchronized void frame() {
+    if (failed)
+      return;
+    reserve();
+    buffer.put((byte) FRAME);
+    putStamp(System.nanoTime());
+    lastEvent = null;
+    lastTag = -1;
+    records++;
+  }
+
+  /**
+   * Writes the buffered records to the channel.
+   */
+  public synchronized void flush() {
+    if (failed)
+      return;
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining())
+        written += channel.write(buffer);
+    } catch (IOException e) {
+      failed = true;
+      System.out.println("Something went wrong when writing the event log. Recording stopped");
+      e.printStackTrace();
+    }
+    buffer.clear();
+    lastTag = -1;
+  }
+
+  protected void record(BogusEvent event, int flag) {
+    if (failed || event == null)
+      return;
+    // an event tracked and then handled is recorded once
+    if (event == lastEvent && lastTag >= 0 && (buffer.get(lastTag) & flag) == 0) {
+      buffer.put(lastTag, (byte) (buffer.get(lastTag) | flag));
+      return;
+    }
+    reserve();
+    lastEvent = event;
+    lastTag = buffer.position();
+    int tag = flag | (event.fired() ? FIRED : 0) | (event.flushed() ? FLUSHED : 0) | type(event);
+    if (event instanceof MotionEvent && ((MotionEvent) event).isRelative())
+      tag |= RELATIVE;
+    buffer.put((byte) tag);
+    putStamp(event.nanoTimestamp());
+    putVarLong(event.modifiers());
+    putVarLong(zigzag(event.id()));
+    switch (tag & TYPE_MASK) {
+    case CLICK:
+      ClickEvent click = (ClickEvent) event;
+      putFloat(click.x());
+      putFloat(click.y());
+      putVarLong(click.clickCount());
+      break;
+    case KEYBOARD:
+      putVarLong(((KeyboardEvent) event).key());
+      break;
+    case BOGUS:
+      break;
+    default:
+      MotionEvent motion = (MotionEvent) event;
+      int dofs = motion.dofs();
+      for (int i = 0; i < dofs; i++) {
+        putFloat(motion.dof(i));
+        if (motion.isRelative())
+          putFloat(motion.delta(i));
+      }
+      if (motion.isRelative()) {
+        putVarLong(zigzag(motion.delay()));
+        putFloat(motion.distance());
+      }
+    }
+    records++;
+  }
+
+  /**
+   * Internal use. Returns the record type of the event.
+   */
+  protected static int type(BogusEvent event) {
+    switch (event.type()) {
+    case BogusEvent.DOF1_EVENT:
+      return DOF1;
+    case BogusEvent.DOF2_EVENT:
+      return DOF2;
+    case BogusEvent.DOF3_EVENT:
+      return DOF3;
+    case BogusEvent.DOF6_EVENT:
+      return DOF6;
+    case BogusEvent.CLICK_EVENT:
+      return CLICK;
+    case BogusEvent.KEYBOARD_EVENT:
+      return KEYBOARD;
+    }
+    return BOGUS;
+  }
+
+  /**
+   * Internal use. Makes room for a record, flushing the buffer when needed.
+   */
+  protected void reserve() {
+    if (buffer.remaining() < MAX_RECORD)
+      flush();
+  }
+
+  protected void putStamp(long stamp) {
+    if (!stamped) {
+      lastStamp = stamp;
+      stamped = true;
+    }
+    long micros = (stamp - lastStamp) / 1000;
+    // keep the stamps in sync with the truncated deltas
+    lastStamp += micros * 1000;
+    putVarLong(zigzag(micros));
+  }
+
+  protected void putFloat(float value) {
+    long q = Float.isNaN(value) ? 0 : Math.round((double) value / quantum);
+    putVarLong(zigzag(q));
+  }
+
+  protected void putVarLong(long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  protected static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+}
@@ -11,6 +11,7 @@
 package remixlab.bias.event;
 
 import remixlab.bias.core.BogusEvent;
+import remixlab.bias.core.Shortcut;
 
 /**
  * A keyboard event is a {@link remixlab.bias.core.BogusEvent} specialization that
@@ -29,11 +30,19 @@ import remixlab.bias.core.BogusEvent;
 public class KeyboardEvent extends BogusEvent {
   protected final char key;
 
-  // debug
-  /*
-   * public KeyboardEvent(char _key, int modifiers, int vk) { super(modifiers, vk); key =
-   * _key; }
+  {
+    type = KEYBOARD_EVENT;
+  }
+
+  /**
+   * Internal use. Constructs a keyboard event with the given <b>key</b>, <b>modifiers</b>
+   * and <b>vk</b>. Used by the {@link remixlab.bias.event.EventLogReader} to replay
+   * events.
    */
+  protected KeyboardEvent(char _key, int modifiers, int vk) {
+    super(modifiers, vk);
+    key = _key;
+  }
 
   /**
    * Constructs a keyboard event with the <b>modifiers</b> and <b>vk</b> defining its
@@ -89,6 +98,14 @@ public class KeyboardEvent extends BogusEvent {
       return new KeyboardShortcut(key());
   }
 
+  @Override
+  public long shortcutCode() {
+    if (key == '\0')
+      return Shortcut.code(Shortcut.KEYBOARD, modifiers(), 0, id());
+    else
+      return Shortcut.code(Shortcut.KEYBOARD, BogusEvent.NO_MODIFIER_MASK, key(), BogusEvent.NO_ID);
+  }
+
   public char key() {
     return key;
   }
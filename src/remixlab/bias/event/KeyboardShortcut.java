@@ -21,23 +21,6 @@ import remixlab.util.*;
  * key representing 'a').
  */
 public final class KeyboardShortcut extends Shortcut implements Copyable {
-  @Override
-  public int hashCode() {
-    return new HashCodeBuilder(17, 37).appendSuper(super.hashCode()).append(key).toHashCode();
-  }
-
-  public boolean equals(Object obj) {
-    if (obj == null)
-      return false;
-    if (obj == this)
-      return true;
-    if (obj.getClass() != getClass())
-      return false;
-
-    KeyboardShortcut rhs = (KeyboardShortcut) obj;
-    return new EqualsBuilder().appendSuper(super.equals(obj)).append(key, rhs.key).isEquals();
-  }
-
   protected final char key;
 
   /**
@@ -80,6 +63,11 @@ public final class KeyboardShortcut extends Shortcut implements Copyable {
     this.key = other.key;
   }
 
+  @Override
+  public long code() {
+    return code(KEYBOARD, mask, key, id);
+  }
+
   @Override
   public KeyboardShortcut get() {
     return new KeyboardShortcut(this);
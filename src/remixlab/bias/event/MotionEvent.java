@@ -11,6 +11,7 @@
 package remixlab.bias.event;
 
 import remixlab.bias.core.BogusEvent;
+import remixlab.bias.core.Shortcut;
 import remixlab.util.*;
 
 /**
@@ -51,6 +52,10 @@ public class MotionEvent extends BogusEvent {
   protected float distance, speed;
   protected boolean rel;
 
+  {
+    type = MOTION_EVENT;
+  }
+
   /**
    * Constructs a MotionEvent with an "empty" {@link remixlab.bias.event.MotionShortcut}.
    */
@@ -87,6 +92,27 @@ public class MotionEvent extends BogusEvent {
     return new MotionEvent(this);
   }
 
+  @Override
+  public void set(BogusEvent other) {
+    super.set(other);
+    if (other instanceof MotionEvent) {
+      MotionEvent event = (MotionEvent) other;
+      this.delay = event.delay;
+      this.distance = event.distance;
+      this.speed = event.speed;
+      this.rel = event.rel;
+    }
+  }
+
+  @Override
+  protected void reset(int modifiers, int id) {
+    super.reset(modifiers, id);
+    delay = 0;
+    distance = 0;
+    speed = 0;
+    rel = false;
+  }
+
   @Override
   public MotionEvent flush() {
     return (MotionEvent) super.flush();
@@ -104,11 +130,91 @@ public class MotionEvent extends BogusEvent {
   public void modulate(float[] sens) {
   }
 
+  /**
+   * Merges {@code other}, a later event of the same type, {@link #shortcut()} and
+   * relative or absolute nature, into this one. Returns {@code true} if succeeded and
+   * {@code false} otherwise (fired and flushed events are never merged).
+   * <p>
+   * The dof values of the merged relative event are those of {@code other}, while its
+   * deltas, {@link #distance()} and {@link #delay()} are accumulated. Absolute events
+   * take the {@code other} values, except for absolute
+   * {@link remixlab.bias.event.DOF1Event}s (e.g., the mouse wheel), which hold a count
+   * per event and thus add them up. Used by the
+   * {@link remixlab.bias.core.InputHandler} to coalesce the motion events an agent
+   * produces during a frame, see
+   * {@link remixlab.bias.core.Agent#isMotionCoalescingEnabled()}.
+   */
+  public boolean coalesce(MotionEvent other) {
+    if (other == null || other.getClass() != getClass() || fired() || flushed() || other.fired() || other.flushed()
+        || modifiers() != other.modifiers() || id() != other.id() || isRelative() != other.isRelative())
+      return false;
+    if (isAbsolute()) {
+      float count = dof(0) + other.dof(0);
+      set(other);
+      if (type() == DOF1_EVENT)
+        setDof(0, count, 0);
+      return true;
+    }
+    delay += other.delay;
+    distance += other.distance;
+    speed = delay == 0 ? distance : distance / (float) delay;
+    timestamp = other.timestamp();
+    accumulate(other);
+    return true;
+  }
+
+  /**
+   * Internal use. Called by {@link #coalesce(MotionEvent)} on relative events to
+   * accumulate the {@code other} deltas and take its dof values.
+   */
+  protected void accumulate(MotionEvent other) {
+  }
+
+  /**
+   * Returns the number of degrees-of-freedom of the event.
+   * 
+   * @see #dof(int)
+   */
+  public int dofs() {
+    return 0;
+  }
+
+  /**
+   * Returns the {@code i}-th dof value, i.e., the dof itself if the event
+   * {@link #isRelative()}, or its (absolute) delta otherwise. Used by
+   * {@link remixlab.bias.event.MotionFilter}s to process events regardless of their type.
+   * 
+   * @see #setDof(int, float, float)
+   */
+  public float dof(int i) {
+    return 0;
+  }
+
+  /**
+   * Returns the {@code i}-th dof delta, which is the same as {@link #dof(int)} when the
+   * event is absolute.
+   */
+  public float delta(int i) {
+    return 0;
+  }
+
+  /**
+   * Sets the {@code i}-th dof {@code value} (see {@link #dof(int)}) and, if the event
+   * {@link #isRelative()}, its {@code delta}.
+   */
+  public void setDof(int i, float value, float delta) {
+  }
+
   @Override
   public MotionShortcut shortcut() {
     return new MotionShortcut(modifiers(), id());
   }
 
+  @Override
+  public long shortcutCode() {
+    return Shortcut.code(Shortcut.MOTION, modifiers(), 0, id());
+  }
+
   /**
    * Returns the delay between two consecutive motion events. Meaningful only if the event
    * {@link #isRelative()}.
@@ -150,6 +256,22 @@ public class MotionEvent extends BogusEvent {
     return !isRelative();
   }
 
+  /**
+   * Returns {@code true} if {@code other} is of the same type, and has the same
+   * {@link #shortcut()}, gesture flags (see {@link #fired()} and {@link #flushed()}) and
+   * dof values than this event, regardless of their {@link #timestamp()}.
+   * <p>
+   * Used by agents to skip a grabber re-tracking when the event that would be used to
+   * query the grabbers didn't change, see
+   * {@link remixlab.bias.core.Agent#updateTrackedGrabber(BogusEvent)}.
+   */
+  public boolean matches(MotionEvent other) {
+    if (other == null || other.getClass() != getClass())
+      return false;
+    return modifiers() == other.modifiers() && id() == other.id() && fired() == other.fired()
+        && flushed() == other.flushed() && isRelative() == other.isRelative();
+  }
+
   /**
    * Sets the event's previous event to build a relative event.
    */
@@ -173,14 +295,18 @@ public class MotionEvent extends BogusEvent {
   }
 
   public static DOF1Event dof1Event(MotionEvent event, boolean fromX) {
-    if (event instanceof DOF1Event)
+    if (event == null)
+      return null;
+    switch (event.type()) {
+    case DOF1_EVENT:
       return (DOF1Event) event;
-    if (event instanceof DOF2Event)
+    case DOF2_EVENT:
       return ((DOF2Event) event).dof1Event(fromX);
-    if (event instanceof DOF3Event)
+    case DOF3_EVENT:
       return ((DOF3Event) event).dof2Event().dof1Event(fromX);
-    if (event instanceof DOF6Event)
+    case DOF6_EVENT:
       return ((DOF6Event) event).dof3Event(fromX).dof2Event().dof1Event(fromX);
+    }
     return null;
   }
 
@@ -189,15 +315,17 @@ public class MotionEvent extends BogusEvent {
   }
 
   public static DOF2Event dof2Event(MotionEvent event, boolean fromX) {
-    if (event instanceof DOF1Event)
+    if (event == null)
       return null;
-    if (event instanceof DOF2Event)
+    switch (event.type()) {
+    case DOF2_EVENT:
       // return ((DOF2Event) event).get();//TODO better?
       return (DOF2Event) event;
-    if (event instanceof DOF3Event)
+    case DOF3_EVENT:
       return ((DOF3Event) event).dof2Event();
-    if (event instanceof DOF6Event)
+    case DOF6_EVENT:
       return ((DOF6Event) event).dof3Event(fromX).dof2Event();
+    }
     return null;
   }
 
@@ -206,19 +334,19 @@ public class MotionEvent extends BogusEvent {
   }
 
   public static DOF3Event dof3Event(MotionEvent event, boolean fromTranslation) {
-    if (event instanceof DOF1Event)
-      return null;
-    if (event instanceof DOF2Event)
+    if (event == null)
       return null;
-    if (event instanceof DOF3Event)
+    switch (event.type()) {
+    case DOF3_EVENT:
       return (DOF3Event) event;
-    if (event instanceof DOF6Event)
+    case DOF6_EVENT:
       return ((DOF6Event) event).dof3Event(fromTranslation);
+    }
     return null;
   }
 
   public static DOF6Event dof6Event(MotionEvent event) {
-    if (event instanceof DOF6Event)
+    if (event != null && event.type() == DOF6_EVENT)
       return (DOF6Event) event;
     return null;
   }
@@ -0,0 +1,116 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.event;
+
+/**
+ * A stateful filter that smooths the dofs of a stream of
+ * {@link remixlab.bias.event.MotionEvent}s (see {@link MotionEvent#dof(int)}) and
+ * extrapolates them to the time the frame displaying them is expected to be presented,
+ * so that the interaction keeps up with the input device (e.g., with the finger on a
+ * touch screen).
+ * <p>
+ * Agents apply their filters (see
+ * {@link remixlab.bias.core.Agent#setMotionFilter(int, MotionFilter)}) to the motion
+ * events they handle, before modulating them. The filter state is reset at the beginning
+ * and at the end of each gesture (see {@link MotionEvent#fired()} and
+ * {@link MotionEvent#flushed()}), when the event {@link MotionEvent#id()} changes, and
+ * after {@link #gap()} seconds without events. Filtering doesn't allocate.
+ * <p>
+ * Derived classes implement {@link #filter(int, float, float)} and
+ * {@link #velocity(int)}, and reset their state in {@link #reset()}.
+ *
+ * @see remixlab.bias.ext.OneEuroFilter
+ * @see remixlab.bias.ext.KalmanFilter
+ */
+public abstract class MotionFilter {
+  /**
+   * Maximum number of dofs a filter may process.
+   */
+  public static final int MAX_DOFS = 6;
+  protected float[] output = new float[MAX_DOFS];
+  protected long lastStamp;
+  protected int lastId;
+  protected boolean started;
+  protected float gap = 0.25f;
+
+  /**
+   * Returns the number of seconds without events after which the filter state is
+   * reset. Default is 0.25.
+   */
+  public float gap() {
+    return gap;
+  }
+
+  /**
+   * Sets the {@link #gap()}.
+   */
+  public void setGap(float seconds) {
+    gap = seconds;
+  }
+
+  /**
+   * Filters the {@code event} dofs in place and extrapolates them {@code horizon}
+   * nanoseconds ahead (no extrapolation takes place if {@code horizon} is 0). Relative
+   * event deltas are recomputed from the previous filtered output, so that they keep
+   * adding up to the filtered dofs.
+   */
+  public void filter(MotionEvent event, long horizon) {
+    int dofs = Math.min(event.dofs(), MAX_DOFS);
+    if (dofs == 0)
+      return;
+    if (event.flushed()) {
+      started = false;
+      return;
+    }
+    long stamp = event.nanoTimestamp();
+    float dt = (stamp - lastStamp) / 1e9f;
+    if (!started || event.fired() || event.id() != lastId || dt > gap || dt < 0) {
+      reset();
+      started = true;
+      lastId = event.id();
+      lastStamp = stamp;
+      // (re)initialize the state from the raw values, which are passed through
+      for (int i = 0; i < dofs; i++) {
+        output[i] = event.dof(i);
+        filter(i, output[i], 0);
+      }
+      return;
+    }
+    lastStamp = stamp;
+    dt = Math.max(dt, 1e-4f);
+    float h = horizon / 1e9f;
+    for (int i = 0; i < dofs; i++) {
+      float value = filter(i, event.dof(i), dt) + velocity(i) * h;
+      event.setDof(i, value, value - output[i]);
+      output[i] = value;
+    }
+  }
+
+  /**
+   * Returns the filtered {@code value} of the {@code dof}-th dof, where {@code dt} is the
+   * number of seconds elapsed since the previous value. A {@code dt} of 0 means the
+   * filter state should be initialized from {@code value}.
+   */
+  protected abstract float filter(int dof, float value, float dt);
+
+  /**
+   * Returns the current velocity estimate (units per second) of the {@code dof}-th dof,
+   * used to extrapolate it.
+   */
+  protected abstract float velocity(int dof);
+
+  /**
+   * Resets the filter state. Derived classes should call {@code super.reset()}.
+   */
+  public void reset() {
+    started = false;
+  }
+}
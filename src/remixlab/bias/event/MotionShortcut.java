@@ -58,6 +58,11 @@ public final class MotionShortcut extends Shortcut implements Copyable {
     super(other);
   }
 
+  @Override
+  public long code() {
+    return code(MOTION, mask, 0, id);
+  }
+
   @Override
   public MotionShortcut get() {
     return new MotionShortcut(this);
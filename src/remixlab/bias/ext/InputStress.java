@@ -0,0 +1,329 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.ext;
+
+import java.lang.reflect.Method;
+
+import remixlab.bias.core.*;
+import remixlab.bias.event.*;
+import remixlab.util.Histogram;
+
+/**
+ * High rate input stress harness. Drives a headless
+ * {@link remixlab.bias.core.InputHandler} with a {@link SyntheticAgent} and a grid of
+ * {@link Target} grabbers (whose actions are dispatched by a {@link Profile}), and
+ * reports:
+ * <ol>
+ * <li>the throughput, i.e., the number of events the pipeline processes per second;</li>
+ * <li>the per frame duration of the agent side of the pipeline (event generation,
+ * {@link remixlab.bias.core.Agent#updateTrackedGrabber(BogusEvent)} and enqueuing) and
+ * of the {@link remixlab.bias.core.InputHandler#handle()};</li>
+ * <li>the per event latency of the grabber tracking and of the {@link Profile}
+ * dispatch (see {@link remixlab.bias.core.Agent#latency(Agent.Stage)});</li>
+ * <li>the number of bytes allocated per event by each stage of the pipeline: the
+ * event generation, {@link remixlab.bias.core.Agent#updateTrackedGrabber(BogusEvent)},
+ * the agent handling (i.e., enqueuing), the {@link remixlab.bias.core.InputHandler#handle()}
+ * queue processing and the {@link Profile} dispatch. Allocation is metered on a few
+ * extra frames, so that the probes don't bias the timings, and only when the JVM is able
+ * to tell it (it isn't on Android).</li>
+ * </ol>
+ * Run it from the command line as
+ * {@code java remixlab.bias.ext.InputStress [eventsPerSecond] [frames]}, or call
+ * {@link #run(int, float, int)}.
+ */
+public class InputStress {
+  /**
+   * A grabber covering a rectangular cell of the {@link SyntheticAgent#range()}, bound to
+   * the synthetic events through its {@link #profile()}.
+   */
+  public static class Target extends GrabberObject {
+    protected Profile profile;
+    protected float x0, y0, x1, y1;
+    protected long performed;
+    protected MeteredAgent meter;
+
+    public Target(Agent agent, float x0, float y0, float x1, float y1) {
+      super(agent);
+      this.x0 = x0;
+      this.y0 = y0;
+      this.x1 = x1;
+      this.y1 = y1;
+      profile = new Profile(this);
+      profile.setBinding(new MotionShortcut(SyntheticAgent.DOF1_ID), "motion");
+      profile.setBinding(new MotionShortcut(SyntheticAgent.DOF2_ID), "motion");
+      profile.setBinding(new MotionShortcut(SyntheticAgent.DOF3_ID), "motion");
+      profile.setBinding(new MotionShortcut(SyntheticAgent.DOF6_ID), "motion");
+      profile.setBinding(new ClickShortcut(SyntheticAgent.CLICK_ID, 1), "click");
+      for (char c = 'a'; c <= 'z'; c++)
+        profile.setBinding(new KeyboardShortcut(c), "key");
+    }
+
+    /**
+     * Returns the profile dispatching the events to {@link #motion(MotionEvent)},
+     * {@link #click(ClickEvent)} and {@link #key(KeyboardEvent)}.
+     */
+    public Profile profile() {
+      return profile;
+    }
+
+    /**
+     * Returns the number of events performed by the target.
+     */
+    public long performed() {
+      return performed;
+    }
+
+    @Override
+    public boolean checkIfGrabsInput(BogusEvent event) {
+      float x, y;
+      if (event instanceof MotionEvent) {
+        MotionEvent motion = (MotionEvent) event;
+        x = motion.dof(0);
+        y = motion.dofs() > 1 ? motion.dof(1) : y0;
+      } else if (event instanceof ClickEvent) {
+        x = ((ClickEvent) event).x();
+        y = ((ClickEvent) event).y();
+      } else
+        return false;
+      return x0 <= x && x < x1 && y0 <= y && y < y1;
+    }
+
+    @Override
+    public void performInteraction(BogusEvent event) {
+      MeteredAgent meter = this.meter;
+      if (meter == null || !meter.metering) {
+        profile.handle(event);
+        return;
+      }
+      long bytes = allocatedBytes();
+      profile.handle(event);
+      meter.dispatch += allocatedBytes() - bytes;
+      meter.dispatches++;
+    }
+
+    public void motion(MotionEvent event) {
+      performed++;
+    }
+
+    public void click(ClickEvent event) {
+      performed++;
+    }
+
+    public void key(KeyboardEvent event) {
+      performed++;
+    }
+  }
+
+  /**
+   * The {@link SyntheticAgent} driving the harness, which meters the bytes allocated by
+   * each stage of the agent side of the pipeline while {@code metering}. The raw counts
+   * include the cost of the probes themselves (see {@link InputStress#probe()}).
+   */
+  protected static class MeteredAgent extends SyntheticAgent {
+    protected boolean metering;
+    protected long events, dispatches, generation, tracking, handling, inputHandler, dispatch;
+
+    public MeteredAgent(InputHandler inputHandler, float rate) {
+      super(inputHandler, rate);
+    }
+
+    @Override
+    public int generate(int count) {
+      if (!metering)
+        return super.generate(count);
+      for (int i = 0; i < count; i++) {
+        long b0 = allocatedBytes();
+        BogusEvent event = next();
+        long b1 = allocatedBytes();
+        if (event == null)
+          return i;
+        generated++;
+        updateTrackedGrabber(event);
+        long b2 = allocatedBytes();
+        handle(event);
+        long b3 = allocatedBytes();
+        generation += b1 - b0;
+        tracking += b2 - b1;
+        handling += b3 - b2;
+        events++;
+      }
+      return count;
+    }
+  }
+
+  protected static Method allocatedBytes;
+  protected static Object threadBean;
+  protected static long probe = -1;
+
+  /**
+   * Runs the harness with 1, 10, 100 and 1000 grabbers and prints the reports. The
+   * optional arguments are the events per second (100000 by default) and the number of
+   * (60 Hz) frames (600 by default).
+   */
+  public static void main(String[] args) {
+    float rate = args.length > 0 ? Float.parseFloat(args[0]) : 100000;
+    int frames = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+    // warm up
+    run(100, rate, frames);
+    for (int grabbers = 1; grabbers <= 1000; grabbers *= 10)
+      System.out.println(run(grabbers, rate, frames));
+  }
+
+  /**
+   * Same as {@code run(grabbers, eventsPerSecond, frames, 60)}.
+   */
+  public static String run(int grabbers, float eventsPerSecond, int frames) {
+    return run(grabbers, eventsPerSecond, frames, 60);
+  }
+
+  /**
+   * Feeds {@code grabbers} targets with a synthetic stream of all the
+   * {@link SyntheticAgent.Kind}s of events during {@code frames} frames, each one getting
+   * the events due at {@code eventsPerSecond} for the given {@code frameRate}. Frames are
+   * run back to back (they don't wait for the frame period), so that the throughput
+   * measures the pipeline capacity. Returns the report.
+   */
+  public static String run(int grabbers, float eventsPerSecond, int frames, float frameRate) {
+    int perFrame = Math.max(1, Math.round(eventsPerSecond / frameRate));
+    InputHandler inputHandler = new InputHandler(perFrame);
+    MeteredAgent agent = new MeteredAgent(inputHandler, eventsPerSecond);
+    for (SyntheticAgent.Kind kind : SyntheticAgent.Kind.values())
+      agent.setWeight(kind, 1);
+    int cols = (int) Math.ceil(Math.sqrt(grabbers));
+    float cell = agent.range() / cols;
+    Target[] targets = new Target[grabbers];
+    for (int i = 0; i < grabbers; i++)
+      targets[i] = new Target(agent, (i % cols) * cell, (i / cols) * cell, (i % cols + 1) * cell,
+          (i / cols + 1) * cell);
+    for (Target target : targets)
+      target.meter = agent;
+    // keyboard events are grabbed by the default grabber
+    agent.setDefaultGrabber(targets[0]);
+    agent.enableLatencyStats(true);
+    Histogram generation = new Histogram();
+    Histogram handling = new Histogram();
+    long coalesced = 0, tests = 0;
+    long start = System.nanoTime();
+    for (int f = 0; f < frames; f++) {
+      long t0 = System.nanoTime();
+      agent.generate(perFrame);
+      long t1 = System.nanoTime();
+      inputHandler.handle();
+      long t2 = System.nanoTime();
+      inputHandler.framePresented();
+      generation.record(t1 - t0);
+      handling.record(t2 - t1);
+      coalesced += inputHandler.coalescedEvents();
+      tests += agent.trackingTests();
+    }
+    long elapsed = System.nanoTime() - start;
+    long events = agent.generated();
+    String allocated = meter(agent, inputHandler, perFrame, Math.max(1, frames / 10));
+    long performed = 0;
+    for (Target target : targets)
+      performed += target.performed();
+    StringBuilder info = new StringBuilder();
+    info.append("grabbers: ").append(grabbers).append(", events: ").append(events).append(", performed: ")
+        .append(performed).append(", coalesced: ").append(coalesced).append(", dropped: ")
+        .append(inputHandler.eventQueueOverflows()).append('\n');
+    info.append("  throughput: ").append(Math.round(events / (elapsed / 1e9))).append(" events/s\n");
+    info.append("  allocated (bytes/event): ").append(allocated).append('\n');
+    info.append("  agent (per frame): ").append(generation.info()).append('\n');
+    info.append("  InputHandler.handle() (per frame): ").append(handling.info()).append('\n');
+    info.append("  Agent.updateTrackedGrabber() (per event): ").append(micros(agent.latency(Agent.Stage.TRACKING)))
+        .append(", tests: ").append(events == 0 ? 0 : tests / (float) events).append(" per event\n");
+    info.append("  Profile dispatch (per event): ").append(micros(agent.latency(Agent.Stage.PERFORM)));
+    inputHandler.unregisterAgent(agent);
+    return info.toString();
+  }
+
+  /**
+   * Runs {@code frames} more frames metering the bytes allocated by each stage of the
+   * pipeline, and returns their per event description (or "n/a" if the JVM can't tell
+   * them).
+   */
+  protected static String meter(MeteredAgent agent, InputHandler inputHandler, int perFrame, int frames) {
+    long probe = probe();
+    if (probe < 0)
+      return "n/a";
+    agent.events = agent.dispatches = 0;
+    agent.generation = agent.tracking = agent.handling = agent.inputHandler = agent.dispatch = 0;
+    agent.metering = true;
+    for (int f = 0; f < frames; f++) {
+      agent.generate(perFrame);
+      long performed = agent.dispatch;
+      long bytes = allocatedBytes();
+      inputHandler.handle();
+      agent.inputHandler += allocatedBytes() - bytes - (agent.dispatch - performed);
+      inputHandler.framePresented();
+    }
+    agent.metering = false;
+    long events = Math.max(1, agent.events);
+    // every raw count includes one probe, and the InputHandler.handle() one excludes the
+    // nested dispatch probes
+    return "generation: " + perEvent(agent.generation - agent.events * probe, events) + ", updateTrackedGrabber(): "
+        + perEvent(agent.tracking - agent.events * probe, events) + ", handle(): "
+        + perEvent(agent.handling - agent.events * probe, events) + ", InputHandler.handle(): "
+        + perEvent(agent.inputHandler - frames * probe, events) + ", Profile dispatch: "
+        + perEvent(agent.dispatch - agent.dispatches * probe, events);
+  }
+
+  /**
+   * Returns a p50/p99/max description of the {@code histogram}, expressed in
+   * microseconds.
+   */
+  protected static String micros(Histogram histogram) {
+    return "count: " + histogram.count() + ", p50: " + histogram.percentile(50) / 1e3f + "us, p99: "
+        + histogram.percentile(99) / 1e3f + "us, max: " + histogram.max() / 1e3f + "us";
+  }
+
+  /**
+   * Returns the {@code bytes} allocated per event, which may turn slightly negative once
+   * the probes cost is discounted.
+   */
+  protected static String perEvent(long bytes, long events) {
+    return String.valueOf(Math.max(0, Math.round(bytes / (double) events * 10)) / 10f);
+  }
+
+  /**
+   * Returns the number of bytes allocated by a {@link #allocatedBytes()} call, i.e., the
+   * cost of a probe (measured once, as the least of a few consecutive probes), or -1 if
+   * the JVM doesn't support measuring it.
+   */
+  protected static long probe() {
+    if (probe < 0 && allocatedBytes() >= 0)
+      for (int i = 0; i < 1000; i++) {
+        long bytes = allocatedBytes();
+        long cost = allocatedBytes() - bytes;
+        probe = probe < 0 ? cost : Math.min(probe, cost);
+      }
+    return probe;
+  }
+
+  /**
+   * Returns the number of bytes allocated so far by the current thread, or -1 if the JVM
+   * doesn't support measuring it.
+   */
+  protected static long allocatedBytes() {
+    try {
+      // looked up reflectively, since neither package is available on Android
+      if (allocatedBytes == null) {
+        threadBean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean")
+            .invoke(null);
+        allocatedBytes = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes",
+            long.class);
+      }
+      return (Long) allocatedBytes.invoke(threadBean, Thread.currentThread().getId());
+    } catch (Exception e) {
+      return -1;
+    }
+  }
+}
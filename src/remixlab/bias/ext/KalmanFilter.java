@@ -0,0 +1,103 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.ext;
+
+import remixlab.bias.event.MotionFilter;
+
+/**
+ * Constant velocity Kalman filter, applied to each dof independently. The state of each
+ * dof is its position and velocity, the latter being driven by a white noise
+ * acceleration of spectral density {@link #processNoise()}, while the measurements are
+ * corrupted by a white noise of variance {@link #measurementNoise()}.
+ * <p>
+ * Larger {@link #processNoise()} to {@link #measurementNoise()} ratios follow the input
+ * more closely, while smaller ones smooth it more.
+ */
+public class KalmanFilter extends MotionFilter {
+  protected float q, r;
+  protected float[] p = new float[MAX_DOFS];
+  protected float[] v = new float[MAX_DOFS];
+  // covariance matrices, stored as (p00, p01, p11) triplets
+  protected float[] cov = new float[3 * MAX_DOFS];
+
+  /**
+   * Same as {@code this(5000, 1)}.
+   */
+  public KalmanFilter() {
+    this(5000, 1);
+  }
+
+  /**
+   * Creates a filter with the given {@link #processNoise()} and
+   * {@link #measurementNoise()}.
+   */
+  public KalmanFilter(float processNoise, float measurementNoise) {
+    q = processNoise;
+    r = measurementNoise;
+  }
+
+  /**
+   * Returns the spectral density of the acceleration (squared units per cubed second).
+   */
+  public float processNoise() {
+    return q;
+  }
+
+  public void setProcessNoise(float noise) {
+    q = noise;
+  }
+
+  /**
+   * Returns the variance of the measurements (squared units).
+   */
+  public float measurementNoise() {
+    return r;
+  }
+
+  public void setMeasurementNoise(float noise) {
+    r = noise;
+  }
+
+  @Override
+  protected float filter(int dof, float z, float dt) {
+    int c = 3 * dof;
+    if (dt == 0) {
+      p[dof] = z;
+      v[dof] = 0;
+      cov[c] = r;
+      cov[c + 1] = 0;
+      // the initial velocity is unknown
+      cov[c + 2] = 1e6f;
+      return z;
+    }
+    // predict
+    float p00 = cov[c], p01 = cov[c + 1], p11 = cov[c + 2];
+    p[dof] += v[dof] * dt;
+    p00 += dt * (2 * p01 + dt * p11) + q * dt * dt * dt / 3;
+    p01 += dt * p11 + q * dt * dt / 2;
+    p11 += q * dt;
+    // update
+    float s = p00 + r;
+    float k0 = p00 / s, k1 = p01 / s;
+    float y = z - p[dof];
+    p[dof] += k0 * y;
+    v[dof] += k1 * y;
+    cov[c] = (1 - k0) * p00;
+    cov[c + 1] = (1 - k0) * p01;
+    cov[c + 2] = p11 - k1 * p01;
+    return p[dof];
+  }
+
+  @Override
+  protected float velocity(int dof) {
+    return v[dof];
+  }
+}
@@ -0,0 +1,104 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.ext;
+
+import remixlab.bias.event.MotionFilter;
+
+/**
+ * One Euro filter (Casiez et al., CHI 2012): a low-pass filter whose cutoff frequency
+ * increases with the speed, so that jitter is removed at low speeds while lag is kept
+ * low at high speeds.
+ * <p>
+ * Tune it by first setting {@link #beta()} to 0 and decreasing the
+ * {@link #minCutoff()} until the jitter at rest is acceptable, and then increasing the
+ * {@link #beta()} until the lag during fast motions is acceptable.
+ */
+public class OneEuroFilter extends MotionFilter {
+  protected float minCutoff, beta, dCutoff;
+  protected float[] value = new float[MAX_DOFS];
+  protected float[] raw = new float[MAX_DOFS];
+  protected float[] speed = new float[MAX_DOFS];
+
+  /**
+   * Same as {@code this(1, 0.007f, 1)}.
+   */
+  public OneEuroFilter() {
+    this(1, 0.007f, 1);
+  }
+
+  /**
+   * Creates a filter with the given {@link #minCutoff()}, {@link #beta()} and
+   * {@link #derivativeCutoff()}.
+   */
+  public OneEuroFilter(float minCutoff, float beta, float dCutoff) {
+    this.minCutoff = minCutoff;
+    this.beta = beta;
+    this.dCutoff = dCutoff;
+  }
+
+  /**
+   * Returns the cutoff frequency (Hz) at rest.
+   */
+  public float minCutoff() {
+    return minCutoff;
+  }
+
+  public void setMinCutoff(float cutoff) {
+    minCutoff = cutoff;
+  }
+
+  /**
+   * Returns the speed coefficient by which the cutoff frequency increases.
+   */
+  public float beta() {
+    return beta;
+  }
+
+  public void setBeta(float b) {
+    beta = b;
+  }
+
+  /**
+   * Returns the cutoff frequency (Hz) used to filter the speed.
+   */
+  public float derivativeCutoff() {
+    return dCutoff;
+  }
+
+  public void setDerivativeCutoff(float cutoff) {
+    dCutoff = cutoff;
+  }
+
+  @Override
+  protected float filter(int dof, float x, float dt) {
+    if (dt == 0) {
+      value[dof] = x;
+      raw[dof] = x;
+      speed[dof] = 0;
+      return x;
+    }
+    speed[dof] += alpha(dCutoff, dt) * ((x - raw[dof]) / dt - speed[dof]);
+    raw[dof] = x;
+    float cutoff = minCutoff + beta * Math.abs(speed[dof]);
+    value[dof] += alpha(cutoff, dt) * (x - value[dof]);
+    return value[dof];
+  }
+
+  @Override
+  protected float velocity(int dof) {
+    return speed[dof];
+  }
+
+  protected static float alpha(float cutoff, float dt) {
+    float tau = 1 / (2 * (float) Math.PI * cutoff);
+    return 1 / (1 + tau / dt);
+  }
+}
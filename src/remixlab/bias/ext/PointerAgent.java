@@ -0,0 +1,81 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.ext;
+
+import remixlab.bias.core.*;
+import remixlab.bias.event.*;
+import remixlab.util.Pool;
+
+/**
+ * An agent reporting the motion of a pointing device (e.g., a mouse) as
+ * {@link remixlab.bias.event.DOF2Event}s, relative to the previous one. Call
+ * {@link #pointerEvent(float, float, int, boolean, boolean, boolean)} from the device
+ * callback.
+ * <p>
+ * The events are taken from a pool to which they're returned once performed (see
+ * {@link #recycle(BogusEvent)}), so that no allocation takes place from the device
+ * callback to the {@link remixlab.bias.core.Grabber#performInteraction(BogusEvent)}
+ * call, once the pool is warmed up. Grabbers that need to keep an event should thus keep
+ * a copy of it (see {@link remixlab.bias.core.BogusEvent#get()}).
+ */
+public class PointerAgent extends Agent {
+  protected DOF2Event currentEvent, prevEvent;
+  // motion events are recycled once performed (see recycle())
+  protected Pool<DOF2Event> eventPool = new Pool<DOF2Event>(64) {
+    @Override
+    protected DOF2Event create() {
+      return new DOF2Event(0, 0);
+    }
+  };
+
+  public PointerAgent(InputHandler inputHandler) {
+    super(inputHandler);
+  }
+
+  /**
+   * Handles the pointer motion to ({@code x}, {@code y}) as a
+   * {@link remixlab.bias.event.DOF2Event} having the given {@code id}, which is
+   * {@link remixlab.bias.core.BogusEvent#fired()} when {@code press} is true, and
+   * {@link remixlab.bias.core.BogusEvent#flushed()} when {@code release} is true. The
+   * grabbers are tracked with the event (see {@link #updateTrackedGrabber(BogusEvent)})
+   * when {@code track} is true. Returns {@code true} if the event was enqueued.
+   */
+  public boolean pointerEvent(float x, float y, int id, boolean track, boolean press, boolean release) {
+    currentEvent = eventPool.obtain().set(prevEvent, x, y, BogusEvent.NO_MODIFIER_MASK, id);
+    if (track)
+      updateTrackedGrabber(currentEvent);
+    boolean handled = handle(press ? currentEvent.markFired() : release ? currentEvent.markFlushed() : currentEvent);
+    if (prevEvent == null)
+      prevEvent = currentEvent.get();
+    else
+      prevEvent.set(currentEvent);
+    // events which weren't enqueued (e.g., null ones) are never recycled by the handler
+    if (!handled)
+      eventPool.release(currentEvent);
+    return handled;
+  }
+
+  /**
+   * Returns a copy of the last event handled by
+   * {@link #pointerEvent(float, float, int, boolean, boolean, boolean)}, or {@code null}
+   * if there's none. Unlike the pooled events, it's never recycled, so that it may be
+   * read at any time (e.g., to draw the pointer position).
+   */
+  public DOF2Event lastEvent() {
+    return prevEvent;
+  }
+
+  @Override
+  protected void recycle(BogusEvent event) {
+    if (event instanceof DOF2Event)
+      eventPool.release((DOF2Event) event);
+  }
+}
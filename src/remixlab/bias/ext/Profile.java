@@ -44,12 +44,17 @@ import remixlab.util.*;
  */
 public class Profile {
   class ObjectMethodTuple {
+    Shortcut shortcut;
     Object object;
     Method method;
+    // invocation arguments, sized once from the method arity and reused by handle()
+    Object[] args;
 
-    ObjectMethodTuple(Object o, Method m) {
+    ObjectMethodTuple(Shortcut k, Object o, Method m) {
+      shortcut = k;
       object = o;
       method = m;
+      args = new Object[m == null ? 0 : m.getParameterTypes().length];
     }
   }
 
@@ -83,14 +88,15 @@ public class Profile {
 
   protected static HashMap<Integer, AgentDOFTuple> motionMap = new HashMap<Integer, AgentDOFTuple>();
   protected static HashMap<Integer, Class<?>> clickMap = new HashMap<Integer, Class<?>>();
-  protected HashMap<Shortcut, ObjectMethodTuple> map;
+  // bindings keyed by Shortcut.code()
+  protected LongMap<ObjectMethodTuple> map;
   protected Grabber grabber;
 
   /**
    * Attaches a profile to the given grabber.
    */
   public Profile(Grabber g) {
-    map = new HashMap<Shortcut, ObjectMethodTuple>();
+    map = new LongMap<ObjectMethodTuple>();
     grabber = g;
   }
 
@@ -233,12 +239,13 @@ public class Profile {
       System.err.println("Profile grabbers should be of the same type");
       return;
     }
-    map = new HashMap<Shortcut, ObjectMethodTuple>();
-    for (Map.Entry<Shortcut, ObjectMethodTuple> entry : p.actionMap().entrySet()) {
-      if (entry.getValue().object == p.grabber)
-        map.put(entry.getKey(), new ObjectMethodTuple(grabber, entry.getValue().method));
-      else
-        map.put(entry.getKey(), new ObjectMethodTuple(entry.getValue().object, entry.getValue().method));
+    map = new LongMap<ObjectMethodTuple>(p.actionMap().size());
+    for (int i = 0; i < p.actionMap().capacity(); i++) {
+      ObjectMethodTuple tuple = p.actionMap().valueAt(i);
+      if (tuple == null)
+        continue;
+      map.put(p.actionMap().keyAt(i), new ObjectMethodTuple(tuple.shortcut,
+          tuple.object == p.grabber ? grabber : tuple.object, tuple.method));
     }
   }
 
@@ -250,9 +257,10 @@ public class Profile {
   }
 
   /**
-   * Internal use. Shortcut to action map.
+   * Internal use. Shortcut (see {@link remixlab.bias.core.Shortcut#code()}) to action
+   * map.
    */
-  protected HashMap<Shortcut, ObjectMethodTuple> actionMap() {
+  protected LongMap<ObjectMethodTuple> actionMap() {
     return map;
   }
 
@@ -263,7 +271,8 @@ public class Profile {
    * @see #action(Shortcut)
    */
   public Method method(Shortcut key) {
-    return map.get(key) == null ? null : map.get(key).method;
+    ObjectMethodTuple tuple = map.get(key.code());
+    return tuple == null ? null : tuple.method;
   }
 
   /**
@@ -284,7 +293,8 @@ public class Profile {
    * or an external object.
    */
   protected Object object(Shortcut key) {
-    return map.get(key) == null ? null : map.get(key).object;
+    ObjectMethodTuple tuple = map.get(key.code());
+    return tuple == null ? null : tuple.object;
   }
 
   /**
@@ -325,28 +335,28 @@ public class Profile {
    * @see #setBinding(Object, Shortcut, String)
    */
   public boolean handle(BogusEvent event) {
-    Method iHandlerMethod = method(event.shortcut());
-    if (iHandlerMethod != null) {
-      try {
-        if (object(event.shortcut()) == grabber)
-          iHandlerMethod.invoke(object(event.shortcut()), new Object[] { event });
-        else
-          iHandlerMethod.invoke(object(event.shortcut()), new Object[] { grabber, event });
-        return true;
-      } catch (Exception e) {
-        try {
-          if (object(event.shortcut()) == grabber)
-            iHandlerMethod.invoke(object(event.shortcut()), new Object[] {});
-          else
-            iHandlerMethod.invoke(object(event.shortcut()), new Object[] { grabber });
-          return true;
-        } catch (Exception empty) {
-          System.out.println("Something went wrong when invoking your " + iHandlerMethod.getName() + " method");
-          empty.printStackTrace();
-        }
-        System.out.println("Something went wrong when invoking your " + iHandlerMethod.getName() + " method");
-        e.printStackTrace();
-      }
+    ObjectMethodTuple tuple = map.get(event.shortcutCode());
+    if (tuple == null || tuple.method == null)
+      return false;
+    // the method signature was resolved at binding time, so that the arguments are known
+    // beforehand: [event], or [grabber, event] when the action is implemented by an
+    // external object, where the event is optional
+    Object[] args = tuple.args;
+    int i = 0;
+    if (tuple.object != grabber && i < args.length)
+      args[i++] = grabber;
+    if (i < args.length)
+      args[i] = event;
+    try {
+      tuple.method.invoke(tuple.object, args);
+      return true;
+    } catch (Exception e) {
+      System.out.println("Something went wrong when invoking your " + tuple.method.getName() + " method");
+      e.printStackTrace();
+    } finally {
+      // don't retain the (possibly pooled) event
+      for (i = 0; i < args.length; i++)
+        args[i] = null;
     }
     return false;
   }
@@ -427,7 +437,7 @@ public class Profile {
         clazz.printStackTrace();
       }
     }
-    map.put(key, new ObjectMethodTuple(grabber, method));
+    map.put(key.code(), new ObjectMethodTuple(key, grabber, method));
   }
 
   /**
@@ -487,7 +497,7 @@ public class Profile {
         clazz.printStackTrace();
       }
     }
-    map.put(key, new ObjectMethodTuple(object, method));
+    map.put(key.code(), new ObjectMethodTuple(key, object, method));
   }
 
   /**
@@ -497,7 +507,7 @@ public class Profile {
    *          {@link remixlab.bias.core.Shortcut}
    */
   public void removeBinding(Shortcut key) {
-    map.remove(key);
+    map.remove(key.code());
   }
 
   /**
@@ -520,13 +530,13 @@ public class Profile {
     }
     ArrayList<Integer> IDs = shortcut == MotionShortcut.class ? motionIDs(agent.getClass())
         : clickIDs(agent.getClass());
-    Iterator<Entry<Shortcut, ObjectMethodTuple>> it = map.entrySet().iterator();
-    while (it.hasNext()) {
-      Map.Entry<Shortcut, ObjectMethodTuple> pair = it.next();
-      if (shortcut.isInstance(pair.getKey()))
-        for (int id : IDs)
-          if (id == pair.getKey().id())
-            it.remove();
+    for (int i = 0; i < map.capacity();) {
+      ObjectMethodTuple tuple = map.valueAt(i);
+      if (tuple != null && shortcut.isInstance(tuple.shortcut) && IDs.contains(tuple.shortcut.id()))
+        // removing may shift a later entry into the slot, so visit it again
+        map.removeSlot(i);
+      else
+        i++;
     }
   }
 
@@ -534,11 +544,12 @@ public class Profile {
    * Removes all the shortcuts from the given shortcut class.
    */
   public void removeBindings(Class<?> cls) {
-    Iterator<Entry<Shortcut, ObjectMethodTuple>> it = map.entrySet().iterator();
-    while (it.hasNext()) {
-      Map.Entry<Shortcut, ObjectMethodTuple> pair = it.next();
-      if (cls.isInstance(pair.getKey()))
-        it.remove();
+    for (int i = 0; i < map.capacity();) {
+      ObjectMethodTuple tuple = map.valueAt(i);
+      if (tuple != null && cls.isInstance(tuple.shortcut))
+        map.removeSlot(i);
+      else
+        i++;
     }
   }
 
@@ -548,10 +559,11 @@ public class Profile {
    */
   public String info(Class<?> cls) {
     String result = new String();
-    for (Entry<Shortcut, ObjectMethodTuple> entry : map.entrySet())
-      if (entry.getKey() != null && entry.getValue() != null)
-        if (cls.isInstance(entry.getKey()))
-          result += entry.getKey().description() + " -> " + entry.getValue().method.getName() + "\n";
+    for (int i = 0; i < map.capacity(); i++) {
+      ObjectMethodTuple tuple = map.valueAt(i);
+      if (tuple != null && tuple.method != null && cls.isInstance(tuple.shortcut))
+        result += tuple.shortcut.description() + " -> " + tuple.method.getName() + "\n";
+    }
     return result;
   }
 
@@ -561,14 +573,16 @@ public class Profile {
   public String info() {
     String result = new String();
     boolean title = false;
-    for (Entry<Shortcut, ObjectMethodTuple> entry : map.entrySet())
-      if (entry.getKey() != null && entry.getValue() != null) {
+    for (int i = 0; i < map.capacity(); i++) {
+      ObjectMethodTuple tuple = map.valueAt(i);
+      if (tuple != null && tuple.method != null) {
         if (!title) {
-          result += entry.getKey().getClass().getSimpleName() + "s:\n";
+          result += tuple.shortcut.getClass().getSimpleName() + "s:\n";
           title = true;
         }
-        result += entry.getKey().description() + " -> " + entry.getValue().method.getName() + "\n";
+        result += tuple.shortcut.description() + " -> " + tuple.method.getName() + "\n";
       }
+    }
     return result;
   }
 
@@ -580,7 +594,7 @@ public class Profile {
    * @return true if this object contains a binding for the specified shortcut.
    */
   public boolean hasBinding(Shortcut key) {
-    return map.containsKey(key);
+    return map.containsKey(key.code());
   }
 
   /**
@@ -592,8 +606,9 @@ public class Profile {
    * @return true if this object maps one or more shortcuts to the specified action.
    */
   public boolean isActionBound(String action) {
-    for (ObjectMethodTuple tuple : map.values()) {
-      if (grabber == tuple.object && tuple.method.getName().equals(action))
+    for (int i = 0; i < map.capacity(); i++) {
+      ObjectMethodTuple tuple = map.valueAt(i);
+      if (tuple != null && grabber == tuple.object && tuple.method != null && tuple.method.getName().equals(action))
         return true;
     }
     return false;
@@ -622,6 +637,11 @@ public class Profile {
    * @return true if this object maps one or more shortcuts to the specified action.
    */
   public boolean isMethodBound(Object object, Method method) {
-    return map.containsValue(new ObjectMethodTuple(object, method));
+    for (int i = 0; i < map.capacity(); i++) {
+      ObjectMethodTuple tuple = map.valueAt(i);
+      if (tuple != null && tuple.object == object && method.equals(tuple.method))
+        return true;
+    }
+    return false;
   }
 }
\ No newline at end of file
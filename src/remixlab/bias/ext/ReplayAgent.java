@@ -0,0 +1,126 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.ext;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+import remixlab.bias.core.*;
+import remixlab.bias.event.*;
+
+/**
+ * An agent replaying an input session recorded by another agent (see
+ * {@link remixlab.bias.core.Agent#startRecording(java.nio.channels.WritableByteChannel)}
+ * ). Add the grabbers of the recording agent to it, and the
+ * {@link remixlab.bias.core.InputHandler#handle()} will feed them the recorded events
+ * (see {@link #handleFeed()}).
+ * <p>
+ * The session may be replayed at the original pace, at an accelerated one (see
+ * {@link #setSpeed(float)}), or frame by frame, i.e., replaying the events recorded
+ * during each original frame in each {@link remixlab.bias.core.InputHandler#handle()}
+ * call, which reproduces the original per frame input regardless of the actual frame
+ * rate (e.g., to reproduce frame time regressions deterministically).
+ */
+public class ReplayAgent extends Agent {
+  protected EventLogReader reader;
+  protected float speed = 1;
+  protected long start = -1;
+  // the record read ahead, when it isn't due yet
+  protected boolean pending, done;
+  protected long replayed;
+
+  /**
+   * Constructs an agent replaying the event log read from the {@code channel}, and
+   * registers it at the given input handler.
+   */
+  public ReplayAgent(InputHandler inputHandler, ReadableByteChannel channel) throws IOException {
+    super(inputHandler);
+    reader = new EventLogReader(channel);
+  }
+
+  /**
+   * Returns the replay speed: 1 replays the session at the original pace, 2 twice as fast,
+   * and so on. 0 replays it frame by frame. Default is 1.
+   */
+  public float speed() {
+    return speed;
+  }
+
+  /**
+   * Sets the replay {@link #speed()}.
+   */
+  public void setSpeed(float speed) {
+    this.speed = Math.max(0, speed);
+  }
+
+  /**
+   * Returns {@code true} once the whole log has been replayed.
+   */
+  public boolean isDone() {
+    return done;
+  }
+
+  /**
+   * Returns the number of events replayed so far.
+   */
+  public long replayed() {
+    return replayed;
+  }
+
+  /**
+   * Replays the events which are due (see {@link #speed()}). Automatically called by
+   * the {@link remixlab.bias.core.InputHandler#handle()} (through {@link #handleFeed()}).
+   */
+  public void replay() {
+    if (done)
+      return;
+    long now = System.nanoTime();
+    if (start < 0)
+      start = now;
+    try {
+      for (;;) {
+        if (!pending && !reader.next()) {
+          done = true;
+          return;
+        }
+        pending = false;
+        if (reader.isFrame()) {
+          if (speed == 0)
+            return;
+          continue;
+        }
+        if (speed > 0 && reader.time() > (now - start) * (double) speed) {
+          pending = true;
+          return;
+        }
+        BogusEvent event = reader.event();
+        if (reader.isTracked())
+          updateTrackedGrabber(event);
+        if (reader.isHandled())
+          handle(event);
+        replayed++;
+      }
+    } catch (IOException e) {
+      done = true;
+      System.out.println("Something went wrong when reading the event log. Replay stopped");
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Calls {@link #replay()}. Returns null, since the events are handled by the former.
+   */
+  @Override
+  protected BogusEvent handleFeed() {
+    replay();
+    return null;
+  }
+}
@@ -0,0 +1,248 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.ext;
+
+import java.util.Random;
+
+import remixlab.bias.core.*;
+import remixlab.bias.event.*;
+
+/**
+ * An agent generating synthetic input at a configurable rate, so that the input
+ * pipeline may be exercised without a device (see {@link InputStress}).
+ * <p>
+ * By default the agent emits a randomized stream of {@link remixlab.bias.event.DOF1Event}
+ * s, {@link remixlab.bias.event.DOF2Event}s, {@link remixlab.bias.event.DOF3Event}s,
+ * {@link remixlab.bias.event.DOF6Event}s, {@link remixlab.bias.event.ClickEvent}s and
+ * {@link remixlab.bias.event.KeyboardEvent}s, mixed according to their
+ * {@link #weight(Kind)}s. Motion events perform a random walk within [0..
+ * {@link #range()}] (so that they're relative, see
+ * {@link remixlab.bias.event.MotionEvent#isRelative()}), clicks are uniformly
+ * distributed within the same range and keys are picked from 'a'..'z'. Override
+ * {@link #next()} to script the stream instead.
+ * <p>
+ * Call {@link #pump()} once per frame (e.g., before the
+ * {@link remixlab.bias.core.InputHandler#handle()}) to emit the events due at the
+ * {@link #rate()}, or {@link #generate(int)} to emit a given number of them.
+ */
+public class SyntheticAgent extends Agent {
+  /**
+   * Kinds of generated events.
+   */
+  public enum Kind {
+    DOF1, DOF2, DOF3, DOF6, CLICK, KEYBOARD
+  }
+
+  /**
+   * Event ids of the generated events, registered at the {@link Profile}.
+   */
+  public static final int DOF1_ID = 1001, DOF2_ID = 1002, DOF3_ID = 1003, DOF6_ID = 1006, CLICK_ID = 1010;
+
+  // Kind.values() clones the array on every call
+  protected static final Kind[] KINDS = Kind.values();
+
+  protected float[] weights = new float[KINDS.length];
+  protected float totalWeight;
+  protected float rate, range, step;
+  protected Random random;
+  protected long lastPump = -1;
+  protected double debt;
+  protected long generated;
+  // random walk state, per motion kind
+  protected float[][] walk = new float[4][6];
+  protected MotionEvent[] lastEvents = new MotionEvent[4];
+
+  /**
+   * Same as {@code this(inputHandler, 1000)}.
+   */
+  public SyntheticAgent(InputHandler inputHandler) {
+    this(inputHandler, 1000);
+  }
+
+  /**
+   * Constructs an agent emitting {@code rate} events per second, registered at the given
+   * input handler. Only {@link Kind#DOF2} events are emitted by default.
+   */
+  public SyntheticAgent(InputHandler inputHandler, float rate) {
+    super(inputHandler);
+    Profile.registerMotionID(DOF1_ID, SyntheticAgent.class, 1);
+    Profile.registerMotionID(DOF2_ID, SyntheticAgent.class, 2);
+    Profile.registerMotionID(DOF3_ID, SyntheticAgent.class, 3);
+    Profile.registerMotionID(DOF6_ID, SyntheticAgent.class, 6);
+    Profile.registerClickID(CLICK_ID, SyntheticAgent.class);
+    setRate(rate);
+    setRange(1000);
+    setStep(10);
+    setSeed(0);
+    setWeight(Kind.DOF2, 1);
+  }
+
+  /**
+   * Returns the number of events emitted per second by {@link #pump()}.
+   */
+  public float rate() {
+    return rate;
+  }
+
+  /**
+   * Sets the {@link #rate()}.
+   */
+  public void setRate(float eventsPerSecond) {
+    rate = Math.max(0, eventsPerSecond);
+  }
+
+  /**
+   * Returns the size of the square (cube, ...) within which the generated positions lie.
+   * Default is 1000.
+   */
+  public float range() {
+    return range;
+  }
+
+  /**
+   * Sets the {@link #range()}.
+   */
+  public void setRange(float range) {
+    this.range = range;
+    for (int i = 0; i < walk.length; i++)
+      for (int j = 0; j < walk[i].length; j++)
+        walk[i][j] = range / 2;
+  }
+
+  /**
+   * Returns the maximum per event (and per dof) displacement of the motion random walk.
+   * Default is 10.
+   */
+  public float step() {
+    return step;
+  }
+
+  /**
+   * Sets the {@link #step()}.
+   */
+  public void setStep(float step) {
+    this.step = step;
+  }
+
+  /**
+   * Seeds the random generator, so that the same stream is generated again.
+   */
+  public void setSeed(long seed) {
+    random = new Random(seed);
+  }
+
+  /**
+   * Returns the relative frequency of the given kind of events within the stream.
+   */
+  public float weight(Kind kind) {
+    return weights[kind.ordinal()];
+  }
+
+  /**
+   * Sets the {@link #weight(Kind)} of the given kind of events. Use 0 to disable them.
+   */
+  public void setWeight(Kind kind, float weight) {
+    weights[kind.ordinal()] = Math.max(0, weight);
+    totalWeight = 0;
+    for (int i = 0; i < weights.length; i++)
+      totalWeight += weights[i];
+  }
+
+  /**
+   * Returns the number of events emitted so far.
+   */
+  public long generated() {
+    return generated;
+  }
+
+  /**
+   * Emits the events due at the {@link #rate()} since the previous call (none the first
+   * time it is called) and returns their number.
+   *
+   * @see #generate(int)
+   */
+  public int pump() {
+    long now = System.nanoTime();
+    if (lastPump < 0) {
+      lastPump = now;
+      return 0;
+    }
+    debt += rate * (now - lastPump) / 1e9;
+    lastPump = now;
+    int count = (int) debt;
+    debt -= count;
+    return generate(count);
+  }
+
+  /**
+   * Emits (i.e., tracks the grabbers with and handles) the next {@code count} events of
+   * the stream (see {@link #next()}) and returns the number of emitted ones.
+   */
+  public int generate(int count) {
+    for (int i = 0; i < count; i++) {
+      BogusEvent event = next();
+      if (event == null)
+        return i;
+      generated++;
+      updateTrackedGrabber(event);
+      handle(event);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the next event of the stream, or null if the stream is over. Override it to
+   * script the stream.
+   */
+  protected BogusEvent next() {
+    if (totalWeight == 0)
+      return null;
+    float pick = random.nextFloat() * totalWeight;
+    int k = 0;
+    while (k < weights.length - 1 && (pick -= weights[k]) >= 0)
+      k++;
+    switch (KINDS[k]) {
+    case CLICK:
+      return new ClickEvent(random.nextFloat() * range, random.nextFloat() * range, CLICK_ID, 1);
+    case KEYBOARD:
+      return new KeyboardEvent((char) ('a' + random.nextInt(26)));
+    default:
+      return nextMotion(k);
+    }
+  }
+
+  /**
+   * Internal use. Returns the next step of the {@code k}-th motion kind random walk.
+   */
+  protected MotionEvent nextMotion(int k) {
+    float[] p = walk[k];
+    for (int i = 0; i < p.length; i++)
+      p[i] = Math.max(0, Math.min(range, p[i] + (2 * random.nextFloat() - 1) * step));
+    MotionEvent last = lastEvents[k];
+    int none = BogusEvent.NO_MODIFIER_MASK;
+    MotionEvent event;
+    switch (k) {
+    case 0:
+      event = new DOF1Event((DOF1Event) last, p[0], none, DOF1_ID);
+      break;
+    case 1:
+      event = new DOF2Event((DOF2Event) last, p[0], p[1], none, DOF2_ID);
+      break;
+    case 2:
+      event = new DOF3Event((DOF3Event) last, p[0], p[1], p[2], none, DOF3_ID);
+      break;
+    default:
+      event = new DOF6Event((DOF6Event) last, p[0], p[1], p[2], p[3], p[4], p[5], none, DOF6_ID);
+    }
+    lastEvents[k] = event;
+    return event;
+  }
+}
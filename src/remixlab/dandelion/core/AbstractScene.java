@@ -11,9 +11,12 @@
 package remixlab.dandelion.core;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import remixlab.bias.core.*;
 import remixlab.bias.event.*;
@@ -132,6 +135,13 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
   }
 
   protected List<GenericFrame> seeds;
+  // read-only view of the seeds, so that they can't get out of sync with the seedSet
+  protected List<GenericFrame> seedView;
+  // identity set of the seeds, so that isLeadingFrame() takes constant time
+  protected Set<GenericFrame> seedSet;
+  protected int batch;
+  protected CullingPass cullingPass;
+  protected OcclusionCuller occlusionCuller;
 
   // public final static int PUP = 1 << 6;
   // public final static int ARP = 1 << 7;
@@ -164,6 +174,8 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    */
   public AbstractScene() {
     seeds = new ArrayList<GenericFrame>();
+    seedView = Collections.unmodifiableList(seeds);
+    seedSet = Collections.newSetFromMap(new IdentityHashMap<GenericFrame, Boolean>());
     setPlatform();
     setTimingHandler(new TimingHandler(this));
     deltaCount = frameCount;
@@ -179,23 +191,24 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    * <p>
    * All leading frames are also reachable by the {@link #traverseGraph()} algorithm for
    * which they are the seeds.
+   * <p>
+   * The returned list is read-only: frames become leading frames when their reference
+   * frame is set to null (see
+   * {@link remixlab.dandelion.core.GenericFrame#setReferenceFrame(GenericFrame)}).
    * 
    * @see #frames()
    * @see #isFrameReachable(GenericFrame)
    * @see #pruneBranch(GenericFrame)
    */
   public List<GenericFrame> leadingFrames() {
-    return seeds;
+    return seedView;
   }
 
   /**
    * Returns {@code true} if the frame is top-level.
    */
   protected boolean isLeadingFrame(GenericFrame gFrame) {
-    for (GenericFrame frame : leadingFrames())
-      if (frame == gFrame)
-        return true;
-    return false;
+    return seedSet.contains(gFrame);
   }
 
   /**
@@ -204,17 +217,19 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
   protected boolean addLeadingFrame(GenericFrame gFrame) {
     if (gFrame == null || gFrame.referenceFrame() != null)
       return false;
-    if (isLeadingFrame(gFrame))
+    if (!seedSet.add(gFrame))
       return false;
-    return leadingFrames().add(gFrame);
+    return seeds.add(gFrame);
   }
 
   /**
    * Removes the leading frame if present. Typically used when re-parenting the frame.
    */
   protected boolean removeLeadingFrame(GenericFrame iFrame) {
+    if (!seedSet.remove(iFrame))
+      return false;
     boolean result = false;
-    Iterator<GenericFrame> it = leadingFrames().iterator();
+    Iterator<GenericFrame> it = seeds.iterator();
     while (it.hasNext()) {
       if (it.next() == iFrame) {
         it.remove();
@@ -246,20 +261,69 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
   protected void visitFrame(GenericFrame frame) {
     pushModelView();
     applyTransformation(frame);
-    frame.visitCallback();
+    if (!isFrameCulled(frame))
+      frame.visitCallback();
     for (GenericFrame child : frame.children())
       visitFrame(child);
     popModelView();
   }
 
   /**
-   * Same as {@code for(GenericFrame frame : leadingFrames()) pruneBranch(frame)}.
+   * Returns the culling pass used by {@link #traverseGraph()} to skip the visit of the
+   * frames which are not visible by the {@link #eye()}. May be {@code null}.
+   * 
+   * @see #setCullingPass(CullingPass)
+   */
+  public CullingPass cullingPass() {
+    return cullingPass;
+  }
+
+  /**
+   * Sets the {@link #cullingPass()}. The same pass may be shared among several scenes
+   * rendering the same frames. Note that the pass should contain the scene {@link #eye()}
+   * (see {@link remixlab.dandelion.core.CullingPass#addEye(Eye)}) for it to take effect.
+   */
+  public void setCullingPass(CullingPass pass) {
+    cullingPass = pass;
+  }
+
+  /**
+   * Returns the occlusion culler used by {@link #traverseGraph()} to skip the visit of the
+   * occluded frames. May be {@code null}.
+   * 
+   * @see #setOcclusionCuller(OcclusionCuller)
+   */
+  public OcclusionCuller occlusionCuller() {
+    return occlusionCuller;
+  }
+
+  /**
+   * Sets the {@link #occlusionCuller()}. Note that the culler
+   * {@link remixlab.dandelion.core.OcclusionCuller#eye()} should be the scene
+   * {@link #eye()} for it to make sense.
+   */
+  public void setOcclusionCuller(OcclusionCuller culler) {
+    occlusionCuller = culler;
+  }
+
+  /**
+   * Returns {@code true} if the {@link #cullingPass()} found {@code frame} to be invisible
+   * by the {@link #eye()}, or if the {@link #occlusionCuller()} found it to be occluded.
+   * Used by {@link #traverseGraph()}.
+   */
+  protected boolean isFrameCulled(GenericFrame frame) {
+    if (cullingPass != null && cullingPass.isCulled(eye(), frame))
+      return true;
+    return occlusionCuller != null && occlusionCuller.isOccluded(frame);
+  }
+
+  /**
+   * Same as {@code pruneBranches(leadingFrames())}.
    * 
    * @see #pruneBranch(GenericFrame)
    */
   public void clearGraph() {
-    for (GenericFrame frame : leadingFrames())
-      pruneBranch(frame);
+    pruneBranches(new ArrayList<GenericFrame>(leadingFrames()));
   }
 
   /**
@@ -290,6 +354,7 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    * @see #clearGraph()
    * @see #appendBranch(List)
    * @see #isFrameReachable(GenericFrame)
+   * @see #pruneBranches(List)
    */
   public ArrayList<GenericFrame> pruneBranch(GenericFrame frame) {
     // /*
@@ -297,36 +362,165 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
     if (!isFrameReachable(frame))
       return null;
     // */
+    return pruneBranches(Collections.singletonList(frame));
+  }
+
+  /**
+   * Same as {@link #pruneBranch(GenericFrame)}, but prunes the branches of all the given
+   * (reachable) {@code frames} at once, in time proportional to the number of pruned
+   * frames: the grabbers are removed from the {@link #inputHandler()} agents in a single
+   * pass, and the leading frames and the children lists of the frames which remain
+   * reachable are filtered once. Returns the pruned frames (each one coming before its
+   * descendants), which may be made reachable again with {@link #appendBranch(List)}.
+   */
+  public ArrayList<GenericFrame> pruneBranches(List<? extends GenericFrame> frames) {
     ArrayList<GenericFrame> list = new ArrayList<GenericFrame>();
-    collectFrames(list, frame, true);
+    Set<GenericFrame> pruned = Collections.newSetFromMap(new IdentityHashMap<GenericFrame, Boolean>());
+    for (GenericFrame frame : frames)
+      if (!pruned.contains(frame) && isFrameReachable(frame))
+        collectBranch(list, pruned, frame);
+    inputHandler().removeGrabbers(list);
+    boolean seedsPruned = false;
+    Set<GenericFrame> parents = Collections.newSetFromMap(new IdentityHashMap<GenericFrame, Boolean>());
     for (GenericFrame gFrame : list) {
-      inputHandler().removeGrabber(gFrame);
-      if (gFrame.referenceFrame() != null)
-        gFrame.referenceFrame().removeChild(gFrame);
+      GenericFrame parent = gFrame.referenceFrame();
+      if (parent == null)
+        seedsPruned |= seedSet.remove(gFrame);
+      else if (pruned.contains(parent))
+        parent.children().clear();
       else
-        removeLeadingFrame(gFrame);
+        parents.add(parent);
     }
+    for (GenericFrame parent : parents)
+      removeFrames(parent.children(), pruned);
+    if (seedsPruned)
+      removeFrames(seeds, pruned);
     return list;
   }
 
+  /**
+   * Internal use. Collects the {@code frame} branch frames which are not
+   * {@code collected} yet.
+   */
+  protected void collectBranch(List<GenericFrame> list, Set<GenericFrame> collected, GenericFrame frame) {
+    if (!collected.add(frame))
+      return;
+    list.add(frame);
+    for (GenericFrame child : frame.children())
+      collectBranch(list, collected, child);
+  }
+
+  /**
+   * Internal use. Removes the {@code frames} from the {@code list} in a single pass.
+   */
+  protected static void removeFrames(List<GenericFrame> list, Set<GenericFrame> frames) {
+    int j = 0;
+    for (int i = 0; i < list.size(); i++)
+      if (!frames.contains(list.get(i)))
+        list.set(j++, list.get(i));
+    while (list.size() > j)
+      list.remove(list.size() - 1);
+  }
+
   /**
    * Appends the branch which typically should come from the one pruned (and cached) with
-   * {@link #pruneBranch(GenericFrame)}.
+   * {@link #pruneBranch(GenericFrame)} or {@link #pruneBranches(List)}.
    * <p>
-   * All frames belonging to the branch are automatically added to all scene agents.
+   * All frames belonging to the branch are automatically added to all scene agents. The
+   * scene updates which don't need to take place for each frame are deferred till the
+   * whole branch has been appended (see {@link #beginBatch()}).
    * 
    * {@link #pruneBranch(GenericFrame)}
    */
   public void appendBranch(List<GenericFrame> branch) {
     if (branch == null)
       return;
+    beginBatch();
+    inputHandler().addGrabbers(branch);
+    // children of each reference frame, so that they're looked up in constant time
+    IdentityHashMap<GenericFrame, Set<GenericFrame>> children = new IdentityHashMap<GenericFrame, Set<GenericFrame>>();
     for (GenericFrame gFrame : branch) {
-      inputHandler().addGrabber(gFrame);
-      if (gFrame.referenceFrame() != null)
-        gFrame.referenceFrame().addChild(gFrame);
-      else
+      GenericFrame parent = gFrame.referenceFrame();
+      if (parent != null) {
+        Set<GenericFrame> set = children.get(parent);
+        if (set == null) {
+          set = Collections.newSetFromMap(new IdentityHashMap<GenericFrame, Boolean>());
+          set.addAll(parent.children());
+          children.put(parent, set);
+        }
+        if (set.add(gFrame))
+          parent.children().add(gFrame);
+      } else
         addLeadingFrame(gFrame);
     }
+    endBatch();
+  }
+
+  /**
+   * Builds a branch from the {@code parents} spec: the {@code i}-th frame is instantiated
+   * by the {@code factory} with the {@code parents[i]}-th frame as reference frame, or
+   * with {@code root} (which may be null) when {@code parents[i]} is negative. Parents
+   * should thus precede their children in the spec. Returns the new frames.
+   * <p>
+   * The scene updates which don't need to take place for each frame are deferred till the
+   * whole branch has been built (see {@link #beginBatch()}).
+   */
+  public ArrayList<GenericFrame> buildBranch(GenericFrame root, int[] parents, FrameFactory factory) {
+    ArrayList<GenericFrame> list = new ArrayList<GenericFrame>(parents.length);
+    beginBatch();
+    try {
+      for (int i = 0; i < parents.length; i++) {
+        if (parents[i] >= i)
+          throw new IllegalArgumentException("The parent of frame " + i + " should precede it in the spec");
+        GenericFrame parent = parents[i] < 0 ? root : list.get(parents[i]);
+        GenericFrame frame = factory.create(parent, i);
+        if (frame.referenceFrame() != parent)
+          frame.setReferenceFrame(parent);
+        list.add(frame);
+      }
+    } finally {
+      endBatch();
+    }
+    return list;
+  }
+
+  /**
+   * Starts a batch of frame updates (e.g., instantiating, pruning or appending many
+   * frames), during which the scene updates which don't need to take place for each
+   * frame (such as refreshing the picking buffer) are deferred till the matching
+   * {@link #endBatch()} call. Batches may be nested.
+   * 
+   * @see #isBatching()
+   */
+  public void beginBatch() {
+    batch++;
+  }
+
+  /**
+   * Ends the batch started with {@link #beginBatch()}, committing the deferred updates
+   * once the outermost batch ends (see {@link #commitBatch()}).
+   */
+  public void endBatch() {
+    if (batch > 0 && --batch == 0)
+      commitBatch();
+  }
+
+  /**
+   * Returns {@code true} if a batch of frame updates is in progress.
+   * 
+   * @see #beginBatch()
+   */
+  public boolean isBatching() {
+    return batch > 0;
+  }
+
+  /**
+   * Performs the updates deferred during a batch of frame updates. Does nothing by
+   * default.
+   * 
+   * @see #beginBatch()
+   */
+  protected void commitBatch() {
   }
 
   /**
@@ -1291,7 +1485,8 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
    * <li>{@link remixlab.bias.core.InputHandler#handle()}</li>
    * <li>{@link #proscenium()}</li>
    * <li>{@link #invokeGraphicsHandler()}</li>
-   * <li>{@link #displayVisualHints()}.</li>
+   * <li>{@link #displayVisualHints()}</li>
+   * <li>{@link remixlab.bias.core.InputHandler#framePresented()}.</li>
    * </ol>
    * 
    * @see #proscenium()
@@ -1314,6 +1509,8 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
     invokeGraphicsHandler(); // abstract
     // 5. Display visual hints
     displayVisualHints(); // abstract
+    // 6. Input latency stats
+    inputHandler().framePresented();
   }
 
   /**
@@ -2241,6 +2438,26 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
       return eye().unprojectedCoordinatesOf(src);
   }
 
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#project(Mat, float[], float[], int)} using
+   * the cached {@link remixlab.dandelion.core.MatrixHelper#projectionView()}.
+   */
+  public int projectedCoordinatesOf(float[] src, float[] dst, int count) {
+    return eye().project(this.matrixHelper().projectionView(), src, dst, count);
+  }
+
+  /**
+   * Same as {@link remixlab.dandelion.core.Eye#unproject(Mat, float[], float[], int)}
+   * using the cached {@link remixlab.dandelion.core.MatrixHelper#projectionViewInverse()}
+   * when {@link #isUnprojectedCoordinatesOfOptimized()}.
+   */
+  public int unprojectedCoordinatesOf(float[] src, float[] dst, int count) {
+    if (isUnprojectedCoordinatesOfOptimized())
+      return eye().unproject(this.matrixHelper().projectionViewInverse(), src, dst, count);
+    else
+      return eye().unproject(src, dst, count);
+  }
+
   /**
    * Returns the scene radius.
    * <p>
@@ -2465,6 +2682,17 @@ public abstract class AbstractScene extends AnimatorObject implements Grabber {
     showWarning(themethod + " is not available under the " + platform + " platform.");
   }
 
+  /**
+   * Display a warning that the specified method needs the eye boundary equations to be
+   * updated every frame.
+   * 
+   * @see #enableBoundaryEquations()
+   */
+  static public void showBoundaryEquationsWarning(String method) {
+    showWarning("The eye boundary equations (needed by " + method + ") may be outdated. Please "
+        + "enable automatic updates of the equations in your PApplet.setup with Scene.enableBoundaryEquations()");
+  }
+
   static public void showMinDOFsWarning(String themethod, int dofs) {
     showWarning(themethod + "() requires at least a " + dofs + " dofs.");
   }
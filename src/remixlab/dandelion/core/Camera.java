@@ -552,36 +552,46 @@ public class Camera extends Eye implements Copyable {
 
   @Override
   public boolean isPointVisible(Vec point) {
-    if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The camera frustum plane equations (needed by pointIsVisible) may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
-    for (int i = 0; i < 6; ++i)
-      if (distanceToBoundary(i, point) > 0)
-        return false;
-    return true;
+    return isPointVisible(point.vec[0], point.vec[1], point.vec[2]);
   }
 
   /**
-   * Same as {@code return isPointVisible(new Vec(x, y, z))}.
+   * Same as {@code return isPointVisible(new Vec(x, y, z))}, but doesn't allocate.
    * 
    * @see #isPointVisible(Vec)
    */
   public boolean isPointVisible(float x, float y, float z) {
-    return isPointVisible(new Vec(x, y, z));
+    if (!gScene.areBoundaryEquationsEnabled())
+      AbstractScene.showBoundaryEquationsWarning("isPointVisible");
+    for (int i = 0; i < 6; ++i) {
+      float[] p = fpCoefficients[i];
+      if (p[0] * x + p[1] * y + p[2] * z - p[3] > 0)
+        return false;
+    }
+    return true;
   }
 
   @Override
   public Visibility ballVisibility(Vec center, float radius) {
+    return ballVisibility(center, radius, null);
+  }
+
+  @Override
+  public Visibility ballVisibility(Vec center, float radius, int[] planeHint) {
     if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The camera frustum plane equations (needed by sphereIsVisible) may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
+      AbstractScene.showBoundaryEquationsWarning("ballVisibility");
+    float x = center.vec[0], y = center.vec[1], z = center.vec[2];
+    int first = planeHint(planeHint, 6);
     boolean allInForAllPlanes = true;
-    for (int i = 0; i < 6; ++i) {
-      float d = distanceToBoundary(i, center);
-      if (d > radius)
+    for (int k = 0; k < 6; ++k) {
+      int i = k == 0 ? first : (k <= first ? k - 1 : k);
+      float[] p = fpCoefficients[i];
+      float d = p[0] * x + p[1] * y + p[2] * z - p[3];
+      if (d > radius) {
+        if (planeHint != null)
+          planeHint[0] = i;
         return Camera.Visibility.INVISIBLE;
+      }
       if ((d > 0) || (-d < radius))
         allInForAllPlanes = false;
     }
@@ -592,24 +602,42 @@ public class Camera extends Eye implements Copyable {
 
   @Override
   public Visibility boxVisibility(Vec p1, Vec p2) {
+    return boxVisibility(p1, p2, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Instead of testing the eight box corners against each plane, only the corner lying
+   * the farthest along the plane normal (the so called p-vertex) and its opposite one
+   * (the n-vertex) are tested.
+   */
+  @Override
+  public Visibility boxVisibility(Vec p1, Vec p2, int[] planeHint) {
     if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The camera frustum plane equations (needed by aaBoxIsVisible) may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
+      AbstractScene.showBoundaryEquationsWarning("boxVisibility");
+    float minx = Math.min(p1.vec[0], p2.vec[0]), maxx = Math.max(p1.vec[0], p2.vec[0]);
+    float miny = Math.min(p1.vec[1], p2.vec[1]), maxy = Math.max(p1.vec[1], p2.vec[1]);
+    float minz = Math.min(p1.vec[2], p2.vec[2]), maxz = Math.max(p1.vec[2], p2.vec[2]);
+    int first = planeHint(planeHint, 6);
     boolean allInForAllPlanes = true;
-    for (int i = 0; i < 6; ++i) {
-      boolean allOut = true;
-      for (int c = 0; c < 8; ++c) {
-        Vec pos = new Vec(((c & 4) != 0) ? p1.vec[0] : p2.vec[0], ((c & 2) != 0) ? p1.vec[1] : p2.vec[1],
-            ((c & 1) != 0) ? p1.vec[2] : p2.vec[2]);
-        if (distanceToBoundary(i, pos) > 0.0)
-          allInForAllPlanes = false;
-        else
-          allOut = false;
-      }
+    for (int k = 0; k < 6; ++k) {
+      int i = k == 0 ? first : (k <= first ? k - 1 : k);
+      float[] p = fpCoefficients[i];
+      // n-vertex: the corner nearest to the inner side of the plane
+      float n = p[0] * (p[0] > 0 ? minx : maxx) + p[1] * (p[1] > 0 ? miny : maxy) + p[2] * (p[2] > 0 ? minz : maxz)
+          - p[3];
       // The eight points are on the outside side of this plane
-      if (allOut)
+      if (n > 0) {
+        if (planeHint != null)
+          planeHint[0] = i;
         return Camera.Visibility.INVISIBLE;
+      }
+      // p-vertex: the corner nearest to the outer side of the plane
+      if (allInForAllPlanes)
+        if (p[0] * (p[0] > 0 ? maxx : minx) + p[1] * (p[1] > 0 ? maxy : miny) + p[2] * (p[2] > 0 ? maxz : minz)
+            - p[3] > 0)
+          allInForAllPlanes = false;
     }
 
     if (allInForAllPlanes)
@@ -619,6 +647,81 @@ public class Camera extends Eye implements Copyable {
     return Camera.Visibility.SEMIVISIBLE;
   }
 
+  @Override
+  public int ballVisibility(float[] centers, float[] radii, byte[] visibility, int count) {
+    if (!gScene.areBoundaryEquationsEnabled())
+      AbstractScene.showBoundaryEquationsWarning("ballVisibility");
+    final byte visible = (byte) Camera.Visibility.VISIBLE.ordinal();
+    final byte semivisible = (byte) Camera.Visibility.SEMIVISIBLE.ordinal();
+    final byte invisible = (byte) Camera.Visibility.INVISIBLE.ordinal();
+    float[] c = fpCoefficients[0];
+    float a0 = c[0], b0 = c[1], c0 = c[2], d0 = c[3];
+    c = fpCoefficients[1];
+    float a1 = c[0], b1 = c[1], c1 = c[2], d1 = c[3];
+    c = fpCoefficients[2];
+    float a2 = c[0], b2 = c[1], c2 = c[2], d2 = c[3];
+    c = fpCoefficients[3];
+    float a3 = c[0], b3 = c[1], c3 = c[2], d3 = c[3];
+    c = fpCoefficients[4];
+    float a4 = c[0], b4 = c[1], c4 = c[2], d4 = c[3];
+    c = fpCoefficients[5];
+    float a5 = c[0], b5 = c[1], c5 = c[2], d5 = c[3];
+    int result = 0;
+    for (int i = 0; i < count; ++i) {
+      int j = 3 * i;
+      float x = centers[j], y = centers[j + 1], z = centers[j + 2], r = radii[i];
+      float e0 = a0 * x + b0 * y + c0 * z - d0;
+      float e1 = a1 * x + b1 * y + c1 * z - d1;
+      float e2 = a2 * x + b2 * y + c2 * z - d2;
+      float e3 = a3 * x + b3 * y + c3 * z - d3;
+      float e4 = a4 * x + b4 * y + c4 * z - d4;
+      float e5 = a5 * x + b5 * y + c5 * z - d5;
+      // max distance to the boundary planes decides
+      float e = Math.max(Math.max(Math.max(e0, e1), Math.max(e2, e3)), Math.max(e4, e5));
+      if (e > r)
+        visibility[i] = invisible;
+      else {
+        visibility[i] = e > -r ? semivisible : visible;
+        result++;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int boxVisibility(float[] mins, float[] maxs, byte[] visibility, int count) {
+    if (!gScene.areBoundaryEquationsEnabled())
+      AbstractScene.showBoundaryEquationsWarning("boxVisibility");
+    final byte visible = (byte) Camera.Visibility.VISIBLE.ordinal();
+    final byte semivisible = (byte) Camera.Visibility.SEMIVISIBLE.ordinal();
+    final byte invisible = (byte) Camera.Visibility.INVISIBLE.ordinal();
+    int result = 0;
+    for (int i = 0; i < count; ++i) {
+      int j = 3 * i;
+      // box center and half extents, so that the n and p vertices distances are
+      // dist(center) -/+ dot(abs(normal), extents)
+      float hx = (maxs[j] - mins[j]) * 0.5f, hy = (maxs[j + 1] - mins[j + 1]) * 0.5f,
+          hz = (maxs[j + 2] - mins[j + 2]) * 0.5f;
+      float x = mins[j] + hx, y = mins[j + 1] + hy, z = mins[j + 2] + hz;
+      byte vis = visible;
+      for (int k = 0; k < 6; ++k) {
+        float[] p = fpCoefficients[k];
+        float d = p[0] * x + p[1] * y + p[2] * z - p[3];
+        float r = Math.abs(p[0]) * hx + Math.abs(p[1]) * hy + Math.abs(p[2]) * hz;
+        if (d - r > 0) {
+          vis = invisible;
+          break;
+        }
+        if (d + r > 0)
+          vis = semivisible;
+      }
+      visibility[i] = vis;
+      if (vis != invisible)
+        result++;
+    }
+    return result;
+  }
+
   @Override
   public float[][] computeBoundaryEquations() {
     return computeBoundaryEquations(new float[6][4]);
@@ -0,0 +1,243 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import remixlab.dandelion.geom.*;
+
+/**
+ * A culling pass tests the bounding balls of a set of {@link #frames()} against the
+ * boundaries of several {@link #eyes()} (which may belong to different scenes, e.g., a
+ * main view and its mini-map) at once, and keeps a visibility mask per eye.
+ * <p>
+ * Each frame world position and radius is computed only once per {@link #update()},
+ * no matter how many eyes are registered. Set the pass on each scene rendering the
+ * frames (see {@link remixlab.dandelion.core.AbstractScene#setCullingPass(CullingPass)})
+ * so that {@link remixlab.dandelion.core.AbstractScene#traverseGraph()} skips the
+ * {@link remixlab.dandelion.core.GenericFrame#visit()} of the frames found to be
+ * {@link remixlab.dandelion.core.Eye.Visibility#INVISIBLE} by the scene
+ * {@link remixlab.dandelion.core.AbstractScene#eye()}.
+ * <p>
+ * Typical usage:
+ *
+ * <pre>
+ * {@code
+ * pass = new CullingPass();
+ * pass.addEye(scene.eye());
+ * pass.addEye(auxScene.eye());
+ * pass.addFrame(frame1, 30);
+ * scene.setCullingPass(pass);
+ * auxScene.setCullingPass(pass);
+ * scene.enableBoundaryEquations();
+ * auxScene.enableBoundaryEquations();
+ * // then, once per frame, before drawing the scenes:
+ * pass.update();
+ * }
+ * </pre>
+ *
+ * Frames not added to the pass are never culled.
+ */
+public class CullingPass {
+  protected static final Eye.Visibility[] visibilities = Eye.Visibility.values();
+  protected List<Eye> eyeList;
+  protected List<GenericFrame> frameList;
+  protected IdentityHashMap<GenericFrame, Integer> slots;
+  protected float[] radiusList;
+  protected float[] centers, radii;
+  protected byte[][] masks;
+  // reused by update() to compute the frame positions
+  protected Vec pos = new Vec();
+
+  public CullingPass() {
+    eyeList = new ArrayList<Eye>();
+    frameList = new ArrayList<GenericFrame>();
+    slots = new IdentityHashMap<GenericFrame, Integer>();
+    radiusList = new float[16];
+    centers = new float[48];
+    radii = new float[16];
+    masks = new byte[0][];
+  }
+
+  /**
+   * Returns the eyes whose boundaries the {@link #frames()} are tested against.
+   */
+  public List<Eye> eyes() {
+    return eyeList;
+  }
+
+  /**
+   * Returns the frames whose bounding balls are tested by this pass.
+   */
+  public List<GenericFrame> frames() {
+    return frameList;
+  }
+
+  /**
+   * Adds {@code eye} to the {@link #eyes()}. Returns {@code true} if succeeded and
+   * {@code false} if the eye was already added.
+   */
+  public boolean addEye(Eye eye) {
+    if (eye == null || eyeIndex(eye) != -1)
+      return false;
+    eyeList.add(eye);
+    byte[][] m = new byte[eyeList.size()][];
+    System.arraycopy(masks, 0, m, 0, masks.length);
+    m[m.length - 1] = new byte[radiusList.length];
+    masks = m;
+    return true;
+  }
+
+  /**
+   * Removes {@code eye} from the {@link #eyes()}. Returns {@code true} if succeeded and
+   * {@code false} otherwise.
+   */
+  public boolean removeEye(Eye eye) {
+    int index = eyeIndex(eye);
+    if (index == -1)
+      return false;
+    eyeList.remove(index);
+    byte[][] m = new byte[eyeList.size()][];
+    for (int i = 0, j = 0; i < masks.length; i++)
+      if (i != index)
+        m[j++] = masks[i];
+    masks = m;
+    return true;
+  }
+
+  /**
+   * Adds {@code frame} (whose bounding ball is centered at the frame origin and has the
+   * given {@code radius} in the frame coordinate system) to the {@link #frames()}. If the
+   * frame was already added its radius is updated.
+   */
+  public void addFrame(GenericFrame frame, float radius) {
+    Integer slot = slots.get(frame);
+    if (slot != null) {
+      radiusList[slot] = radius;
+      return;
+    }
+    int index = frameList.size();
+    if (index == radiusList.length)
+      grow(2 * index);
+    frameList.add(frame);
+    slots.put(frame, index);
+    radiusList[index] = radius;
+    // make sure the frame is not culled until the next update
+    for (int e = 0; e < masks.length; e++)
+      masks[e][index] = (byte) Eye.Visibility.SEMIVISIBLE.ordinal();
+  }
+
+  /**
+   * Removes {@code frame} from the {@link #frames()}. Returns {@code true} if succeeded
+   * and {@code false} otherwise.
+   */
+  public boolean removeFrame(GenericFrame frame) {
+    Integer slot = slots.remove(frame);
+    if (slot == null)
+      return false;
+    // move the last frame into the freed slot
+    int last = frameList.size() - 1;
+    GenericFrame lastFrame = frameList.remove(last);
+    if (slot != last) {
+      frameList.set(slot, lastFrame);
+      slots.put(lastFrame, slot);
+      radiusList[slot] = radiusList[last];
+      for (int e = 0; e < masks.length; e++)
+        masks[e][slot] = masks[e][last];
+    }
+    return true;
+  }
+
+  /**
+   * Tests all the {@link #frames()} against all the {@link #eyes()}. Call it once per
+   * frame, after the eyes and frames were set and before the scenes traverse their
+   * graphs.
+   * <p>
+   * <b>Attention:</b> The boundary equations of the eye scenes should be enabled (see
+   * {@link remixlab.dandelion.core.AbstractScene#enableBoundaryEquations()}).
+   */
+  public void update() {
+    int count = frameList.size();
+    for (int i = 0; i < count; i++) {
+      GenericFrame frame = frameList.get(i);
+      frame.position(pos);
+      centers[3 * i] = pos.vec[0];
+      centers[3 * i + 1] = pos.vec[1];
+      centers[3 * i + 2] = pos.vec[2];
+      radii[i] = radiusList[i] * frame.magnitude();
+    }
+    for (int e = 0; e < masks.length; e++) {
+      Eye eye = eyeList.get(e);
+      eye.updateBoundaryEquations();
+      eye.ballVisibility(centers, radii, masks[e], count);
+    }
+  }
+
+  /**
+   * Returns the {@code frame} visibility respect to {@code eye}, as computed by the last
+   * {@link #update()}. Frames or eyes not belonging to the pass are reported as
+   * {@link remixlab.dandelion.core.Eye.Visibility#SEMIVISIBLE}.
+   */
+  public Eye.Visibility visibility(Eye eye, GenericFrame frame) {
+    int e = eyeIndex(eye);
+    Integer slot = e == -1 ? null : slots.get(frame);
+    if (slot == null)
+      return Eye.Visibility.SEMIVISIBLE;
+    return visibilities[masks[e][slot]];
+  }
+
+  /**
+   * Returns {@code true} if {@code frame} was found to be
+   * {@link remixlab.dandelion.core.Eye.Visibility#INVISIBLE} by {@code eye} in the last
+   * {@link #update()}.
+   */
+  public boolean isCulled(Eye eye, GenericFrame frame) {
+    return visibility(eye, frame) == Eye.Visibility.INVISIBLE;
+  }
+
+  /**
+   * Returns the visibility mask computed by the last {@link #update()} for {@code eye},
+   * i.e., the {@link remixlab.dandelion.core.Eye.Visibility#ordinal()} of each one of the
+   * {@link #frames()}, in the same order. Returns {@code null} if the eye doesn't belong
+   * to the pass.
+   */
+  public byte[] mask(Eye eye) {
+    int e = eyeIndex(eye);
+    return e == -1 ? null : masks[e];
+  }
+
+  protected int eyeIndex(Eye eye) {
+    // eyes are few and its hashCode depends on its (mutable) state
+    for (int i = 0; i < eyeList.size(); i++)
+      if (eyeList.get(i) == eye)
+        return i;
+    return -1;
+  }
+
+  protected void grow(int size) {
+    float[] r = new float[size];
+    System.arraycopy(radiusList, 0, r, 0, radiusList.length);
+    radiusList = r;
+    r = new float[size];
+    System.arraycopy(radii, 0, r, 0, radii.length);
+    radii = r;
+    r = new float[3 * size];
+    System.arraycopy(centers, 0, r, 0, centers.length);
+    centers = r;
+    for (int e = 0; e < masks.length; e++) {
+      byte[] m = new byte[size];
+      System.arraycopy(masks[e], 0, m, 0, masks[e].length);
+      masks[e] = m;
+    }
+  }
+}
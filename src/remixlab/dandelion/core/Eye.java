@@ -193,6 +193,8 @@ public abstract class Eye implements Copyable {
 
   protected Mat viewMat;
   protected Mat projectionMat;
+  // scratch P x V and inv(P x V) used when no cached matrix is given to project/unproject
+  private Mat projViewTmp, projViewInvTmp;
 
   // P o i n t s o f V i e w s a n d K e y F r a m e s
   protected HashMap<Integer, KeyFrameInterpolator> kfi;
@@ -387,6 +389,8 @@ public abstract class Eye implements Copyable {
 
   protected void modified() {
     lastNonFrameUpdate = gScene.timingHandler().frameCount();
+    if (gScene.inputHandler() != null)
+      gScene.inputHandler().invalidateTracking();
   }
 
   /**
@@ -1252,15 +1256,15 @@ public abstract class Eye implements Copyable {
    * @see #unprojectedCoordinatesOf(Vec, Frame)
    */
   public final Vec projectedCoordinatesOf(Mat projview, Vec src, Frame frame) {
-    float xyz[] = new float[3];
+    Vec xyz = new Vec();
 
     if (frame != null) {
       Vec tmp = frame.inverseCoordinatesOf(src);
-      project(projview, tmp.vec[0], tmp.vec[1], tmp.vec[2], xyz);
+      project(projview, tmp.vec[0], tmp.vec[1], tmp.vec[2], xyz.vec);
     } else
-      project(projview, src.vec[0], src.vec[1], src.vec[2], xyz);
+      project(projview, src.vec[0], src.vec[1], src.vec[2], xyz.vec);
 
-    return new Vec(xyz[0], xyz[1], xyz[2]);
+    return xyz;
   }
 
   /**
@@ -1343,7 +1347,7 @@ public abstract class Eye implements Copyable {
   }
 
   protected void updateViewPort() {
-    viewport = getViewport();
+    viewport = getViewport(viewport);
   }
 
   /**
@@ -1393,48 +1397,104 @@ public abstract class Eye implements Copyable {
   // cached version
   public boolean project(Mat projectionViewMat, float objx, float objy, float objz, float[] windowCoordinate) {
     if (projectionViewMat == null)
-      projectionViewMat = Mat.multiply(projectionMat, viewMat);
-
-    float in[] = new float[4];
-    float out[] = new float[4];
-
-    in[0] = objx;
-    in[1] = objy;
-    in[2] = objz;
-    in[3] = 1.0f;
-
-    out[0] = projectionViewMat.mat[0] * in[0] + projectionViewMat.mat[4] * in[1] + projectionViewMat.mat[8] * in[2]
-        + projectionViewMat.mat[12] * in[3];
-    out[1] = projectionViewMat.mat[1] * in[0] + projectionViewMat.mat[5] * in[1] + projectionViewMat.mat[9] * in[2]
-        + projectionViewMat.mat[13] * in[3];
-    out[2] = projectionViewMat.mat[2] * in[0] + projectionViewMat.mat[6] * in[1] + projectionViewMat.mat[10] * in[2]
-        + projectionViewMat.mat[14] * in[3];
-    out[3] = projectionViewMat.mat[3] * in[0] + projectionViewMat.mat[7] * in[1] + projectionViewMat.mat[11] * in[2]
-        + projectionViewMat.mat[15] * in[3];
-
-    if (out[3] == 0.0)
+      projectionViewMat = projectionView();
+    float[] m = projectionViewMat.mat;
+
+    float x = m[0] * objx + m[4] * objy + m[8] * objz + m[12];
+    float y = m[1] * objx + m[5] * objy + m[9] * objz + m[13];
+    float z = m[2] * objx + m[6] * objy + m[10] * objz + m[14];
+    float w = m[3] * objx + m[7] * objy + m[11] * objz + m[15];
+
+    if (w == 0.0)
       return false;
 
     updateViewPort();
 
-    out[0] /= out[3];
-    out[1] /= out[3];
-    out[2] /= out[3];
+    // Map x, y and z to range 0-1 and then x,y to viewport
+    windowCoordinate[0] = (x / w * 0.5f + 0.5f) * viewport[2] + viewport[0];
+    windowCoordinate[1] = (y / w * 0.5f + 0.5f) * viewport[3] + viewport[1];
+    windowCoordinate[2] = z / w * 0.5f + 0.5f;
 
-    // Map x, y and z to range 0-1
-    out[0] = out[0] * 0.5f + 0.5f;
-    out[1] = out[1] * 0.5f + 0.5f;
-    out[2] = out[2] * 0.5f + 0.5f;
+    return true;
+  }
 
-    // Map x,y to viewport
-    out[0] = out[0] * viewport[2] + viewport[0];
-    out[1] = out[1] * viewport[3] + viewport[1];
+  /**
+   * Convenience function that simply returns {@code project(null, world, screen, count)}.
+   * 
+   * @see #project(Mat, float[], float[], int)
+   */
+  public int project(float[] world, float[] screen, int count) {
+    return project(null, world, screen, count);
+  }
 
-    windowCoordinate[0] = out[0];
-    windowCoordinate[1] = out[1];
-    windowCoordinate[2] = out[2];
+  /**
+   * Batch version of {@link #project(Mat, float, float, float, float[])}. Projects the
+   * first {@code count} points packed in {@code world} as {@code x0,y0,z0,x1,y1,z1,...}
+   * and stores their window coordinates in {@code screen} using the same layout.
+   * {@code screen} may be the same array as {@code world}.
+   * <p>
+   * Points whose homogeneous coordinate is zero (i.e., the ones lying on the eye plane)
+   * cannot be projected and their window coordinates are set to {@code Float.NaN}.
+   * <p>
+   * Pass the cached {@code projectionView} matrix (see
+   * {@link remixlab.dandelion.core.MatrixHelper#projectionView()}) when the Eye is attached
+   * to a scene, or {@code null} to compute it from the intrinsic Eye parameters. No
+   * memory is allocated either way.
+   * 
+   * @return the number of points that were actually projected
+   * 
+   * @see #unproject(Mat, float[], float[], int)
+   * @see remixlab.dandelion.core.AbstractScene#projectedCoordinatesOf(float[], float[], int)
+   */
+  public int project(Mat projectionViewMat, float[] world, float[] screen, int count) {
+    if (projectionViewMat == null)
+      projectionViewMat = projectionView();
+    float[] m = projectionViewMat.mat;
+    float m0 = m[0], m1 = m[1], m2 = m[2], m3 = m[3], m4 = m[4], m5 = m[5], m6 = m[6], m7 = m[7];
+    float m8 = m[8], m9 = m[9], m10 = m[10], m11 = m[11], m12 = m[12], m13 = m[13], m14 = m[14], m15 = m[15];
 
-    return true;
+    updateViewPort();
+    float vx = viewport[0], vy = viewport[1], vw = viewport[2] * 0.5f, vh = viewport[3] * 0.5f;
+
+    int projected = 0;
+    for (int i = 0, end = 3 * count; i < end; i += 3) {
+      float x = world[i], y = world[i + 1], z = world[i + 2];
+      float w = m3 * x + m7 * y + m11 * z + m15;
+      if (w == 0.0) {
+        screen[i] = screen[i + 1] = screen[i + 2] = Float.NaN;
+        continue;
+      }
+      float invW = 1 / w;
+      float px = (m0 * x + m4 * y + m8 * z + m12) * invW;
+      float py = (m1 * x + m5 * y + m9 * z + m13) * invW;
+      float pz = (m2 * x + m6 * y + m10 * z + m14) * invW;
+      screen[i] = px * vw + vw + vx;
+      screen[i + 1] = py * vh + vh + vy;
+      screen[i + 2] = pz * 0.5f + 0.5f;
+      projected++;
+    }
+    return projected;
+  }
+
+  /**
+   * Internal use. Computes {@code P x V} from the intrinsic Eye parameters into a reusable
+   * matrix.
+   */
+  protected Mat projectionView() {
+    if (projViewTmp == null)
+      projViewTmp = new Mat();
+    Mat.multiply(projectionMat, viewMat, projViewTmp);
+    return projViewTmp;
+  }
+
+  /**
+   * Internal use. Computes {@code inv(P x V)} from the intrinsic Eye parameters into a
+   * reusable matrix. Returns {@code null} if {@code P x V} is not invertible.
+   */
+  protected Mat projectionViewInverse() {
+    if (projViewInvTmp == null)
+      projViewInvTmp = new Mat();
+    return projectionView().invert(projViewInvTmp) ? projViewInvTmp : null;
   }
 
   public boolean unproject(float winx, float winy, float winz, float[] objCoordinate) {
@@ -1459,46 +1519,89 @@ public abstract class Eye implements Copyable {
   // cached version
   public boolean unproject(Mat projectionViewInverseMat, float winx, float winy, float winz, float[] objCoordinate) {
     if (projectionViewInverseMat == null) {
-      projectionViewInverseMat = new Mat();
-      boolean projectionViewMatHasInverse = Mat.multiply(projectionMat, viewMat).invert(projectionViewInverseMat);
-      if (projectionViewMatHasInverse)
-        return unproject(projectionViewInverseMat, winx, winy, winz, objCoordinate);
-      else
+      projectionViewInverseMat = projectionViewInverse();
+      if (projectionViewInverseMat == null)
         return false;
     }
 
     updateViewPort();
 
-    float in[] = new float[4];
-    float out[] = new float[4];
-
-    in[0] = winx;
-    in[1] = winy;
-    in[2] = winz;
-    in[3] = 1.0f;
+    /* Map x and y from window coordinates and then to range -1 to 1 */
+    float x = (winx - viewport[0]) / viewport[2] * 2 - 1;
+    float y = (winy - viewport[1]) / viewport[3] * 2 - 1;
+    float z = winz * 2 - 1;
 
-    /* Map x and y from window coordinates */
-    in[0] = (in[0] - viewport[0]) / viewport[2];
-    in[1] = (in[1] - viewport[1]) / viewport[3];
+    float[] m = projectionViewInverseMat.mat;
+    float w = m[3] * x + m[7] * y + m[11] * z + m[15];
+    if (Util.zero(w))
+      return false;
 
-    /* Map to range -1 to 1 */
-    in[0] = in[0] * 2 - 1;
-    in[1] = in[1] * 2 - 1;
-    in[2] = in[2] * 2 - 1;
+    objCoordinate[0] = (m[0] * x + m[4] * y + m[8] * z + m[12]) / w;
+    objCoordinate[1] = (m[1] * x + m[5] * y + m[9] * z + m[13]) / w;
+    objCoordinate[2] = (m[2] * x + m[6] * y + m[10] * z + m[14]) / w;
 
-    projectionViewInverseMat.multiply(in, out);
-    if (Util.zero(out[3]))
-      return false;
+    return true;
+  }
 
-    out[0] /= out[3];
-    out[1] /= out[3];
-    out[2] /= out[3];
+  /**
+   * Convenience function that simply returns {@code unproject(null, screen, world, count)}.
+   * 
+   * @see #unproject(Mat, float[], float[], int)
+   */
+  public int unproject(float[] screen, float[] world, int count) {
+    return unproject(null, screen, world, count);
+  }
 
-    objCoordinate[0] = out[0];
-    objCoordinate[1] = out[1];
-    objCoordinate[2] = out[2];
+  /**
+   * Batch version of {@link #unproject(Mat, float, float, float, float[])}. Unprojects the
+   * first {@code count} window coordinates packed in {@code screen} as
+   * {@code x0,y0,z0,x1,y1,z1,...} and stores their world coordinates in {@code world}
+   * using the same layout. {@code world} may be the same array as {@code screen}.
+   * <p>
+   * Points that cannot be unprojected have their world coordinates set to
+   * {@code Float.NaN}.
+   * <p>
+   * Pass the cached {@code projectionViewInverse} matrix (see
+   * {@link remixlab.dandelion.core.MatrixHelper#projectionViewInverse()}) when the Eye is
+   * attached to a scene, or {@code null} to compute it from the intrinsic Eye parameters.
+   * No memory is allocated either way.
+   * 
+   * @return the number of points that were actually unprojected, or 0 if
+   *         {@code projectionViewInverseMat} is null and {@code P x V} is not invertible
+   * 
+   * @see #project(Mat, float[], float[], int)
+   * @see remixlab.dandelion.core.AbstractScene#unprojectedCoordinatesOf(float[], float[], int)
+   */
+  public int unproject(Mat projectionViewInverseMat, float[] screen, float[] world, int count) {
+    if (projectionViewInverseMat == null) {
+      projectionViewInverseMat = projectionViewInverse();
+      if (projectionViewInverseMat == null)
+        return 0;
+    }
+    float[] m = projectionViewInverseMat.mat;
+    float m0 = m[0], m1 = m[1], m2 = m[2], m3 = m[3], m4 = m[4], m5 = m[5], m6 = m[6], m7 = m[7];
+    float m8 = m[8], m9 = m[9], m10 = m[10], m11 = m[11], m12 = m[12], m13 = m[13], m14 = m[14], m15 = m[15];
 
-    return true;
+    updateViewPort();
+    float vx = viewport[0], vy = viewport[1], sx = 2f / viewport[2], sy = 2f / viewport[3];
+
+    int unprojected = 0;
+    for (int i = 0, end = 3 * count; i < end; i += 3) {
+      float x = (screen[i] - vx) * sx - 1;
+      float y = (screen[i + 1] - vy) * sy - 1;
+      float z = screen[i + 2] * 2 - 1;
+      float w = m3 * x + m7 * y + m11 * z + m15;
+      if (Util.zero(w)) {
+        world[i] = world[i + 1] = world[i + 2] = Float.NaN;
+        continue;
+      }
+      float invW = 1 / w;
+      world[i] = (m0 * x + m4 * y + m8 * z + m12) * invW;
+      world[i + 1] = (m1 * x + m5 * y + m9 * z + m13) * invW;
+      world[i + 2] = (m2 * x + m6 * y + m10 * z + m14) * invW;
+      unprojected++;
+    }
+    return unprojected;
   }
 
   // 7. KEYFRAMED PATHS
@@ -1842,9 +1945,7 @@ public abstract class Eye implements Copyable {
    */
   public float[][] getBoundaryEquations() {
     if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The viewpoint boundary equations may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
+      AbstractScene.showBoundaryEquationsWarning("getBoundaryEquations");
     return fpCoefficients;
   }
 
@@ -1872,11 +1973,9 @@ public abstract class Eye implements Copyable {
    */
   public float distanceToBoundary(int index, Vec pos) {
     if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The viewpoint boundary equations (needed by distanceToBoundary) may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
-    Vec myVec = new Vec(fpCoefficients[index][0], fpCoefficients[index][1], fpCoefficients[index][2]);
-    return Vec.dot(pos, myVec) - fpCoefficients[index][3];
+      AbstractScene.showBoundaryEquationsWarning("distanceToBoundary");
+    float[] p = fpCoefficients[index];
+    return p[0] * pos.vec[0] + p[1] * pos.vec[1] + p[2] * pos.vec[2] - p[3];
   }
 
   /**
@@ -1922,6 +2021,20 @@ public abstract class Eye implements Copyable {
    */
   public abstract Visibility ballVisibility(Vec center, float radius);
 
+  /**
+   * Same as {@link #ballVisibility(Vec, float)}, but tests first the boundary plane whose
+   * index is stored in {@code planeHint[0]}. When the sphere is found to be
+   * {@link remixlab.dandelion.core.Eye.Visibility#INVISIBLE}, the index of the plane that
+   * rejected it is stored back in {@code planeHint[0]}.
+   * <p>
+   * Keep a hint per object and pass it along every frame: since objects that were culled
+   * in the previous frame are likely to be rejected by the same plane, most of them are
+   * then discarded after a single plane test. {@code planeHint} may be {@code null}.
+   * 
+   * @see #boxVisibility(Vec, Vec, int[])
+   */
+  public abstract Visibility ballVisibility(Vec center, float radius, int[] planeHint);
+
   /**
    * Returns {@link remixlab.dandelion.core.Eye.Visibility#VISIBLE},
    * {@link remixlab.dandelion.core.Eye.Visibility#INVISIBLE}, or
@@ -1945,6 +2058,58 @@ public abstract class Eye implements Copyable {
    */
   public abstract Visibility boxVisibility(Vec p1, Vec p2);
 
+  /**
+   * Same as {@link #boxVisibility(Vec, Vec)}, but tests first the boundary plane whose
+   * index is stored in {@code planeHint[0]}. When the box is found to be
+   * {@link remixlab.dandelion.core.Eye.Visibility#INVISIBLE}, the index of the plane that
+   * rejected it is stored back in {@code planeHint[0]}. {@code planeHint} may be
+   * {@code null}.
+   * 
+   * @see #ballVisibility(Vec, float, int[])
+   */
+  public abstract Visibility boxVisibility(Vec p1, Vec p2, int[] planeHint);
+
+  /**
+   * Array version of {@link #ballVisibility(Vec, float)}. Tests the first {@code count}
+   * spheres whose centers are packed in {@code centers} as {@code x0,y0,z0,x1,y1,z1,...}
+   * (the z coordinates are ignored in 2D) and whose radii are given in {@code radii}, and
+   * stores the {@link remixlab.dandelion.core.Eye.Visibility#ordinal()} of each one in
+   * {@code visibility}.
+   * <p>
+   * Meant to cull large sets of particles, instances or points at once. No memory is
+   * allocated.
+   * 
+   * @return the number of spheres which are not
+   *         {@link remixlab.dandelion.core.Eye.Visibility#INVISIBLE}
+   * 
+   * @see #boxVisibility(float[], float[], byte[], int)
+   */
+  public abstract int ballVisibility(float[] centers, float[] radii, byte[] visibility, int count);
+
+  /**
+   * Array version of {@link #boxVisibility(Vec, Vec)}. Tests the first {@code count} axis
+   * aligned boxes whose min and max corners are packed in {@code mins} and {@code maxs}
+   * as {@code x0,y0,z0,x1,y1,z1,...} (the z coordinates are ignored in 2D), and stores
+   * the {@link remixlab.dandelion.core.Eye.Visibility#ordinal()} of each one in
+   * {@code visibility}. No memory is allocated.
+   * 
+   * @return the number of boxes which are not
+   *         {@link remixlab.dandelion.core.Eye.Visibility#INVISIBLE}
+   * 
+   * @see #ballVisibility(float[], float[], byte[], int)
+   */
+  public abstract int boxVisibility(float[] mins, float[] maxs, byte[] visibility, int count);
+
+  /**
+   * Internal use. Returns the (valid) boundary plane index stored in {@code planeHint}, or
+   * 0 if there's none.
+   */
+  protected static int planeHint(int[] planeHint, int planes) {
+    if (planeHint == null || planeHint.length == 0 || planeHint[0] < 0 || planeHint[0] >= planes)
+      return 0;
+    return planeHint[0];
+  }
+
   /**
    * Returns the ratio of scene (units) to pixel at {@code position}.
    * <p>
@@ -0,0 +1,34 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+/**
+ * Interface for objects instantiating the frames of a branch built with
+ * {@link remixlab.dandelion.core.AbstractScene#buildBranch(GenericFrame, int[], FrameFactory)}
+ * . E.g., in proscene:
+ *
+ * <pre>
+ * {@code
+ * scene.buildBranch(null, parents, new FrameFactory() {
+ *   public GenericFrame create(GenericFrame parent, int index) {
+ *     return new InteractiveFrame(scene, parent);
+ *   }
+ * });
+ * }
+ * </pre>
+ */
+public interface FrameFactory {
+  /**
+   * Returns the {@code index}-th frame of the branch, which should have {@code parent} as
+   * its {@link remixlab.dandelion.core.GenericFrame#referenceFrame()}.
+   */
+  public GenericFrame create(GenericFrame parent, int index);
+}
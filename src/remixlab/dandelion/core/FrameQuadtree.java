@@ -0,0 +1,363 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import remixlab.dandelion.geom.*;
+
+/**
+ * A loose quadtree of 2D frame bounds (a disc of given radius centered at each frame
+ * {@link remixlab.dandelion.geom.Frame#position()}), meant to cull and pick large sets of
+ * frames in 2D scenes.
+ * <p>
+ * Each node covers a square region, but the frames it holds may overflow it up to half
+ * its size (hence 'loose'), so that a frame is always stored at the depth matching its
+ * size and only its center determines its node. Moving a frame then only requires
+ * re-inserting it when its center leaves its node, which {@link #update()} does
+ * incrementally for the frames modified since the last call.
+ * <p>
+ * Query the frames visible by a {@link remixlab.dandelion.core.Window} with
+ * {@link #query(Window, List)}, and the ones under a given point or within a given
+ * rectangle with {@link #query(float, float, List)} and
+ * {@link #query(float, float, float, float, List)}, respectively.
+ */
+public class FrameQuadtree {
+  /**
+   * A quadtree node. Its region is the square of half size {@code h} centered at
+   * ({@code x}, {@code y}), and its loose region is twice as large.
+   */
+  protected class Node {
+    protected float x, y, h;
+    protected int depth;
+    protected Node parent;
+    protected Node[] children;
+    protected List<Entry> entries = new ArrayList<Entry>();
+    // number of entries held by the node and its descendants
+    protected int count;
+
+    protected Node(Node parent, float x, float y, float h) {
+      this.parent = parent;
+      this.x = x;
+      this.y = y;
+      this.h = h;
+      this.depth = parent == null ? 0 : parent.depth + 1;
+    }
+
+    protected Node child(int quadrant) {
+      if (children == null)
+        children = new Node[4];
+      if (children[quadrant] == null) {
+        float hh = h / 2;
+        children[quadrant] = new Node(this, x + ((quadrant & 1) != 0 ? hh : -hh), y + ((quadrant & 2) != 0 ? hh : -hh),
+            hh);
+      }
+      return children[quadrant];
+    }
+  }
+
+  /**
+   * A frame held by the tree, together with its cached bounds.
+   */
+  protected class Entry {
+    protected GenericFrame frame;
+    protected float radius, x, y, r;
+    protected Node node;
+    // whether the entry is in the dirty list
+    protected boolean dirty;
+
+    protected Entry(GenericFrame frame, float radius) {
+      this.frame = frame;
+      this.radius = radius;
+    }
+  }
+
+  protected Node root;
+  protected int maxDepth;
+  protected IdentityHashMap<GenericFrame, Entry> entryMap;
+  // entries of the frames modified since the last update()
+  protected List<Entry> dirtyList = new ArrayList<Entry>();
+  protected Vec position = new Vec();
+
+  /**
+   * Same as {@code this(x, y, halfSize, 8)}.
+   */
+  public FrameQuadtree(float x, float y, float halfSize) {
+    this(x, y, halfSize, 8);
+  }
+
+  /**
+   * Creates an empty tree whose root covers the square of half size {@code halfSize}
+   * centered at ({@code x}, {@code y}), with at most {@code maxDepth} levels below the
+   * root. Frames lying outside the root region are kept (and always tested) at the root.
+   */
+  public FrameQuadtree(float x, float y, float halfSize, int maxDepth) {
+    root = new Node(null, x, y, halfSize);
+    this.maxDepth = maxDepth;
+    entryMap = new IdentityHashMap<GenericFrame, Entry>();
+  }
+
+  /**
+   * Returns the number of frames held by the tree.
+   */
+  public int size() {
+    return entryMap.size();
+  }
+
+  /**
+   * Returns {@code true} if the tree holds {@code frame}.
+   */
+  public boolean contains(GenericFrame frame) {
+    return entryMap.containsKey(frame);
+  }
+
+  /**
+   * Adds {@code frame} to the tree, bounded by a disc of the given {@code radius} (in the
+   * frame coordinate system) centered at the frame origin. If the frame was already added
+   * its radius is updated.
+   */
+  public void add(GenericFrame frame, float radius) {
+    Entry entry = entryMap.get(frame);
+    if (entry == null) {
+      entry = new Entry(frame, radius);
+      entryMap.put(frame, entry);
+      if (frame.quadtrees == null)
+        frame.quadtrees = new ArrayList<FrameQuadtree>(1);
+      frame.quadtrees.add(this);
+    } else
+      entry.radius = radius;
+    relocate(entry);
+  }
+
+  /**
+   * Removes {@code frame} from the tree. Returns {@code true} if succeeded and
+   * {@code false} otherwise.
+   */
+  public boolean remove(GenericFrame frame) {
+    Entry entry = entryMap.remove(frame);
+    if (entry == null)
+      return false;
+    frame.quadtrees.remove(this);
+    detach(entry);
+    return true;
+  }
+
+  /**
+   * Removes all frames from the tree.
+   */
+  public void clear() {
+    for (GenericFrame frame : entryMap.keySet())
+      frame.quadtrees.remove(this);
+    entryMap.clear();
+    dirtyList.clear();
+    root = new Node(null, root.x, root.y, root.h);
+  }
+
+  /**
+   * Updates the position of the frames that have been modified since the last call, which
+   * {@link remixlab.dandelion.core.GenericFrame#modified()} reports to the tree, so that
+   * the cost is proportional to the number of modified frames. Call it once per frame,
+   * before querying the tree.
+   */
+  public void update() {
+    for (int i = 0; i < dirtyList.size(); i++) {
+      Entry entry = dirtyList.get(i);
+      entry.dirty = false;
+      // skip the frames removed since they were modified
+      if (entryMap.get(entry.frame) == entry)
+        relocate(entry);
+    }
+    dirtyList.clear();
+  }
+
+  /**
+   * Same as {@link #update()} but for the given {@code frame} only.
+   */
+  public void update(GenericFrame frame) {
+    Entry entry = entryMap.get(frame);
+    if (entry != null)
+      relocate(entry);
+  }
+
+  /**
+   * Adds to {@code result} the frames whose bounds intersect (or may intersect, since the
+   * test is conservative) the boundary of the given {@code window}, and returns it.
+   * <p>
+   * <b>Attention:</b> The window boundary equations should be updated (see
+   * {@link remixlab.dandelion.core.AbstractScene#enableBoundaryEquations()}).
+   */
+  public List<GenericFrame> query(Window window, List<GenericFrame> result) {
+    if (!window.scene().areBoundaryEquationsEnabled())
+      AbstractScene.showBoundaryEquationsWarning("query");
+    queryWindow(root, window.fpCoefficients, result);
+    return result;
+  }
+
+  /**
+   * Adds to {@code result} the frames whose bounds intersect the rectangle defined by
+   * ({@code minx}, {@code miny}) and ({@code maxx}, {@code maxy}), and returns it.
+   */
+  public List<GenericFrame> query(float minx, float miny, float maxx, float maxy, List<GenericFrame> result) {
+    queryRect(root, minx, miny, maxx, maxy, result);
+    return result;
+  }
+
+  /**
+   * Adds to {@code result} the frames whose bounds contain the point ({@code x},
+   * {@code y}) (e.g., the world coordinates of the pointer, see
+   * {@link remixlab.dandelion.core.Eye#unprojectedCoordinatesOf(Vec)}), and returns it.
+   */
+  public List<GenericFrame> query(float x, float y, List<GenericFrame> result) {
+    queryPoint(root, x, y, result);
+    return result;
+  }
+
+  // 1. tree maintenance
+
+  /**
+   * Internal use. Called by {@link remixlab.dandelion.core.GenericFrame#modified()} to
+   * schedule the frame relocation for the next {@link #update()}.
+   */
+  protected void modified(GenericFrame frame) {
+    Entry entry = entryMap.get(frame);
+    if (entry != null && !entry.dirty) {
+      entry.dirty = true;
+      dirtyList.add(entry);
+    }
+  }
+
+  protected void relocate(Entry entry) {
+    GenericFrame frame = entry.frame;
+    frame.position(position);
+    entry.x = position.x();
+    entry.y = position.y();
+    entry.r = entry.radius * frame.magnitude();
+    Node target = target(entry);
+    if (target == entry.node)
+      return;
+    detach(entry);
+    entry.node = target;
+    target.entries.add(entry);
+    for (Node node = target; node != null; node = node.parent)
+      node.count++;
+  }
+
+  protected void detach(Entry entry) {
+    Node target = entry.node;
+    if (target == null)
+      return;
+    target.entries.remove(entry);
+    for (Node node = target; node != null; node = node.parent)
+      node.count--;
+    entry.node = null;
+  }
+
+  /**
+   * Returns the deepest node whose region contains the entry center and whose half size
+   * is not smaller than the entry radius, i.e., whose loose region contains the entry.
+   */
+  protected Node target(Entry entry) {
+    Node node = root;
+    if (Math.abs(entry.x - root.x) > root.h || Math.abs(entry.y - root.y) > root.h)
+      return node;
+    while (node.depth < maxDepth && entry.r <= node.h / 2)
+      node = node.child(quadrant(node, entry.x, entry.y));
+    return node;
+  }
+
+  protected int quadrant(Node node, float x, float y) {
+    return (x >= node.x ? 1 : 0) | (y >= node.y ? 2 : 0);
+  }
+
+  // 2. queries
+
+  protected void queryWindow(Node node, float[][] lines, List<GenericFrame> result) {
+    if (node.count == 0)
+      return;
+    // the node loose region
+    float lh = 2 * node.h;
+    float minx = node.x - lh, maxx = node.x + lh, miny = node.y - lh, maxy = node.y + lh;
+    boolean allIn = node != root;
+    if (node != root)
+      for (int i = 0; i < 4; ++i) {
+        float[] l = lines[i];
+        if (l[0] * (l[0] > 0 ? minx : maxx) + l[1] * (l[1] > 0 ? miny : maxy) + l[2] > 0)
+          return;
+        if (allIn && l[0] * (l[0] > 0 ? maxx : minx) + l[1] * (l[1] > 0 ? maxy : miny) + l[2] > 0)
+          allIn = false;
+      }
+    if (allIn) {
+      collect(node, result);
+      return;
+    }
+    for (Entry entry : node.entries)
+      if (isVisible(lines, entry))
+        result.add(entry.frame);
+    if (node.children != null)
+      for (Node child : node.children)
+        if (child != null)
+          queryWindow(child, lines, result);
+  }
+
+  protected boolean isVisible(float[][] lines, Entry entry) {
+    for (int i = 0; i < 4; ++i)
+      if (Window.distanceToBoundary(lines[i], entry.x, entry.y) > entry.r)
+        return false;
+    return true;
+  }
+
+  protected void queryRect(Node node, float minx, float miny, float maxx, float maxy, List<GenericFrame> result) {
+    if (node.count == 0)
+      return;
+    float lh = 2 * node.h;
+    if (node != root
+        && (node.x - lh > maxx || node.x + lh < minx || node.y - lh > maxy || node.y + lh < miny))
+      return;
+    for (Entry entry : node.entries)
+      if (entry.x + entry.r >= minx && entry.x - entry.r <= maxx && entry.y + entry.r >= miny
+          && entry.y - entry.r <= maxy)
+        result.add(entry.frame);
+    if (node.children != null)
+      for (Node child : node.children)
+        if (child != null)
+          queryRect(child, minx, miny, maxx, maxy, result);
+  }
+
+  protected void queryPoint(Node node, float x, float y, List<GenericFrame> result) {
+    if (node.count == 0)
+      return;
+    float lh = 2 * node.h;
+    if (node != root && (Math.abs(x - node.x) > lh || Math.abs(y - node.y) > lh))
+      return;
+    for (Entry entry : node.entries) {
+      float dx = x - entry.x, dy = y - entry.y;
+      if (dx * dx + dy * dy <= entry.r * entry.r)
+        result.add(entry.frame);
+    }
+    if (node.children != null)
+      for (Node child : node.children)
+        if (child != null)
+          queryPoint(child, x, y, result);
+  }
+
+  protected void collect(Node node, List<GenericFrame> result) {
+    if (node.count == 0)
+      return;
+    for (Entry entry : node.entries)
+      result.add(entry.frame);
+    if (node.children != null)
+      for (Node child : node.children)
+        if (child != null)
+          collect(child, result);
+  }
+}
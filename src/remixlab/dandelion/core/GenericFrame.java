@@ -123,7 +123,8 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
 
   // spinning stuff:
   private float spngSensitivity;
-  private TimingTask spinningTimerTask;
+  // created on demand, and released once stopped (may be stopped by a timer thread)
+  private volatile TimingTask spinningTimerTask;
   private Rotation spngRotation;
   protected float dampFriction; // new
   // toss and spin share the damp var:
@@ -139,12 +140,14 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
 
   protected Vec fDir;
   protected float flySpd;
-  protected TimingTask flyTimerTask;
+  protected volatile TimingTask flyTimerTask;
   protected Vec scnUpVec;
   protected Vec flyDisp;
   protected static final long FLY_UPDATE_PERDIOD = 20;
 
   protected long lastUpdate;
+  // trees holding the frame, notified by modified()
+  protected List<FrameQuadtree> quadtrees;
   protected AbstractScene gScene;
   protected Eye theeye; // TODO add me in hashCode and equals?
 
@@ -531,8 +534,14 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     gScene = scn;
     childrenList = new ArrayList<GenericFrame>();
     // scene().addLeadingFrame(this);
-    // TODO testing
-    setReferenceFrame(referenceFrame());// restorePath seems more robust
+    // same as setReferenceFrame(referenceFrame()), but a new frame can't be a child of its
+    // reference frame yet, so that it isn't looked up among its siblings
+    if (referenceFrame() == null)
+      scene().addLeadingFrame(this);
+    else {
+      referenceFrame().children().add(this);
+      restorePath(referenceFrame().referenceFrame(), referenceFrame());
+    }
     setRotationSensitivity(1.0f);
     setScalingSensitivity(1.0f);
     setTranslationSensitivity(1.0f);
@@ -542,21 +551,9 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     setSpinningSensitivity(0.3f);
     setDamping(0.5f);
 
-    spinningTimerTask = new TimingTask() {
-      public void execute() {
-        spinExecution();
-      }
-    };
-    scene().registerTimingTask(spinningTimerTask);
-
+    // the spinning and flying timing tasks are created on demand
     scnUpVec = new Vec(0.0f, 1.0f, 0.0f);
     flyDisp = new Vec(0.0f, 0.0f, 0.0f);
-    flyTimerTask = new TimingTask() {
-      public void execute() {
-        fly();
-      }
-    };
-    scene().registerTimingTask(flyTimerTask);
     // end
 
     // TODO experimental
@@ -572,24 +569,10 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     this.childrenList = new ArrayList<GenericFrame>();
     this.setReferenceFrame(referenceFrame());// restorePath
 
-    this.spinningTimerTask = new TimingTask() {
-      public void execute() {
-        spinExecution();
-      }
-    };
-
-    this.gScene.registerTimingTask(spinningTimerTask);
-
     this.scnUpVec = new Vec();
     this.scnUpVec.set(otherFrame.sceneUpVector());
     this.flyDisp = new Vec();
     this.flyDisp.set(otherFrame.flyDisp.get());
-    this.flyTimerTask = new TimingTask() {
-      public void execute() {
-        fly();
-      }
-    };
-    this.gScene.registerTimingTask(flyTimerTask);
     lastUpdate = otherFrame.lastUpdate();
     // end
     // this.isInCamPath = otherFrame.isInCamPath;
@@ -807,26 +790,31 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
 
   @Override
   public boolean checkIfGrabsInput(BogusEvent event) {
-    if (event instanceof KeyboardEvent)
+    switch (event.type()) {
+    case BogusEvent.KEYBOARD_EVENT:
       return checkIfGrabsInput((KeyboardEvent) event);
-    if (event instanceof ClickEvent)
+    case BogusEvent.CLICK_EVENT:
       return checkIfGrabsInput((ClickEvent) event);
-    if (event instanceof MotionEvent)
+    case BogusEvent.BOGUS_EVENT:
+      return false;
+    default:
       return checkIfGrabsInput((MotionEvent) event);
-    return false;
+    }
   }
 
   public boolean checkIfGrabsInput(MotionEvent event) {
     if (isEyeFrame())
       return false;
-    if (event instanceof DOF1Event)
-      return checkIfGrabsInput((DOF1Event) event);
-    if (event instanceof DOF2Event)
+    switch (event.type()) {
+    case BogusEvent.DOF2_EVENT:
       return checkIfGrabsInput((DOF2Event) event);
-    if (event instanceof DOF3Event)
+    case BogusEvent.DOF1_EVENT:
+      return checkIfGrabsInput((DOF1Event) event);
+    case BogusEvent.DOF3_EVENT:
       return checkIfGrabsInput((DOF3Event) event);
-    if (event instanceof DOF6Event)
+    case BogusEvent.DOF6_EVENT:
       return checkIfGrabsInput((DOF6Event) event);
+    }
     return false;
   }
 
@@ -880,12 +868,19 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
 
   @Override
   public void performInteraction(BogusEvent event) {
-    if (event instanceof ClickEvent)
+    // dispatched on the event type tag, so that the call sites remain monomorphic
+    switch (event.type()) {
+    case BogusEvent.KEYBOARD_EVENT:
+      performInteraction((KeyboardEvent) event);
+      break;
+    case BogusEvent.CLICK_EVENT:
       performInteraction((ClickEvent) event);
-    if (event instanceof MotionEvent)
+      break;
+    case BogusEvent.BOGUS_EVENT:
+      break;
+    default:
       performInteraction((MotionEvent) event);
-    if (event instanceof KeyboardEvent)
-      performInteraction((KeyboardEvent) event);
+    }
   }
 
   /**
@@ -897,14 +892,20 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
    * {@link remixlab.bias.event.MotionEvent}.
    */
   protected void performInteraction(MotionEvent event) {
-    if (event instanceof DOF1Event)
-      performInteraction((DOF1Event) event);
-    if (event instanceof DOF2Event)
+    switch (event.type()) {
+    case BogusEvent.DOF2_EVENT:
       performInteraction((DOF2Event) event);
-    if (event instanceof DOF3Event)
+      break;
+    case BogusEvent.DOF1_EVENT:
+      performInteraction((DOF1Event) event);
+      break;
+    case BogusEvent.DOF3_EVENT:
       performInteraction((DOF3Event) event);
-    if (event instanceof DOF6Event)
+      break;
+    case BogusEvent.DOF6_EVENT:
       performInteraction((DOF6Event) event);
+      break;
+    }
   }
 
   /**
@@ -1035,8 +1036,14 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
    */
   @Override
   protected void modified() {
-    if (gScene != null)
+    if (gScene != null) {
       lastUpdate = gScene.frameCount();
+      if (gScene.inputHandler() != null)
+        gScene.inputHandler().invalidateTracking();
+    }
+    if (quadtrees != null)
+      for (int i = 0; i < quadtrees.size(); i++)
+        quadtrees.get(i).modified(this);
     if (children() != null)
       for (GenericFrame child : children())
         child.modified();
@@ -1308,7 +1315,8 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
    * @see #isFlying()
    */
   public final boolean isSpinning() {
-    return spinningTimerTask.isActive();
+    TimingTask task = spinningTimerTask;
+    return task != null && task.isActive();
   }
 
   /**
@@ -1343,7 +1351,8 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
 
   /**
    * Stops the spinning motion started using {@link #startSpinning(MotionEvent, Rotation)}
-   * . {@link #isSpinning()} will return {@code false} after this call.
+   * . {@link #isSpinning()} will return {@code false} after this call, and the spinning
+   * timing task is unregistered from the scene.
    * <p>
    * <b>Attention: </b>This method may be called by {@link #spin()}, since spinning may be
    * decelerated according to {@link #damping()} till it stops completely.
@@ -1351,7 +1360,15 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
    * @see #damping()
    */
   public final void stopSpinning() {
-    spinningTimerTask.stop();
+    // the timing handler lock guards the task, see startSpinning(Rotation, float, long)
+    synchronized (gScene.timingHandler()) {
+      TimingTask task = spinningTimerTask;
+      if (task == null)
+        return;
+      spinningTimerTask = null;
+      task.stop();
+      gScene.unregisterTimingTask(task);
+    }
   }
 
   /**
@@ -1369,7 +1386,8 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
    * <p>
    * This method starts a timer that will call {@link #spin()} every
    * {@code updateInterval} milliseconds. The generic-frame {@link #isSpinning()} until
-   * you call {@link #stopSpinning()}.
+   * you call {@link #stopSpinning()}. The timing task is registered at the scene the first
+   * time the frame spins (after being stopped).
    * <p>
    * <b>Attention: </b>Spinning may be decelerated according to {@link #damping()} till it
    * stops completely.
@@ -1384,8 +1402,26 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
     if (Util.zero(damping()) && eventSpeed < spinningSensitivity())
       return;
     int updateInterval = (int) delay;
-    if (updateInterval > 0)
-      spinningTimerTask.run(updateInterval);
+    if (updateInterval > 0) {
+      // damping may stop spinning from a multi-threaded timer meanwhile
+      synchronized (gScene.timingHandler()) {
+        TimingTask task = spinningTimerTask;
+        if (task == null) {
+          task = new TimingTask() {
+            public void execute() {
+              // a task released concurrently (see stopSpinning()) stops itself
+              if (spinningTimerTask != this)
+                stop();
+              else
+                spinExecution();
+            }
+          };
+          gScene.registerTimingTask(task);
+          spinningTimerTask = task;
+        }
+        task.run(updateInterval);
+      }
+    }
   }
 
   /**
@@ -1569,7 +1605,7 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
   }
 
   protected boolean wheel(MotionEvent event) {
-    return event instanceof DOF1Event;
+    return event.type() == BogusEvent.DOF1_EVENT;
   }
 
   //
@@ -2783,12 +2819,14 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
    * {@link #isSpinning()}
    */
   public final boolean isFlying() {
-    return flyTimerTask.isActive();
+    TimingTask task = flyTimerTask;
+    return task != null && task.isActive();
   }
 
   /**
    * Stops the tossing motion started using {@link #startFlying(MotionEvent, Vec)}.
-   * {@link #isFlying()} will return {@code false} after this call.
+   * {@link #isFlying()} will return {@code false} after this call, and the flying timing
+   * task is unregistered from the scene.
    * <p>
    * <b>Attention: </b>This method may be called by {@link #damping()}, since tossing may
    * be decelerated according to {@link #damping()} till it stops completely.
@@ -2797,7 +2835,15 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
    * @see #spin()
    */
   public final void stopFlying() {
-    flyTimerTask.stop();
+    // the timing handler lock guards the task, see startFlying(Vec, float)
+    synchronized (gScene.timingHandler()) {
+      TimingTask task = flyTimerTask;
+      if (task == null)
+        return;
+      flyTimerTask = null;
+      task.stop();
+      gScene.unregisterTimingTask(task);
+    }
   }
 
   /**
@@ -2840,7 +2886,8 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
    * <p>
    * This method starts a timer that will call {@link #damping()} every FLY_UPDATE_PERDIOD
    * milliseconds. The generic-frame {@link #isFlying()} until you call
-   * {@link #stopFlying()}.
+   * {@link #stopFlying()}. The timing task is registered at the scene the first time the
+   * frame flies (after being stopped).
    * <p>
    * <b>Attention: </b>Tossing may be decelerated according to {@link #damping()} till it
    * stops completely.
@@ -2853,7 +2900,24 @@ public class GenericFrame extends Frame implements Grabber, Trackable {
   public void startFlying(Vec direction, float speed) {
     eventSpeed = speed;
     setFlyDirection(direction);
-    flyTimerTask.run(FLY_UPDATE_PERDIOD);
+    // damping may stop flying from a multi-threaded timer meanwhile
+    synchronized (gScene.timingHandler()) {
+      TimingTask task = flyTimerTask;
+      if (task == null) {
+        task = new TimingTask() {
+          public void execute() {
+            // a task released concurrently (see stopFlying()) stops itself
+            if (flyTimerTask != this)
+              stop();
+            else
+              fly();
+          }
+        };
+        gScene.registerTimingTask(task);
+        flyTimerTask = task;
+      }
+      task.run(FLY_UPDATE_PERDIOD);
+    }
   }
 
   /**
@@ -0,0 +1,435 @@
+/**************************************************************************************
+ * dandelion_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.dandelion.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import remixlab.dandelion.geom.*;
+
+/**
+ * Software occlusion culling stage. Occluder meshes attached to frames (see
+ * {@link #addOccluder(GenericFrame, float[], int[])}) are rasterized from the
+ * {@link #eye()} point of view into a low resolution depth buffer, from which a
+ * hierarchical (min/max) depth pyramid is built. The bounding boxes of the occludees
+ * (see {@link #addOccludee(GenericFrame, Vec, Vec)}) are then tested against it.
+ * <p>
+ * Everything is computed on the CPU (so it may run without any rendering context), and
+ * the rasterization is split in tiles that may be processed in parallel (see
+ * {@link #setThreads(int)}). Triangles are binned into the tiles they overlap, so that
+ * each tile only rasterizes its own.
+ * <p>
+ * Call {@link #update()} once per frame, after the eye has been set up (e.g., right after
+ * {@link remixlab.dandelion.core.AbstractScene#preDraw()}), and set the culler on the
+ * scene (see {@link remixlab.dandelion.core.AbstractScene#setOcclusionCuller(OcclusionCuller)})
+ * so that {@link remixlab.dandelion.core.AbstractScene#traverseGraph()} skips the visit of
+ * the occluded frames. Frames not added as occludees are never culled.
+ */
+public class OcclusionCuller {
+  protected static final int TILE = 32;
+
+  protected class Occluder {
+    protected GenericFrame frame;
+    protected float[] vertices;
+    protected int[] triangles;
+
+    protected Occluder(GenericFrame frame, float[] vertices, int[] triangles) {
+      this.frame = frame;
+      this.vertices = vertices;
+      this.triangles = triangles;
+    }
+  }
+
+  protected class Occludee {
+    protected Vec min, max;
+    protected boolean occluded;
+
+    protected Occludee(Vec min, Vec max) {
+      this.min = min;
+      this.max = max;
+    }
+  }
+
+  protected Eye eye;
+  protected int width, height, tilesX, tilesY;
+  protected List<Occluder> occluders;
+  protected IdentityHashMap<GenericFrame, Occludee> occludees;
+
+  // screen space triangles: x0,y0,z0,x1,y1,z1,x2,y2,z2 each
+  protected float[] tris;
+  protected int triCount;
+  // per tile triangle bins: tile t holds binTris[binStart[t]] to binTris[binStart[t + 1] - 1]
+  protected int[] binStart, binNext, binTris;
+  // tile range of the triangle being binned: minx, miny, maxx, maxy
+  protected int[] binRange = new int[4];
+  // depth pyramids, level 0 being the depth buffer
+  protected float[][] maxDepth, minDepth;
+  protected int[] levelWidth, levelHeight;
+  protected Mat mvp = new Mat();
+
+  protected int threads;
+  protected ExecutorService executor;
+  protected List<Callable<Object>> tileTasks;
+
+  /**
+   * Creates an occlusion culler for the given {@code eye}, using a depth buffer of
+   * {@code width} x {@code height} pixels. Low resolutions (e.g., 256x128) are usually
+   * enough.
+   */
+  public OcclusionCuller(Eye eye, int width, int height) {
+    this.eye = eye;
+    this.width = width;
+    this.height = height;
+    tilesX = (width + TILE - 1) / TILE;
+    tilesY = (height + TILE - 1) / TILE;
+    occluders = new ArrayList<Occluder>();
+    occludees = new IdentityHashMap<GenericFrame, Occludee>();
+    tris = new float[9 * 64];
+    binStart = new int[tilesX * tilesY + 1];
+    binNext = new int[tilesX * tilesY];
+    binTris = new int[64];
+    int levels = 1;
+    for (int s = Math.max(width, height); s > 1; s = (s + 1) / 2)
+      levels++;
+    maxDepth = new float[levels][];
+    minDepth = new float[levels][];
+    levelWidth = new int[levels];
+    levelHeight = new int[levels];
+    for (int l = 0, w = width, h = height; l < levels; l++, w = (w + 1) / 2, h = (h + 1) / 2) {
+      levelWidth[l] = w;
+      levelHeight[l] = h;
+      maxDepth[l] = new float[w * h];
+      minDepth[l] = l == 0 ? maxDepth[0] : new float[w * h];
+    }
+    threads = 1;
+  }
+
+  /**
+   * Returns the eye whose point of view is used to rasterize the occluders.
+   */
+  public Eye eye() {
+    return eye;
+  }
+
+  /**
+   * Adds an occluder mesh attached to {@code frame}. {@code vertices} are packed as
+   * {@code x0,y0,z0,x1,y1,z1,...} in the {@code frame} coordinate system and
+   * {@code triangles} holds three vertex indices per triangle. Occluders should be
+   * simple, and lie inside the geometry they represent.
+   */
+  public void addOccluder(GenericFrame frame, float[] vertices, int[] triangles) {
+    occluders.add(new Occluder(frame, vertices, triangles));
+  }
+
+  /**
+   * Removes all occluder meshes attached to {@code frame}.
+   */
+  public void removeOccluders(GenericFrame frame) {
+    for (int i = occluders.size() - 1; i >= 0; i--)
+      if (occluders.get(i).frame == frame)
+        occluders.remove(i);
+  }
+
+  /**
+   * Adds {@code frame} as an occludee bounded by the axis aligned box defined by
+   * {@code min} and {@code max} (in the {@code frame} coordinate system). If the frame was
+   * already added its box is updated.
+   */
+  public void addOccludee(GenericFrame frame, Vec min, Vec max) {
+    occludees.put(frame, new Occludee(min.get(), max.get()));
+  }
+
+  /**
+   * Removes {@code frame} from the occludees.
+   */
+  public boolean removeOccludee(GenericFrame frame) {
+    return occludees.remove(frame) != null;
+  }
+
+  /**
+   * Returns {@code true} if the {@code frame} occludee was found to be hidden by the
+   * occluders in the last {@link #update()}.
+   */
+  public boolean isOccluded(GenericFrame frame) {
+    Occludee occludee = occludees.get(frame);
+    return occludee != null && occludee.occluded;
+  }
+
+  /**
+   * Returns the number of threads used to rasterize the occluders.
+   */
+  public int threads() {
+    return threads;
+  }
+
+  /**
+   * Sets the number of threads used to rasterize the occluder tiles. Use 1 (the default)
+   * to rasterize them in the calling thread.
+   */
+  public void setThreads(int n) {
+    n = Math.max(1, n);
+    if (n == threads)
+      return;
+    dispose();
+    threads = n;
+  }
+
+  /**
+   * Stops the rasterizer threads (if any). They are restarted by the next
+   * {@link #update()}, if needed.
+   */
+  public void dispose() {
+    if (executor != null)
+      executor.shutdown();
+    executor = null;
+  }
+
+  /**
+   * Rasterizes the occluders, builds the depth pyramid and tests the occludees against
+   * it.
+   */
+  public void update() {
+    Mat projView = eye.projectionView();
+    // 1. occluders to screen space
+    triCount = 0;
+    for (Occluder occluder : occluders) {
+      Mat.multiply(projView, occluder.frame.worldMatrix(), mvp);
+      setupTriangles(occluder);
+    }
+    binTriangles();
+    // 2. rasterization
+    Arrays.fill(maxDepth[0], 1);
+    if (threads == 1 || tilesX * tilesY == 1)
+      for (int t = 0; t < tilesX * tilesY; t++)
+        rasterizeTile(t);
+    else {
+      if (executor == null)
+        startExecutor();
+      try {
+        executor.invokeAll(tileTasks);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    // 3. pyramid
+    for (int l = 1; l < maxDepth.length; l++)
+      buildLevel(l);
+    // 4. occludees
+    for (Map.Entry<GenericFrame, Occludee> entry : occludees.entrySet()) {
+      Mat.multiply(projView, entry.getKey().worldMatrix(), mvp);
+      entry.getValue().occluded = isBoxOccluded(entry.getValue().min, entry.getValue().max);
+    }
+  }
+
+  protected void startExecutor() {
+    executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "OcclusionCuller");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    tileTasks = new ArrayList<Callable<Object>>();
+    // one task per tile row keeps the tasks coarse enough
+    for (int ty = 0; ty < tilesY; ty++) {
+      final int row = ty;
+      tileTasks.add(new Callable<Object>() {
+        @Override
+        public Object call() {
+          for (int tx = 0; tx < tilesX; tx++)
+            rasterizeTile(row * tilesX + tx);
+          return null;
+        }
+      });
+    }
+  }
+
+  protected void setupTriangles(Occluder occluder) {
+    float[] m = mvp.mat;
+    float[] v = occluder.vertices;
+    int[] t = occluder.triangles;
+    if (tris.length < 9 * (triCount + t.length / 3)) {
+      float[] newTris = new float[Math.max(2 * tris.length, 9 * (triCount + t.length / 3))];
+      System.arraycopy(tris, 0, newTris, 0, 9 * triCount);
+      tris = newTris;
+    }
+    for (int i = 0; i + 2 < t.length; i += 3) {
+      int base = 9 * triCount;
+      boolean clipped = false;
+      for (int k = 0; k < 3 && !clipped; k++) {
+        int j = 3 * t[i + k];
+        float x = v[j], y = v[j + 1], z = v[j + 2];
+        float w = m[3] * x + m[7] * y + m[11] * z + m[15];
+        // triangles crossing the near plane are simply skipped, which is conservative
+        if (w <= 1e-6f) {
+          clipped = true;
+          break;
+        }
+        tris[base + 3 * k] = ((m[0] * x + m[4] * y + m[8] * z + m[12]) / w * 0.5f + 0.5f) * width;
+        tris[base + 3 * k + 1] = ((m[1] * x + m[5] * y + m[9] * z + m[13]) / w * 0.5f + 0.5f) * height;
+        tris[base + 3 * k + 2] = (m[2] * x + m[6] * y + m[10] * z + m[14]) / w * 0.5f + 0.5f;
+      }
+      if (!clipped)
+        triCount++;
+    }
+  }
+
+  /**
+   * Sorts the screen space triangles into the bins of the tiles overlapped by their
+   * bounding boxes (a triangle may thus belong to several bins).
+   */
+  protected void binTriangles() {
+    int tiles = tilesX * tilesY;
+    Arrays.fill(binStart, 0);
+    // 1. count the triangles of each tile (shifted by one)
+    for (int i = 0; i < triCount; i++)
+      if (tileRange(i))
+        for (int ty = binRange[1]; ty <= binRange[3]; ty++)
+          for (int tx = binRange[0]; tx <= binRange[2]; tx++)
+            binStart[ty * tilesX + tx + 1]++;
+    // 2. bin offsets
+    for (int t = 0; t < tiles; t++) {
+      binStart[t + 1] += binStart[t];
+      binNext[t] = binStart[t];
+    }
+    if (binTris.length < binStart[tiles])
+      binTris = new int[Math.max(2 * binTris.length, binStart[tiles])];
+    // 3. fill the bins, preserving the triangle order
+    for (int i = 0; i < triCount; i++)
+      if (tileRange(i))
+        for (int ty = binRange[1]; ty <= binRange[3]; ty++)
+          for (int tx = binRange[0]; tx <= binRange[2]; tx++)
+            binTris[binNext[ty * tilesX + tx]++] = i;
+  }
+
+  /**
+   * Computes the range of tiles overlapped by the bounding box of the {@code i}-th
+   * triangle into {@code binRange}. Returns {@code false} if the triangle is off screen.
+   */
+  protected boolean tileRange(int i) {
+    int b = 9 * i;
+    int minx = Math.max(0, (int) Math.floor(Math.min(tris[b], Math.min(tris[b + 3], tris[b + 6]))));
+    int maxx = Math.min(width - 1, (int) Math.ceil(Math.max(tris[b], Math.max(tris[b + 3], tris[b + 6]))));
+    int miny = Math.max(0, (int) Math.floor(Math.min(tris[b + 1], Math.min(tris[b + 4], tris[b + 7]))));
+    int maxy = Math.min(height - 1, (int) Math.ceil(Math.max(tris[b + 1], Math.max(tris[b + 4], tris[b + 7]))));
+    if (minx > maxx || miny > maxy)
+      return false;
+    binRange[0] = minx / TILE;
+    binRange[1] = miny / TILE;
+    binRange[2] = maxx / TILE;
+    binRange[3] = maxy / TILE;
+    return true;
+  }
+
+  protected void rasterizeTile(int tile) {
+    int tx0 = (tile % tilesX) * TILE, ty0 = (tile / tilesX) * TILE;
+    int tx1 = Math.min(tx0 + TILE, width), ty1 = Math.min(ty0 + TILE, height);
+    float[] depth = maxDepth[0];
+    for (int n = binStart[tile]; n < binStart[tile + 1]; n++) {
+      int b = 9 * binTris[n];
+      float x0 = tris[b], y0 = tris[b + 1], z0 = tris[b + 2];
+      float x1 = tris[b + 3], y1 = tris[b + 4], z1 = tris[b + 5];
+      float x2 = tris[b + 6], y2 = tris[b + 7], z2 = tris[b + 8];
+      int minx = Math.max(tx0, (int) Math.floor(Math.min(x0, Math.min(x1, x2))));
+      int maxx = Math.min(tx1 - 1, (int) Math.ceil(Math.max(x0, Math.max(x1, x2))));
+      int miny = Math.max(ty0, (int) Math.floor(Math.min(y0, Math.min(y1, y2))));
+      int maxy = Math.min(ty1 - 1, (int) Math.ceil(Math.max(y0, Math.max(y1, y2))));
+      if (minx > maxx || miny > maxy)
+        continue;
+      float area = (x1 - x0) * (y2 - y0) - (y1 - y0) * (x2 - x0);
+      if (area == 0)
+        continue;
+      float inv = 1 / area;
+      for (int py = miny; py <= maxy; py++) {
+        float sy = py + 0.5f;
+        for (int px = minx; px <= maxx; px++) {
+          float sx = px + 0.5f;
+          float w0 = ((x2 - x1) * (sy - y1) - (y2 - y1) * (sx - x1)) * inv;
+          float w1 = ((x0 - x2) * (sy - y2) - (y0 - y2) * (sx - x2)) * inv;
+          float w2 = 1 - w0 - w1;
+          if (w0 < 0 || w1 < 0 || w2 < 0)
+            continue;
+          float z = w0 * z0 + w1 * z1 + w2 * z2;
+          int idx = py * width + px;
+          if (z < depth[idx])
+            depth[idx] = z;
+        }
+      }
+    }
+  }
+
+  protected void buildLevel(int l) {
+    float[] srcMax = maxDepth[l - 1], srcMin = minDepth[l - 1], dstMax = maxDepth[l], dstMin = minDepth[l];
+    int sw = levelWidth[l - 1], sh = levelHeight[l - 1], w = levelWidth[l], h = levelHeight[l];
+    for (int y = 0; y < h; y++)
+      for (int x = 0; x < w; x++) {
+        int sx0 = 2 * x, sy0 = 2 * y, sx1 = Math.min(sx0 + 1, sw - 1), sy1 = Math.min(sy0 + 1, sh - 1);
+        int a = sy0 * sw + sx0, b = sy0 * sw + sx1, c = sy1 * sw + sx0, d = sy1 * sw + sx1;
+        dstMax[y * w + x] = Math.max(Math.max(srcMax[a], srcMax[b]), Math.max(srcMax[c], srcMax[d]));
+        dstMin[y * w + x] = Math.min(Math.min(srcMin[a], srcMin[b]), Math.min(srcMin[c], srcMin[d]));
+      }
+  }
+
+  /**
+   * Tests the box defined by {@code min} and {@code max} (transformed by the current
+   * {@code mvp} matrix) against the depth pyramid.
+   */
+  protected boolean isBoxOccluded(Vec min, Vec max) {
+    float[] m = mvp.mat;
+    float sminx = Float.MAX_VALUE, sminy = Float.MAX_VALUE, smaxx = -Float.MAX_VALUE, smaxy = -Float.MAX_VALUE;
+    float zmin = Float.MAX_VALUE;
+    for (int c = 0; c < 8; c++) {
+      float x = (c & 4) != 0 ? max.vec[0] : min.vec[0];
+      float y = (c & 2) != 0 ? max.vec[1] : min.vec[1];
+      float z = (c & 1) != 0 ? max.vec[2] : min.vec[2];
+      float w = m[3] * x + m[7] * y + m[11] * z + m[15];
+      // crossing the near plane: consider it visible
+      if (w <= 1e-6f)
+        return false;
+      float px = ((m[0] * x + m[4] * y + m[8] * z + m[12]) / w * 0.5f + 0.5f) * width;
+      float py = ((m[1] * x + m[5] * y + m[9] * z + m[13]) / w * 0.5f + 0.5f) * height;
+      float pz = (m[2] * x + m[6] * y + m[10] * z + m[14]) / w * 0.5f + 0.5f;
+      sminx = Math.min(sminx, px);
+      smaxx = Math.max(smaxx, px);
+      sminy = Math.min(sminy, py);
+      smaxy = Math.max(smaxy, py);
+      zmin = Math.min(zmin, pz);
+    }
+    // off screen boxes are left to the frustum culling
+    if (smaxx < 0 || smaxy < 0 || sminx >= width || sminy >= height)
+      return false;
+    int x0 = Math.max(0, (int) sminx), y0 = Math.max(0, (int) sminy);
+    int x1 = Math.min(width - 1, (int) smaxx), y1 = Math.min(height - 1, (int) smaxy);
+    // pick the level where the box spans at most 2x2 texels
+    int l = 0;
+    while (l < maxDepth.length - 1 && ((x1 >> l) - (x0 >> l) > 1 || (y1 >> l) - (y0 >> l) > 1))
+      l++;
+    float[] levelMax = maxDepth[l], levelMin = minDepth[l];
+    int w = levelWidth[l];
+    float farthest = 0;
+    for (int y = y0 >> l; y <= y1 >> l; y++)
+      for (int x = x0 >> l; x <= x1 >> l; x++) {
+        // nearer than all occluders there: may be visible
+        if (zmin < levelMin[y * w + x])
+          return false;
+        farthest = Math.max(farthest, levelMax[y * w + x]);
+      }
+    return zmin > farthest;
+  }
+}
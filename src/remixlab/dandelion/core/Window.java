@@ -239,35 +239,50 @@ public class Window extends Eye implements Copyable {
   @Override
   public float distanceToBoundary(int index, Vec pos) {
     if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The camera frustum plane equations (needed by distanceToBoundary) may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
+      AbstractScene.showBoundaryEquationsWarning("distanceToBoundary");
+    return distanceToBoundary(fpCoefficients[index], pos.vec[0], pos.vec[1]);
+  }
+
+  /**
+   * Internal use. Signed distance from (x,y) to the line {@code coef}.
+   */
+  protected static float distanceToBoundary(float[] coef, float x, float y) {
     // check this: http://en.wikipedia.org/wiki/Distance_from_a_point_to_a_line
-    return (fpCoefficients[index][0] * pos.x() + fpCoefficients[index][1] * pos.y() + fpCoefficients[index][2])
-        / (float) Math.sqrt(
-            fpCoefficients[index][0] * fpCoefficients[index][0] + fpCoefficients[index][1] * fpCoefficients[index][1]);
+    return (coef[0] * x + coef[1] * y + coef[2]) / (float) Math.sqrt(coef[0] * coef[0] + coef[1] * coef[1]);
   }
 
   @Override
   public Visibility boxVisibility(Vec p1, Vec p2) {
+    return boxVisibility(p1, p2, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Instead of testing the four box corners against each line, only the corner lying the
+   * farthest along the line normal and its opposite one are tested.
+   */
+  @Override
+  public Visibility boxVisibility(Vec p1, Vec p2, int[] planeHint) {
     if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The camera frustum plane equations (needed by aaBoxIsVisible) may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
+      AbstractScene.showBoundaryEquationsWarning("boxVisibility");
+    float minx = Math.min(p1.vec[0], p2.vec[0]), maxx = Math.max(p1.vec[0], p2.vec[0]);
+    float miny = Math.min(p1.vec[1], p2.vec[1]), maxy = Math.max(p1.vec[1], p2.vec[1]);
+    int first = planeHint(planeHint, 4);
     boolean allInForAllPlanes = true;
-
-    for (int i = 0; i < 4; ++i) {
-      boolean allOut = true;
-      for (int c = 0; c < 4; ++c) {
-        Vec pos = new Vec(((c & 2) != 0) ? p1.vec[0] : p2.vec[0], ((c & 1) != 0) ? p1.vec[1] : p2.vec[1]);
-        if (distanceToBoundary(i, pos) > 0.0)
-          allInForAllPlanes = false;
-        else
-          allOut = false;
-      }
-      // The eight points are on the outside side of this plane
-      if (allOut)
+    for (int k = 0; k < 4; ++k) {
+      int i = k == 0 ? first : (k <= first ? k - 1 : k);
+      float[] l = fpCoefficients[i];
+      // only the sign matters here, so there's no need to normalize
+      // The four points are on the outside side of this line
+      if (l[0] * (l[0] > 0 ? minx : maxx) + l[1] * (l[1] > 0 ? miny : maxy) + l[2] > 0) {
+        if (planeHint != null)
+          planeHint[0] = i;
         return Eye.Visibility.INVISIBLE;
+      }
+      if (allInForAllPlanes)
+        if (l[0] * (l[0] > 0 ? maxx : minx) + l[1] * (l[1] > 0 ? maxy : miny) + l[2] > 0)
+          allInForAllPlanes = false;
     }
 
     if (allInForAllPlanes)
@@ -279,15 +294,23 @@ public class Window extends Eye implements Copyable {
 
   @Override
   public Visibility ballVisibility(Vec center, float radius) {
+    return ballVisibility(center, radius, null);
+  }
+
+  @Override
+  public Visibility ballVisibility(Vec center, float radius, int[] planeHint) {
     if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The camera frustum plane equations (needed by sphereIsVisible) may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
+      AbstractScene.showBoundaryEquationsWarning("ballVisibility");
+    int first = planeHint(planeHint, 4);
     boolean allInForAllPlanes = true;
-    for (int i = 0; i < 4; ++i) {
-      float d = distanceToBoundary(i, center);
-      if (d > radius)
+    for (int k = 0; k < 4; ++k) {
+      int i = k == 0 ? first : (k <= first ? k - 1 : k);
+      float d = distanceToBoundary(fpCoefficients[i], center.vec[0], center.vec[1]);
+      if (d > radius) {
+        if (planeHint != null)
+          planeHint[0] = i;
         return Eye.Visibility.INVISIBLE;
+      }
       if ((d > 0) || (-d < radius))
         allInForAllPlanes = false;
     }
@@ -297,24 +320,93 @@ public class Window extends Eye implements Copyable {
   }
 
   @Override
-  public boolean isPointVisible(Vec point) {
+  public int ballVisibility(float[] centers, float[] radii, byte[] visibility, int count) {
     if (!gScene.areBoundaryEquationsEnabled())
-      System.out.println("The camera frustum plane equations (needed by pointIsVisible) may be outdated. Please "
-          + "enable automatic updates of the equations in your PApplet.setup "
-          + "with Scene.enableBoundaryEquations()");
-    for (int i = 0; i < 4; ++i)
-      if (distanceToBoundary(i, point) > 0)
-        return false;
-    return true;
+      AbstractScene.showBoundaryEquationsWarning("ballVisibility");
+    final byte visible = (byte) Eye.Visibility.VISIBLE.ordinal();
+    final byte semivisible = (byte) Eye.Visibility.SEMIVISIBLE.ordinal();
+    final byte invisible = (byte) Eye.Visibility.INVISIBLE.ordinal();
+    // normalize the lines once
+    float[] l = fpCoefficients[0];
+    float n = 1 / (float) Math.sqrt(l[0] * l[0] + l[1] * l[1]);
+    float a0 = l[0] * n, b0 = l[1] * n, c0 = l[2] * n;
+    l = fpCoefficients[1];
+    n = 1 / (float) Math.sqrt(l[0] * l[0] + l[1] * l[1]);
+    float a1 = l[0] * n, b1 = l[1] * n, c1 = l[2] * n;
+    l = fpCoefficients[2];
+    n = 1 / (float) Math.sqrt(l[0] * l[0] + l[1] * l[1]);
+    float a2 = l[0] * n, b2 = l[1] * n, c2 = l[2] * n;
+    l = fpCoefficients[3];
+    n = 1 / (float) Math.sqrt(l[0] * l[0] + l[1] * l[1]);
+    float a3 = l[0] * n, b3 = l[1] * n, c3 = l[2] * n;
+    int result = 0;
+    for (int i = 0; i < count; ++i) {
+      int j = 3 * i;
+      float x = centers[j], y = centers[j + 1], r = radii[i];
+      float e = Math.max(Math.max(a0 * x + b0 * y + c0, a1 * x + b1 * y + c1),
+          Math.max(a2 * x + b2 * y + c2, a3 * x + b3 * y + c3));
+      if (e > r)
+        visibility[i] = invisible;
+      else {
+        visibility[i] = e > -r ? semivisible : visible;
+        result++;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int boxVisibility(float[] mins, float[] maxs, byte[] visibility, int count) {
+    if (!gScene.areBoundaryEquationsEnabled())
+      AbstractScene.showBoundaryEquationsWarning("boxVisibility");
+    final byte visible = (byte) Eye.Visibility.VISIBLE.ordinal();
+    final byte semivisible = (byte) Eye.Visibility.SEMIVISIBLE.ordinal();
+    final byte invisible = (byte) Eye.Visibility.INVISIBLE.ordinal();
+    int result = 0;
+    for (int i = 0; i < count; ++i) {
+      int j = 3 * i;
+      float hx = (maxs[j] - mins[j]) * 0.5f, hy = (maxs[j + 1] - mins[j + 1]) * 0.5f;
+      float x = mins[j] + hx, y = mins[j + 1] + hy;
+      byte vis = visible;
+      for (int k = 0; k < 4; ++k) {
+        float[] p = fpCoefficients[k];
+        // only the sign matters here, so there's no need to normalize
+        float d = p[0] * x + p[1] * y + p[2];
+        float r = Math.abs(p[0]) * hx + Math.abs(p[1]) * hy;
+        if (d - r > 0) {
+          vis = invisible;
+          break;
+        }
+        if (d + r > 0)
+          vis = semivisible;
+      }
+      visibility[i] = vis;
+      if (vis != invisible)
+        result++;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isPointVisible(Vec point) {
+    return isPointVisible(point.vec[0], point.vec[1]);
   }
 
   /**
-   * Same as {@code return isPointVisible(new Vec(x, y))}.
+   * Same as {@code return isPointVisible(new Vec(x, y))}, but doesn't allocate.
    * 
    * @see #isPointVisible(Vec)
    */
   public boolean isPointVisible(float x, float y) {
-    return isPointVisible(new Vec(x, y));
+    if (!gScene.areBoundaryEquationsEnabled())
+      AbstractScene.showBoundaryEquationsWarning("isPointVisible");
+    for (int i = 0; i < 4; ++i) {
+      float[] l = fpCoefficients[i];
+      // only the sign matters here, so there's no need to normalize
+      if (l[0] * x + l[1] * y + l[2] > 0)
+        return false;
+    }
+    return true;
   }
 
   @Override
@@ -440,6 +440,23 @@ public class Frame implements Copyable {
     return inverseCoordinatesOf(new Vec(0, 0, 0));
   }
 
+  /**
+   * Same as {@link #position()}, but stores the result in the {@code target} Vec which is
+   * then returned, so that no allocation takes place. A new Vec is created if
+   * {@code target} is null.
+   */
+  public final Vec position(Vec target) {
+    if (target == null)
+      target = new Vec();
+    target.set(0, 0, 0);
+    for (Frame fr = this; fr != null; fr = fr.referenceFrame()) {
+      target.multiply(fr.scaling());
+      fr.rotation().rotate(target, target);
+      target.add(fr.translation());
+    }
+    return target;
+  }
+
   /**
    * Sets the {@link #position()} of the Frame, defined in the world coordinate system.
    * <p>
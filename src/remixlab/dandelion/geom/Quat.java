@@ -598,6 +598,13 @@ public class Quat implements Linkable, Rotation {
    */
   @Override
   public final Vec rotate(Vec v) {
+    return rotate(v, null);
+  }
+
+  @Override
+  public final Vec rotate(Vec v, Vec target) {
+    if (target == null)
+      target = new Vec();
     float q00 = 2.0f * this.quat[0] * this.quat[0];
     float q11 = 2.0f * this.quat[1] * this.quat[1];
     float q22 = 2.0f * this.quat[2] * this.quat[2];
@@ -611,9 +618,10 @@ public class Quat implements Linkable, Rotation {
 
     float q23 = 2.0f * this.quat[2] * this.quat[3];
 
-    return new Vec((1.0f - q11 - q22) * v.vec[0] + (q01 - q23) * v.vec[1] + (q02 + q13) * v.vec[2],
+    target.set((1.0f - q11 - q22) * v.vec[0] + (q01 - q23) * v.vec[1] + (q02 + q13) * v.vec[2],
         (q01 + q23) * v.vec[0] + (1.0f - q22 - q00) * v.vec[1] + (q12 - q03) * v.vec[2],
         (q02 - q13) * v.vec[0] + (q12 + q03) * v.vec[1] + (1.0f - q11 - q00) * v.vec[2]);
+    return target;
   }
 
   /**
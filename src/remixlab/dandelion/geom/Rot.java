@@ -82,9 +82,17 @@ public class Rot implements Rotation {
 
   @Override
   public Vec rotate(Vec v) {
+    return rotate(v, null);
+  }
+
+  @Override
+  public Vec rotate(Vec v, Vec target) {
+    if (target == null)
+      target = new Vec();
     float cosB = (float) Math.cos(angle());
     float sinB = (float) Math.sin(angle());
-    return new Vec(((v.x() * cosB) - (v.y() * sinB)), ((v.x() * sinB) + (v.y() * cosB)));
+    target.set(((v.x() * cosB) - (v.y() * sinB)), ((v.x() * sinB) + (v.y() * cosB)), 0);
+    return target;
   }
 
   @Override
@@ -48,6 +48,13 @@ public interface Rotation extends Copyable {
    */
   public Vec rotate(Vec v);
 
+  /**
+   * Stores the image of {@code v} by the rotation in the {@code target} Vec (which may be
+   * {@code v} itself) which is then returned. A new Vec is created if {@code target} is
+   * null.
+   */
+  public Vec rotate(Vec v, Vec target);
+
   /**
    * Returns the image of {@code v} by the {@link #inverse()} rotation.
    */
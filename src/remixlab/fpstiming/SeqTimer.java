@@ -12,6 +12,10 @@ package remixlab.fpstiming;
 
 /**
  * Sequential timers are single-threaded timers handled by a TimingHandler.
+ * <p>
+ * Active timers whose {@link #timingTask()} is registered at the handler are kept in
+ * its timing wheel, keyed by their next due time, so that the handler only checks the
+ * timers which are due (see {@link remixlab.fpstiming.TimingHandler#handle()}).
  */
 public class SeqTimer implements Timer {
   protected Taskable task;
@@ -21,6 +25,10 @@ public class SeqTimer implements Timer {
   private long counter;
   private long prd;
   private long startTime;
+  // timing wheel links (see TimingWheel)
+  SeqTimer prev, next;
+  int slot = -1;
+  long due;
 
   /**
    * Defines a single shot sequential (single-threaded) timer.
@@ -66,7 +74,15 @@ public class SeqTimer implements Timer {
    * (see {@link remixlab.fpstiming.TimingHandler#handle()}).
    */
   protected boolean execute() {
-    boolean result = trigggered();
+    return execute(System.currentTimeMillis());
+  }
+
+  /**
+   * Same as {@link #execute()}, but taking the current time (in milliseconds) as
+   * parameter.
+   */
+  protected boolean execute(long now) {
+    boolean result = trigggered(now);
     if (result) {
       timingTask().execute();
       if (runOnlyOnce)
@@ -100,6 +116,8 @@ public class SeqTimer implements Timer {
     counter = 1;
     active = true;
     startTime = System.currentTimeMillis();
+    if (handler != null)
+      handler.schedule(this);
   }
 
   @Override
@@ -119,6 +137,24 @@ public class SeqTimer implements Timer {
    */
   public void inactivate() {
     active = false;
+    if (handler != null)
+      handler.unschedule(this);
+  }
+
+  /**
+   * Returns the time (in milliseconds) at which the timer is next due, provided it
+   * {@link #isActive()}.
+   */
+  public long dueTime() {
+    return startTime + counter * prd;
+  }
+
+  /**
+   * Returns {@code true} if the timer is held by the handler timing wheel, i.e., if it's
+   * {@link #isActive()} and its task is registered at the handler.
+   */
+  public boolean isScheduled() {
+    return slot >= 0;
   }
 
   /**
@@ -128,10 +164,18 @@ public class SeqTimer implements Timer {
    * (see {@link remixlab.fpstiming.TimingHandler#handle()}).
    */
   public boolean trigggered() {
+    return trigggered(System.currentTimeMillis());
+  }
+
+  /**
+   * Same as {@link #trigggered()}, but taking the current time (in milliseconds) as
+   * parameter.
+   */
+  protected boolean trigggered(long now) {
     if (!active)
       return false;
 
-    long elapsedTime = System.currentTimeMillis() - startTime;
+    long elapsedTime = now - startTime;
 
     float timePerFrame = (1 / handler.frameRate()) * 1000;
     long threshold = counter * prd;
@@ -175,6 +219,8 @@ public class SeqTimer implements Timer {
   @Override
   public void setPeriod(long period) {
     prd = period;
+    if (active && handler != null)
+      handler.schedule(this);
   }
 
   @Override
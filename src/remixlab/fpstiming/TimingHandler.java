@@ -18,6 +18,11 @@ import java.util.ArrayList;
  * periodically). The animation pool are all the objects that implement an animation
  * callback function. For an introduction to FPSTiming please refer to
  * <a href="http://nakednous.github.io/projects/fpstiming">this</a>.
+ * <p>
+ * The active {@link remixlab.fpstiming.SeqTimer}s of the registered tasks are kept in a
+ * hierarchical timing wheel, so that each {@link #handle()} call only checks the timers
+ * which are due, regardless of the size of the timer pool. Registering, unregistering,
+ * running and stopping a task take constant time.
  */
 public class TimingHandler {
   // T i m e r P o o l
@@ -25,6 +30,8 @@ public class TimingHandler {
   protected long frameRateLastMillis;
   public float frameRate;
   protected long fCount;
+  protected TimingWheel wheel;
+  protected ArrayList<SeqTimer> dueTimers;
 
   // A N I M A T I O N
   protected ArrayList<Animator> aPool;
@@ -37,6 +44,8 @@ public class TimingHandler {
     frameRate = 10;
     frameRateLastMillis = System.currentTimeMillis();
     tPool = new ArrayList<TimingTask>();
+    wheel = new TimingWheel(frameRateLastMillis);
+    dueTimers = new ArrayList<SeqTimer>();
     aPool = new ArrayList<Animator>();
   }
 
@@ -56,11 +65,18 @@ public class TimingHandler {
    */
   public void handle() {
     updateFrameRate();
-    for (TimingTask task : tPool)
-      if (task.timer() != null)
-        if (task.timer() instanceof SeqTimer)
-          if (((SeqTimer) task.timer()).timingTask() != null)
-            ((SeqTimer) task.timer()).execute();
+    long now = System.currentTimeMillis();
+    // timers are triggered when due before the middle of the next frame, see
+    // SeqTimer.trigggered()
+    wheel.advance(now + (long) (500 / frameRate()), dueTimers);
+    for (int i = 0; i < dueTimers.size(); i++) {
+      SeqTimer timer = dueTimers.get(i);
+      timer.execute(now);
+      // the task may have re-run or stopped the timer
+      if (timer.isActive() && !timer.isScheduled())
+        schedule(timer);
+    }
+    dueTimers.clear();
     // Animation
     for (Animator aObj : aPool)
       if (aObj.animationStarted())
@@ -70,7 +86,11 @@ public class TimingHandler {
   }
 
   /**
-   * Returns the timer pool.
+   * Returns the timer pool. Don't modify it directly, but through
+   * {@link #registerTask(TimingTask)} and {@link #unregisterTask(TimingTask)}, since tasks
+   * keep their pool index. Note that unregistering a task moves the last one to its
+   * index, and that tasks may be unregistered from other threads (e.g., by multi-threaded
+   * timers releasing their own tasks), so iterate over a copy of it.
    */
   public ArrayList<TimingTask> timerPool() {
     return tPool;
@@ -79,16 +99,25 @@ public class TimingHandler {
   /**
    * Register a task in the timer pool and creates a sequential timer for it.
    */
-  public void registerTask(TimingTask task) {
+  public synchronized void registerTask(TimingTask task) {
     task.setTimer(new SeqTimer(this, task));
-    tPool.add(task);
+    add(task);
   }
 
   /**
    * Register a task in the timer pool with the given timer.
    */
-  public void registerTask(TimingTask task, Timer timer) {
+  public synchronized void registerTask(TimingTask task, Timer timer) {
     task.setTimer(timer);
+    add(task);
+    if (timer instanceof SeqTimer)
+      schedule((SeqTimer) timer);
+  }
+
+  protected void add(TimingTask task) {
+    if (isTaskRegistered(task))
+      return;
+    task.poolIndex = tPool.size();
     tPool.add(task);
   }
 
@@ -98,7 +127,8 @@ public class TimingHandler {
    * @see #unregisterTask(TimingTask)
    */
   public void unregisterTask(SeqTimer t) {
-    tPool.remove(t.timingTask());
+    if (t.timingTask() instanceof TimingTask)
+      unregisterTask((TimingTask) t.timingTask());
   }
 
   /**
@@ -106,15 +136,46 @@ public class TimingHandler {
    * 
    * @see #unregisterTask(SeqTimer)
    */
-  public void unregisterTask(TimingTask task) {
-    tPool.remove(task);
+  public synchronized void unregisterTask(TimingTask task) {
+    if (!isTaskRegistered(task))
+      return;
+    TimingTask last = tPool.remove(tPool.size() - 1);
+    if (last != task) {
+      tPool.set(task.poolIndex, last);
+      last.poolIndex = task.poolIndex;
+    }
+    task.poolIndex = -1;
+    if (task.timer() instanceof SeqTimer)
+      wheel.remove((SeqTimer) task.timer());
   }
 
   /**
    * Returns {@code true} if the task is registered and {@code false} otherwise.
    */
-  public boolean isTaskRegistered(TimingTask task) {
-    return tPool.contains(task);
+  public synchronized boolean isTaskRegistered(TimingTask task) {
+    int i = task.poolIndex;
+    return i >= 0 && i < tPool.size() && tPool.get(i) == task;
+  }
+
+  /**
+   * Internal use. Adds the {@code timer} to the timing wheel (or moves it to its new
+   * {@link remixlab.fpstiming.SeqTimer#dueTime()}), provided it's active and it's the
+   * timer of a registered task. Called when the timer is run.
+   */
+  protected void schedule(SeqTimer timer) {
+    if (!timer.isActive() || !(timer.timingTask() instanceof TimingTask))
+      return;
+    TimingTask task = (TimingTask) timer.timingTask();
+    if (task.timer() == timer && isTaskRegistered(task))
+      wheel.add(timer, timer.dueTime());
+  }
+
+  /**
+   * Internal use. Removes the {@code timer} from the timing wheel. Called when the timer
+   * is stopped.
+   */
+  protected void unschedule(SeqTimer timer) {
+    wheel.remove(timer);
   }
 
   /**
@@ -155,8 +216,13 @@ public class TimingHandler {
    */
   public void restoreTimers() {
     boolean isActive;
+    ArrayList<TimingTask> tasks;
+    // tasks may be (un)registered concurrently by multi-threaded timers
+    synchronized (this) {
+      tasks = new ArrayList<TimingTask>(tPool);
+    }
 
-    for (TimingTask task : tPool) {
+    for (TimingTask task : tasks) {
       long period = 0;
       boolean rOnce = false;
       isActive = task.isActive();
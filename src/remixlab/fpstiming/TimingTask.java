@@ -17,6 +17,8 @@ package remixlab.fpstiming;
  */
 public abstract class TimingTask implements Taskable {
   protected Timer tmr;
+  // index in the timer pool of the handler the task is registered at, or -1
+  protected int poolIndex = -1;
 
   /**
    * Returns the timer instance.
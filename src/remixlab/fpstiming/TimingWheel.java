@@ -0,0 +1,160 @@
+/**************************************************************************************
+ * fpstiming_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.fpstiming;
+
+import java.util.List;
+
+/**
+ * Hashed hierarchical timing wheel holding the active {@link remixlab.fpstiming.SeqTimer}s
+ * of a {@link remixlab.fpstiming.TimingHandler}, keyed by their due time (in
+ * milliseconds). The first level has a slot per millisecond, and each upper level slot
+ * spans a whole turn of the level below, whose slots it's cascaded into when the wheel
+ * time reaches it. Adding and removing a timer take constant time, and
+ * {@link #advance(long, List)} only touches the timers which are due (and those being
+ * cascaded).
+ * <p>
+ * Timers are linked into the slots through their own fields, so that no allocation takes
+ * place.
+ */
+class TimingWheel {
+  // level 0: 256 one millisecond slots; upper levels: 64 slots each
+  static final int BITS0 = 8, BITS = 6, LEVELS = 4;
+  static final int SLOTS0 = 1 << BITS0, SLOTS = 1 << BITS;
+  // timers due beyond the last level span, re-added once per last level slot turn
+  static final int OVERFLOW = SLOTS0 + (LEVELS - 1) * SLOTS;
+
+  protected SeqTimer[] slots = new SeqTimer[OVERFLOW + 1];
+  // next tick to be processed
+  protected long time;
+  protected int size;
+
+  TimingWheel(long time) {
+    this.time = time;
+  }
+
+  /**
+   * Returns the number of timers in the wheel.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Adds the {@code timer} to the wheel (moving it if it's already there), to be due at
+   * the {@code due} time. Timers overdue are due at the next tick.
+   */
+  void add(SeqTimer timer, long due) {
+    remove(timer);
+    timer.due = due;
+    link(timer, slot(Math.max(due, time)));
+    size++;
+  }
+
+  /**
+   * Removes the {@code timer} from the wheel, if it's there.
+   */
+  void remove(SeqTimer timer) {
+    if (timer.slot >= 0) {
+      unlink(timer);
+      size--;
+    }
+  }
+
+  /**
+   * Processes the ticks up to the {@code to} time (inclusive), removing the timers due
+   * during them from the wheel and adding them to the {@code due} list.
+   */
+  void advance(long to, List<SeqTimer> due) {
+    if (size == 0) {
+      if (to >= time)
+        time = to + 1;
+      return;
+    }
+    for (; time <= to && size > 0; time++) {
+      if ((time & (SLOTS0 - 1)) == 0)
+        cascade();
+      int s = (int) (time & (SLOTS0 - 1));
+      for (SeqTimer timer = slots[s]; timer != null; timer = slots[s]) {
+        unlink(timer);
+        size--;
+        due.add(timer);
+      }
+    }
+    if (time <= to)
+      time = to + 1;
+  }
+
+  /**
+   * Internal use. Moves the upper level slots reached at the current tick into the lower
+   * levels, starting from the highest one.
+   */
+  protected void cascade() {
+    int level = 1;
+    while (level < LEVELS && (time & ((1L << shift(level + 1)) - 1)) == 0)
+      level++;
+    if (level == LEVELS)
+      redistribute(OVERFLOW);
+    for (; level >= 1; level--)
+      redistribute(SLOTS0 + (level - 1) * SLOTS + (int) ((time >>> shift(level)) & (SLOTS - 1)));
+  }
+
+  protected void redistribute(int s) {
+    SeqTimer timer = slots[s];
+    slots[s] = null;
+    while (timer != null) {
+      SeqTimer next = timer.next;
+      timer.prev = timer.next = null;
+      link(timer, slot(Math.max(timer.due, time)));
+      timer = next;
+    }
+  }
+
+  /**
+   * Returns the slot of a timer due at {@code due} (which should not be less than the
+   * wheel time).
+   */
+  protected int slot(long due) {
+    long delta = due - time;
+    if (delta < SLOTS0)
+      return (int) (due & (SLOTS0 - 1));
+    for (int level = 1; level < LEVELS; level++)
+      if (delta < 1L << shift(level + 1))
+        return SLOTS0 + (level - 1) * SLOTS + (int) ((due >>> shift(level)) & (SLOTS - 1));
+    return OVERFLOW;
+  }
+
+  /**
+   * Returns the number of bits of the time spanned by a slot of the given {@code level}.
+   */
+  protected static int shift(int level) {
+    return level == 0 ? 0 : BITS0 + (level - 1) * BITS;
+  }
+
+  protected void link(SeqTimer timer, int s) {
+    timer.slot = s;
+    timer.prev = null;
+    timer.next = slots[s];
+    if (slots[s] != null)
+      slots[s].prev = timer;
+    slots[s] = timer;
+  }
+
+  protected void unlink(SeqTimer timer) {
+    if (timer.prev != null)
+      timer.prev.next = timer.next;
+    else
+      slots[timer.slot] = timer.next;
+    if (timer.next != null)
+      timer.next.prev = timer.prev;
+    timer.prev = timer.next = null;
+    timer.slot = -1;
+  }
+}
@@ -10,6 +10,8 @@
 
 package remixlab.proscene;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import processing.core.PApplet;
 import remixlab.bias.core.*;
 import remixlab.bias.event.*;
@@ -20,6 +22,10 @@ public class DroidTouchAgent extends Agent {
 	Scene	scene;
 	protected DOF6Event			event, prevEvent;
 	protected static TouchProcessor	touchProcessor = new TouchProcessor();
+	// UI thread to render thread hand-off, see touchEvent() and handleFeed()
+	protected final AtomicBoolean	pressed = new AtomicBoolean(), lifted = new AtomicBoolean();
+	protected volatile int	pointers;
+	protected volatile float	tapX, tapY, lastX, lastY;
 	public static int TAP_ID, DRAG_ONE_ID, DRAG_TWO_ID,	DRAG_THREE_ID, TURN_TWO_ID,	TURN_THREE_ID, PINCH_TWO_ID, PINCH_THREE_ID, OPPOSABLE_THREE_ID;
 	
 	public DroidTouchAgent(Scene scn) {
@@ -53,24 +59,63 @@ public class DroidTouchAgent extends Agent {
 	   return scene;
 	}
 	
+	/**
+	 * Hands the touch points of {@code e} to the {@link TouchProcessor}. Called from the
+	 * Android UI thread: gestures are parsed and handled later on, from the
+	 * {@link #handleFeed()} render thread path.
+	 */
 	public void touchEvent(android.view.MotionEvent e) {
 		int action = e.getAction();
 		int code = action & android.view.MotionEvent.ACTION_MASK;
 		int index = action >> android.view.MotionEvent.ACTION_POINTER_INDEX_SHIFT;
-		int turnOrientation;
 		float x = e.getX(index);
 		float y = e.getY(index);
 		int id = e.getPointerId(index); 
-		Gestures gesture;
 		PApplet.println("touch");
 		PApplet.print(x + " " + y + " " + id);
 		// pass the events to the TouchProcessor
 		if (code == android.view.MotionEvent.ACTION_DOWN || code == android.view.MotionEvent.ACTION_POINTER_DOWN) {
-			// touch(new DOF6Event(x, y, 0, 0, 0, 0));
 			PApplet.print("down");
-			
 			touchProcessor.pointDown(x, y, id);
+			pointers = e.getPointerCount();
+			pressed.set(true);
+		}
+		else if (code == android.view.MotionEvent.ACTION_UP || code == android.view.MotionEvent.ACTION_POINTER_UP) {
+			PApplet.print("up");
+			touchProcessor.pointUp(id);
+			if (e.getPointerCount() == 1) {
+				tapX = e.getX();
+				tapY = e.getY();
+				lifted.set(true);
+			}
+		}
+		else if (code == android.view.MotionEvent.ACTION_MOVE) {
+			PApplet.print("move");
+			int numPointers = e.getPointerCount();
+			for (int i = 0; i < numPointers; i++) {
+				id = e.getPointerId(i);
+				x = e.getX(i);
+				y = e.getY(i);
+				touchProcessor.pointMoved(x, y, id);
+			}
+			lastX = x;
+			lastY = y;
+		}
+	}
+
+	/**
+	 * Parses the touch points queued by {@link #touchEvent(android.view.MotionEvent)} and
+	 * handles the resulting gestures. Called by the main event loop, i.e., from the render
+	 * thread, which is the only one reading the {@link TouchProcessor}. Always returns null,
+	 * since the gestures are handled right away.
+	 */
+	@Override
+	protected BogusEvent handleFeed() {
+		int turnOrientation;
+		Gestures gesture;
+		if (pressed.getAndSet(false)) {
 			touchProcessor.parse();
+			int pointerCount = pointers;
 			event = new DOF6Event(null,
 					touchProcessor.getCx(),
 					touchProcessor.getCy(),
@@ -79,7 +124,7 @@ public class DroidTouchAgent extends Agent {
 					0,
 					0,
 					MotionEvent.NO_MODIFIER_MASK,
-					e.getPointerCount());
+					pointerCount);
 			
 			prevEvent = event.get();
 			event = new DOF6Event(prevEvent,
@@ -90,128 +135,96 @@ public class DroidTouchAgent extends Agent {
 					0,
 					0,
 					MotionEvent.NO_MODIFIER_MASK,
-					e.getPointerCount());
+					pointerCount);
 			
-			if (e.getPointerCount() == 1){
+			if (pointerCount == 1){
 				updateTrackedGrabber(event);
 			}
-			
 		}
-		else if (code == android.view.MotionEvent.ACTION_UP || code == android.view.MotionEvent.ACTION_POINTER_UP) {
-			PApplet.print("up");
-			touchProcessor.pointUp(id);
-			if (e.getPointerCount() == 1) {
-				gesture = touchProcessor.parseTap();
-				if (gesture == Gestures.TAP_ID) {
-					handle(new ClickEvent(e.getX() - scene.originCorner().x(), e.getY() - scene.originCorner().y(), gesture.id()));
-				}
-				this.disableTracking();
-				this.enableTracking();
+		if (lifted.getAndSet(false)) {
+			gesture = touchProcessor.parseTap();
+			if (gesture == Gestures.TAP_ID) {
+				handle(new ClickEvent(tapX - scene.originCorner().x(), tapY - scene.originCorner().y(), gesture.id()));
 			}
-
+			this.disableTracking();
+			this.enableTracking();
+			return null;
 		}
-		else if (code == android.view.MotionEvent.ACTION_MOVE) {
-			PApplet.print("move");
-			int numPointers = e.getPointerCount();
-			for (int i = 0; i < numPointers; i++) {
-				id = e.getPointerId(i);
-				x = e.getX(i);
-				y = e.getY(i);
-				touchProcessor.pointMoved(x, y, id);
+		gesture = touchProcessor.parseGesture();
+		if (gesture != null) {
+			PApplet.print("Gesto " + gesture.id());
+			if (prevEvent != null && prevEvent.id() != gesture.id()) {
+				prevEvent = null;
 			}
-			gesture = touchProcessor.parseGesture();
-			if (gesture != null) {
-				PApplet.print("Gesto " + gesture.id());
-				/*event = new DOF6Event(prevEvent, touchProcessor.getCx(), touchProcessor.getCy(), 0, 0, 0, 0,
+			switch (gesture) {
+			case DRAG_ONE_ID:
+			case DRAG_TWO_ID:
+			case DRAG_THREE_ID:// Drag
+				event = new DOF6Event(prevEvent,
+						touchProcessor.getCx(),
+						touchProcessor.getCy(),
+						0,
+						0,
+						0,
+						0,
 						MotionEvent.NO_MODIFIER_MASK,
-						gesture.id());
-
-				Action<?> a = (inputGrabber() instanceof InteractiveFrame) ? eyeProfile().handle((BogusEvent) event)
-						: frameProfile().handle((BogusEvent) event);
-				if (a == null)
-					return;
-				MotionAction dA = (MotionAction) a.referenceAction();
-				if (dA == MotionAction.TRANSLATE_XYZ) {
-
-				} else if (dA == MotionAction.TRANSLATE_XYZ_ROTATE_XYZ) {
-
-				} else {*/
-					if (prevEvent.id() != gesture.id()) {
-						prevEvent = null;
-					}
-					switch (gesture) {
-					case DRAG_ONE_ID:
-					case DRAG_TWO_ID:
-					case DRAG_THREE_ID:// Drag
-						event = new DOF6Event(prevEvent,
-								touchProcessor.getCx(),
-								touchProcessor.getCy(),
-								0,
-								0,
-								0,
-								0,
-								MotionEvent.NO_MODIFIER_MASK,
-								gesture.id()
-								);
-						PApplet.print("drag");
-						break;
-					case OPPOSABLE_THREE_ID:
-						event = new DOF6Event(prevEvent,
-								x,
-								y,
-								0,
-								0,
-								0,
-								0,
-								MotionEvent.NO_MODIFIER_MASK,
-								gesture.id()
-								);
-						PApplet.print("opposable");
-						break;
-					case PINCH_TWO_ID:
-					case PINCH_THREE_ID: // Pinch
-						event = new DOF6Event(prevEvent,
-								touchProcessor.getZ(),
-								0,
-								0,
-								0,
-								0,
-								0,
-								MotionEvent.NO_MODIFIER_MASK,
-								gesture.id()
-								);
-						PApplet.print("pinch");
-						break;
-					case TURN_TWO_ID:
-					case TURN_THREE_ID: // Rotate
-						turnOrientation = 1;
-						// TODO needs testing
-						if (inputGrabber() instanceof InteractiveFrame)
-							turnOrientation = ((InteractiveFrame) inputGrabber()).isEyeFrame() ? -1 : 1;
-						event = new DOF6Event(prevEvent,
-								touchProcessor.getR() * turnOrientation,
-								0,
-								0,
-								0,
-								0,
-								0,
-								MotionEvent.NO_MODIFIER_MASK,
-								gesture.id()
-								);
-						PApplet.print("rotate");
-						break;
-					default:
-						break;
-
-					}
-				//}
-				if (gesture != null) {
-					if (prevEvent != null){
-						handle(event);
-					}
-					prevEvent = event.get();
-				}
+						gesture.id()
+						);
+				PApplet.print("drag");
+				break;
+			case OPPOSABLE_THREE_ID:
+				event = new DOF6Event(prevEvent,
+						lastX,
+						lastY,
+						0,
+						0,
+						0,
+						0,
+						MotionEvent.NO_MODIFIER_MASK,
+						gesture.id()
+						);
+				PApplet.print("opposable");
+				break;
+			case PINCH_TWO_ID:
+			case PINCH_THREE_ID: // Pinch
+				event = new DOF6Event(prevEvent,
+						touchProcessor.getZ(),
+						0,
+						0,
+						0,
+						0,
+						0,
+						MotionEvent.NO_MODIFIER_MASK,
+						gesture.id()
+						);
+				PApplet.print("pinch");
+				break;
+			case TURN_TWO_ID:
+			case TURN_THREE_ID: // Rotate
+				turnOrientation = 1;
+				// TODO needs testing
+				if (inputGrabber() instanceof InteractiveFrame)
+					turnOrientation = ((InteractiveFrame) inputGrabber()).isEyeFrame() ? -1 : 1;
+				event = new DOF6Event(prevEvent,
+						touchProcessor.getR() * turnOrientation,
+						0,
+						0,
+						0,
+						0,
+						0,
+						MotionEvent.NO_MODIFIER_MASK,
+						gesture.id()
+						);
+				PApplet.print("rotate");
+				break;
+			default:
+				break;
+			}
+			if (prevEvent != null){
+				handle(event);
 			}
+			prevEvent = event.get();
 		}
+		return null;
 	}
-}
\ No newline at end of file
+}
@@ -111,6 +111,8 @@ public class InteractiveFrame extends GenericFrame {
   // graphics handler
   protected Object drawHandlerObject;
   protected Method drawHandlerMethod;
+  // reused by invokeGraphicsHandler(PGraphics)
+  protected Object[] drawHandlerArgs = new Object[1];
 
   protected boolean highlight = true;
 
@@ -1221,7 +1223,8 @@ public class InteractiveFrame extends GenericFrame {
   protected boolean invokeGraphicsHandler(PGraphics pg) {
     if (drawHandlerObject != null && !this.isEyeFrame()) {
       try {
-        drawHandlerMethod.invoke(drawHandlerObject, new Object[] { pg });
+        drawHandlerArgs[0] = pg;
+        drawHandlerMethod.invoke(drawHandlerObject, drawHandlerArgs);
         return true;
       } catch (Exception e) {
         PApplet.println("Something went wrong when invoking your " + drawHandlerMethod.getName() + " method");
@@ -60,7 +60,7 @@ public class KeyAgent extends Agent {
     if (type || press)
       updateTrackedGrabber(currentEvent);
 
-    handle(release ? currentEvent.flush() : currentEvent.fire());
+    handle(release ? currentEvent.markFlushed() : currentEvent.markFired());
   }
 
   // debug
@@ -14,22 +14,23 @@ package remixlab.proscene;
 
 import remixlab.bias.core.*;
 import remixlab.bias.event.*;
+import remixlab.bias.ext.PointerAgent;
 
 /**
  * Proscene mouse-agent. A Processing fully fledged mouse {@link remixlab.bias.core.Agent}
- * .
+ * , whose motion events are pooled (see {@link remixlab.bias.ext.PointerAgent}).
  *
  * @see remixlab.bias.core.Agent
  * @see remixlab.proscene.KeyAgent
  * @see remixlab.proscene.DroidKeyAgent
  * @see remixlab.proscene.DroidTouchAgent
  */
-public class MouseAgent extends Agent {
+public class MouseAgent extends PointerAgent {
   public static int LEFT_ID, CENTER_ID, RIGHT_ID, WHEEL_ID, NO_BUTTON;
   protected float xSens = 1f;
   protected float ySens = 1f;
   protected Scene scene;
-  protected DOF2Event currentEvent, prevEvent;
+  protected float[] sens = { 1f, 1f, 1f, 1f, 1f, 1f };
   protected boolean move, press, drag, release;
   protected PickingMode pMode;
 
@@ -93,12 +94,9 @@ public class MouseAgent extends Agent {
     drag = e.getAction() == processing.event.MouseEvent.DRAG;
     release = e.getAction() == processing.event.MouseEvent.RELEASE;
     if (move || press || drag || release) {
-      currentEvent = new DOF2Event(prevEvent, e.getX() - scene.originCorner().x(), e.getY() - scene.originCorner().y(),
-          /* e.getModifiers() */BogusEvent.NO_MODIFIER_MASK, move ? BogusEvent.NO_ID : e.getButton());
-      if (move && (pickingMode() == PickingMode.MOVE))
-        updateTrackedGrabber(currentEvent);
-      handle(press ? currentEvent.fire() : release ? currentEvent.flush() : currentEvent);
-      prevEvent = currentEvent.get();
+      // e.getModifiers() are ignored
+      pointerEvent(e.getX() - scene.originCorner().x(), e.getY() - scene.originCorner().y(),
+          move ? BogusEvent.NO_ID : e.getButton(), move && (pickingMode() == PickingMode.MOVE), press, release);
       return;
     }
     if (e.getAction() == processing.event.MouseEvent.WHEEL) {
@@ -118,9 +116,11 @@ public class MouseAgent extends Agent {
 
   @Override
   public float[] sensitivities(MotionEvent event) {
-    if (event instanceof DOF2Event)
-      return new float[] { xSens, ySens, 1f, 1f, 1f, 1f };
-    else
+    if (event instanceof DOF2Event) {
+      sens[0] = xSens;
+      sens[1] = ySens;
+      return sens;
+    } else
       return super.sensitivities(event);
   }
 
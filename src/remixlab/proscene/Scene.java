@@ -103,6 +103,8 @@ public class Scene extends AbstractScene implements PConstants {
   protected Object animateHandlerObject;
   // The method in animateHandlerObject to execute
   protected Method animateHandlerMethod;
+  // Both handlers take this scene as their single argument
+  protected Object[] handlerArgs = new Object[] { this };
 
   // Timing
   protected boolean javaTiming;
@@ -967,8 +969,13 @@ public class Scene extends AbstractScene implements PConstants {
       return;
 
     boolean isActive;
+    ArrayList<TimingTask> tasks;
+    // tasks may be (un)registered concurrently, see TimingHandler.restoreTimers()
+    synchronized (timingHandler()) {
+      tasks = new ArrayList<TimingTask>(timingHandler().timerPool());
+    }
 
-    for (TimingTask task : timingHandler().timerPool()) {
+    for (TimingTask task : tasks) {
       long period = 0;
       boolean rOnce = false;
       isActive = task.isActive();
@@ -1020,7 +1027,7 @@ public class Scene extends AbstractScene implements PConstants {
     // 3. Draw external registered method
     if (drawHandlerObject != null) {
       try {
-        drawHandlerMethod.invoke(drawHandlerObject, new Object[] { this });
+        drawHandlerMethod.invoke(drawHandlerObject, handlerArgs);
         return true;
       } catch (Exception e) {
         PApplet.println("Something went wrong when invoking your " + drawHandlerMethod.getName() + " method");
@@ -1084,7 +1091,7 @@ public class Scene extends AbstractScene implements PConstants {
   public boolean invokeAnimationHandler() {
     if (animateHandlerObject != null) {
       try {
-        animateHandlerMethod.invoke(animateHandlerObject, new Object[] { this });
+        animateHandlerMethod.invoke(animateHandlerObject, handlerArgs);
         return true;
       } catch (Exception e) {
         PApplet.println("Something went wrong when invoking your " + animateHandlerMethod.getName() + " method");
@@ -1351,6 +1358,8 @@ public class Scene extends AbstractScene implements PConstants {
   }
 
   protected static boolean PRECISION, GRAPHICS;
+  // picking buffer pixels to be loaded once the current batch ends
+  protected boolean pickingPixelsPending;
   protected static PGraphics targetPGraphics;
 
   @Override
@@ -1360,11 +1369,22 @@ public class Scene extends AbstractScene implements PConstants {
       if (gFrame instanceof InteractiveFrame)
         // a bit weird but otherwise checkifgrabsinput throws a npe at sketch startup
         // if(gFrame instanceof InteractiveFrame)// this line throws the npe too
-        if (isPickingBufferEnabled())
-        pickingBuffer().loadPixels();
+        if (isPickingBufferEnabled()) {
+          if (isBatching())
+            pickingPixelsPending = true;
+          else
+            pickingBuffer().loadPixels();
+        }
     return result;
   }
 
+  @Override
+  protected void commitBatch() {
+    if (pickingPixelsPending && isPickingBufferEnabled())
+      pickingBuffer().loadPixels();
+    pickingPixelsPending = false;
+  }
+
   /**
    * Returns the collection of interactive frames the scene handles.
    */
@@ -1473,7 +1493,7 @@ public class Scene extends AbstractScene implements PConstants {
   protected void visitFrame(GenericFrame frame) {
     targetPGraphics.pushMatrix();
     applyTransformation(targetPGraphics, frame);
-    if (frame instanceof GenericFrame)
+    if (!isFrameCulled(frame))
       frame.visitCallback();
     for (GenericFrame child : frame.children())
       visitFrame(child);
@@ -2419,8 +2439,8 @@ public class Scene extends AbstractScene implements PConstants {
       return;
 
     pg().pushStyle();
-    float p1x = mouseAgent().currentEvent.x() /*- originCorner().x()*/;
-    float p1y = mouseAgent().currentEvent.y() /*- originCorner().y()*/;
+    float p1x = mouseAgent().lastEvent().x() /*- originCorner().x()*/;
+    float p1y = mouseAgent().lastEvent().y() /*- originCorner().y()*/;
 
     Vec p2 = new Vec();
     if (motionAgent().inputGrabber() instanceof GenericFrame) {
@@ -2448,8 +2468,8 @@ public class Scene extends AbstractScene implements PConstants {
     pg().pushStyle();
     float p1x = iFrame.initEvent.x() /*- originCorner().x()*/;
     float p1y = iFrame.initEvent.y() /*- originCorner().y()*/;
-    float p2x = mouseAgent().currentEvent.x() /*- originCorner().x()*/;
-    float p2y = mouseAgent().currentEvent.y() /*- originCorner().y()*/;
+    float p2x = mouseAgent().lastEvent().x() /*- originCorner().x()*/;
+    float p2y = mouseAgent().lastEvent().y() /*- originCorner().y()*/;
     beginScreenDrawing();
     pg().stroke(255, 255, 255);
     pg().strokeWeight(2);
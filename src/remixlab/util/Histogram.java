@@ -0,0 +1,133 @@
+/**************************************************************************************
+ * util_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.util;
+
+/**
+ * Histogram of non-negative {@code long} values (e.g., latencies in nanoseconds) with a
+ * fixed memory footprint. Values are counted in log-linear buckets: each power of two
+ * range is split into 16 buckets, so that {@link #percentile(double)} has a relative
+ * error below 1/16. {@link #max()} and {@link #min()} are exact.
+ * <p>
+ * Recording doesn't allocate, and all methods are thread-safe.
+ */
+public class Histogram {
+  protected static final int SUB_BITS = 4;
+  protected static final int SUB_COUNT = 1 << SUB_BITS;
+  protected long[] counts = new long[(64 - SUB_BITS + 1) * SUB_COUNT];
+  protected long count, sum, min = Long.MAX_VALUE, max;
+
+  /**
+   * Records {@code value}. Negative values are recorded as 0.
+   */
+  public synchronized void record(long value) {
+    if (value < 0)
+      value = 0;
+    counts[index(value)]++;
+    count++;
+    sum += value;
+    if (value < min)
+      min = value;
+    if (value > max)
+      max = value;
+  }
+
+  /**
+   * Returns the number of recorded values.
+   */
+  public synchronized long count() {
+    return count;
+  }
+
+  /**
+   * Returns the smallest recorded value, or 0 if there's none.
+   */
+  public synchronized long min() {
+    return count == 0 ? 0 : min;
+  }
+
+  /**
+   * Returns the largest recorded value, or 0 if there's none.
+   */
+  public synchronized long max() {
+    return max;
+  }
+
+  /**
+   * Returns the mean of the recorded values, or 0 if there's none.
+   */
+  public synchronized double mean() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /**
+   * Returns the value below which the given {@code percent} (in [0..100]) of the
+   * recorded values fall, e.g., {@code percentile(50)} is the median and
+   * {@code percentile(99)} the p99. Returns 0 if there are no recorded values.
+   */
+  public synchronized long percentile(double percent) {
+    if (count == 0)
+      return 0;
+    long rank = (long) Math.ceil(Math.max(0, Math.min(100, percent)) / 100 * count);
+    if (rank < 1)
+      rank = 1;
+    long cumulative = 0;
+    for (int i = 0; i < counts.length; i++) {
+      cumulative += counts[i];
+      if (cumulative >= rank)
+        return Math.max(min, Math.min(max, highest(i)));
+    }
+    return max;
+  }
+
+  /**
+   * Discards all recorded values.
+   */
+  public synchronized void reset() {
+    for (int i = 0; i < counts.length; i++)
+      counts[i] = 0;
+    count = 0;
+    sum = 0;
+    min = Long.MAX_VALUE;
+    max = 0;
+  }
+
+  /**
+   * Returns a p50/p99/max description of the recorded values, expressed in
+   * milliseconds (i.e., assuming they're nanoseconds).
+   */
+  public synchronized String info() {
+    return "count: " + count + ", p50: " + millis(percentile(50)) + "ms, p99: " + millis(percentile(99))
+        + "ms, max: " + millis(max) + "ms";
+  }
+
+  protected static String millis(long nanos) {
+    return String.valueOf(Math.round(nanos / 1e3) / 1e3);
+  }
+
+  protected static int index(long value) {
+    if (value < SUB_COUNT)
+      return (int) value;
+    int msb = 63 - Long.numberOfLeadingZeros(value);
+    int shift = msb - SUB_BITS;
+    return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+  }
+
+  /**
+   * Returns the highest value counted by the {@code i}-th bucket.
+   */
+  protected static long highest(int i) {
+    if (i < SUB_COUNT)
+      return i;
+    int shift = i / SUB_COUNT - 1;
+    long lowest = ((long) (SUB_COUNT + i % SUB_COUNT)) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
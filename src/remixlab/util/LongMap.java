@@ -0,0 +1,252 @@
+/**************************************************************************************
+ * util_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.util;
+
+/**
+ * Open addressing (linear probing) hash map of primitive {@code long} keys. Neither
+ * {@link #get(long)} nor {@link #containsKey(long)} allocate, and keys are never boxed.
+ * <p>
+ * Entries are stored in slots which may be traversed in order to iterate over the map:
+ *
+ * <pre>
+ * {@code
+ * for (int i = 0; i < map.capacity(); i++)
+ *   if (map.isSlotUsed(i))
+ *     doSomething(map.keyAt(i), map.valueAt(i));
+ * }
+ * </pre>
+ *
+ * {@code null} values are not allowed.
+ */
+public class LongMap<V> {
+  protected long[] keys;
+  protected Object[] values;
+  protected int size, mask;
+
+  @Override
+  public int hashCode() {
+    int h = 0;
+    for (int i = 0; i < values.length; i++)
+      if (values[i] != null)
+        h += hash(keys[i]) ^ values[i].hashCode();
+    return h;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == null)
+      return false;
+    if (obj == this)
+      return true;
+    if (obj.getClass() != getClass())
+      return false;
+
+    LongMap<?> other = (LongMap<?>) obj;
+    if (size != other.size)
+      return false;
+    for (int i = 0; i < values.length; i++)
+      if (values[i] != null && !values[i].equals(other.get(keys[i])))
+        return false;
+    return true;
+  }
+
+  /**
+   * Same as {@code this(16)}.
+   */
+  public LongMap() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty map able to hold {@code capacity} entries before growing.
+   */
+  public LongMap(int capacity) {
+    int length = 4;
+    while (length < 2 * capacity)
+      length <<= 1;
+    keys = new long[length];
+    values = new Object[length];
+    mask = length - 1;
+  }
+
+  /**
+   * Returns the number of entries in the map.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns {@code true} if the map holds no entries.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the value mapped to {@code key}, or {@code null} if there's none.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    int i = slot(key);
+    return i == -1 ? null : (V) values[i];
+  }
+
+  /**
+   * Returns {@code true} if the map holds {@code key}.
+   */
+  public boolean containsKey(long key) {
+    return slot(key) != -1;
+  }
+
+  /**
+   * Maps {@code value} to {@code key}. Returns the previous value mapped to {@code key},
+   * or {@code null} if there was none.
+   */
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    if (value == null)
+      throw new NullPointerException("LongMap doesn't allow null values");
+    int i = hash(key) & mask;
+    while (values[i] != null) {
+      if (keys[i] == key) {
+        V previous = (V) values[i];
+        values[i] = value;
+        return previous;
+      }
+      i = (i + 1) & mask;
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size > values.length / 2)
+      rehash(2 * values.length);
+    return null;
+  }
+
+  /**
+   * Removes the {@code key} entry. Returns its value, or {@code null} if there was none.
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(long key) {
+    int i = slot(key);
+    if (i == -1)
+      return null;
+    V previous = (V) values[i];
+    removeSlot(i);
+    return previous;
+  }
+
+  /**
+   * Removes the entry held at the given slot (see {@link #isSlotUsed(int)}). Note that
+   * the entries following it may be moved to lower slots, so that the slot should be
+   * visited again when iterating.
+   */
+  public void removeSlot(int i) {
+    values[i] = null;
+    size--;
+    // backward shift deletion, so that no tombstones are needed
+    int j = i;
+    for (;;) {
+      j = (j + 1) & mask;
+      if (values[j] == null)
+        return;
+      int k = hash(keys[j]) & mask;
+      // move the entry at j to i if its home slot k doesn't lie cyclically in (i, j]
+      if (i <= j ? (i < k && k <= j) : (i < k || k <= j))
+        continue;
+      keys[i] = keys[j];
+      values[i] = values[j];
+      values[j] = null;
+      i = j;
+    }
+  }
+
+  /**
+   * Removes all the entries.
+   */
+  public void clear() {
+    for (int i = 0; i < values.length; i++)
+      values[i] = null;
+    size = 0;
+  }
+
+  /**
+   * Returns the number of slots, i.e., the upper bound to iterate over the map.
+   */
+  public int capacity() {
+    return values.length;
+  }
+
+  /**
+   * Returns {@code true} if the {@code i}-th slot holds an entry.
+   */
+  public boolean isSlotUsed(int i) {
+    return values[i] != null;
+  }
+
+  /**
+   * Returns the key held at the {@code i}-th slot.
+   */
+  public long keyAt(int i) {
+    return keys[i];
+  }
+
+  /**
+   * Returns the value held at the {@code i}-th slot, or {@code null} if the slot is free.
+   */
+  @SuppressWarnings("unchecked")
+  public V valueAt(int i) {
+    return (V) values[i];
+  }
+
+  /**
+   * Replaces the value held at the {@code i}-th (used) slot.
+   */
+  public void setValueAt(int i, V value) {
+    if (value == null)
+      throw new NullPointerException("LongMap doesn't allow null values");
+    values[i] = value;
+  }
+
+  protected int slot(long key) {
+    int i = hash(key) & mask;
+    while (values[i] != null) {
+      if (keys[i] == key)
+        return i;
+      i = (i + 1) & mask;
+    }
+    return -1;
+  }
+
+  protected void rehash(int length) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new long[length];
+    values = new Object[length];
+    mask = length - 1;
+    for (int j = 0; j < oldValues.length; j++)
+      if (oldValues[j] != null) {
+        int i = hash(oldKeys[j]) & mask;
+        while (values[i] != null)
+          i = (i + 1) & mask;
+        keys[i] = oldKeys[j];
+        values[i] = oldValues[j];
+      }
+  }
+
+  protected static int hash(long key) {
+    // 64-bit mix (see MurmurHash3 fmix64), so that packed keys spread over the slots
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+}
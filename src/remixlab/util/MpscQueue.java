@@ -0,0 +1,130 @@
+/**************************************************************************************
+ * util_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer single-consumer queue, backed by a ring buffer (see
+ * Dmitry Vyukov's bounded queue). Any thread may {@link #offer(Object)} elements, but
+ * only a single thread at a time should {@link #poll()} them.
+ * <p>
+ * Offering an element doesn't allocate. When the queue is full the element is rejected
+ * and counted (see {@link #overflows()}).
+ */
+public class MpscQueue<E> {
+  protected final int mask;
+  protected final AtomicReferenceArray<E> buffer;
+  protected final AtomicLongArray sequences;
+  protected final AtomicLong tail = new AtomicLong();
+  protected final AtomicLong overflows = new AtomicLong();
+  // only accessed by the consumer thread
+  protected long head;
+
+  /**
+   * Creates a queue holding at most {@code capacity} elements (rounded up to the next
+   * power of two).
+   */
+  public MpscQueue(int capacity) {
+    int size = 1;
+    while (size < capacity)
+      size <<= 1;
+    mask = size - 1;
+    buffer = new AtomicReferenceArray<E>(size);
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++)
+      sequences.set(i, i);
+  }
+
+  /**
+   * Returns the maximum number of elements the queue may hold.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Appends {@code element} to the queue. Returns {@code false} if the queue is full, in
+   * which case the element is discarded and {@link #overflows()} is incremented. Safe to
+   * call from any thread.
+   */
+  public boolean offer(E element) {
+    if (element == null)
+      return false;
+    long pos = tail.get();
+    for (;;) {
+      int index = (int) pos & mask;
+      long dif = sequences.get(index) - pos;
+      if (dif == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          buffer.lazySet(index, element);
+          sequences.lazySet(index, pos + 1);
+          return true;
+        }
+        pos = tail.get();
+      } else if (dif < 0) {
+        overflows.incrementAndGet();
+        return false;
+      } else
+        pos = tail.get();
+    }
+  }
+
+  /**
+   * Removes and returns the head of the queue, or {@code null} if it's empty (or if the
+   * element at the head is still being written by a producer). Should only be called by
+   * the consumer thread.
+   */
+  public E poll() {
+    int index = (int) head & mask;
+    if (sequences.get(index) != head + 1)
+      return null;
+    E element = buffer.get(index);
+    buffer.lazySet(index, null);
+    sequences.lazySet(index, head + mask + 1);
+    head++;
+    return element;
+  }
+
+  /**
+   * Returns the (approximate, when producers are running) number of elements in the
+   * queue.
+   */
+  public int size() {
+    long size = tail.get() - head;
+    return (int) Math.max(0, Math.min(size, capacity()));
+  }
+
+  /**
+   * Returns {@code true} if the queue is empty.
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Discards all the elements in the queue. Should only be called by the consumer
+   * thread.
+   */
+  public void clear() {
+    while (poll() != null)
+      ;
+  }
+
+  /**
+   * Returns the number of elements that have been rejected because the queue was full.
+   */
+  public long overflows() {
+    return overflows.get();
+  }
+}
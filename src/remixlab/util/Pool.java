@@ -0,0 +1,122 @@
+/**************************************************************************************
+ * util_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of reusable objects. {@link #obtain()} returns a released object when
+ * there's one, or a new one (see {@link #create()}) otherwise. Objects should be
+ * {@link #release(Poolable)}d once they're no longer used, so that the pool reaches a
+ * steady state where no allocation takes place. Objects already released to the pool
+ * (see {@link remixlab.util.Poolable#setReleased(boolean)}) are refused.
+ * <p>
+ * The released objects are kept in a lock-free ring buffer (see Dmitry Vyukov's bounded
+ * queue, as {@link remixlab.util.MpscQueue}), so that objects may be obtained by a device
+ * thread and released by the main one without any of them taking a lock.
+ */
+public abstract class Pool<T extends Poolable> {
+  protected final int mask;
+  protected final AtomicReferenceArray<T> buffer;
+  protected final AtomicLongArray sequences;
+  protected final AtomicLong head = new AtomicLong();
+  protected final AtomicLong tail = new AtomicLong();
+
+  /**
+   * Creates a pool holding at most {@code capacity} released objects (rounded up to the
+   * next power of two).
+   */
+  public Pool(int capacity) {
+    int size = 1;
+    while (size < capacity)
+      size <<= 1;
+    mask = size - 1;
+    buffer = new AtomicReferenceArray<T>(size);
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++)
+      sequences.set(i, i);
+  }
+
+  /**
+   * Returns a new object. Called by {@link #obtain()} when the pool is empty.
+   */
+  protected abstract T create();
+
+  /**
+   * Returns a released object, or a new one if there's none. Safe to call from any
+   * thread.
+   */
+  public T obtain() {
+    long pos = head.get();
+    for (;;) {
+      int index = (int) pos & mask;
+      long dif = sequences.get(index) - (pos + 1);
+      if (dif == 0) {
+        if (head.compareAndSet(pos, pos + 1)) {
+          T object = buffer.get(index);
+          buffer.lazySet(index, null);
+          sequences.lazySet(index, pos + mask + 1);
+          object.setReleased(false);
+          return object;
+        }
+        pos = head.get();
+      } else if (dif < 0)
+        return create();
+      else
+        pos = head.get();
+    }
+  }
+
+  /**
+   * Returns {@code object} to the pool. Returns {@code false} if the object is already
+   * in the pool, or if the pool is full, in which case the object is simply left to the
+   * garbage collector. Safe to call from any thread.
+   */
+  public boolean release(T object) {
+    if (object == null || !object.setReleased(true))
+      return false;
+    long pos = tail.get();
+    for (;;) {
+      int index = (int) pos & mask;
+      long dif = sequences.get(index) - pos;
+      if (dif == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          buffer.lazySet(index, object);
+          sequences.lazySet(index, pos + 1);
+          return true;
+        }
+        pos = tail.get();
+      } else if (dif < 0) {
+        object.setReleased(false);
+        return false;
+      } else
+        pos = tail.get();
+    }
+  }
+
+  /**
+   * Returns the maximum number of released objects the pool may hold.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Returns the (approximate, when other threads are obtaining or releasing objects)
+   * number of released objects currently held by the pool.
+   */
+  public int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, capacity()));
+  }
+}
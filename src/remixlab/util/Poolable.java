@@ -0,0 +1,25 @@
+/**************************************************************************************
+ * util_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.util;
+
+/**
+ * Interface of the objects held by a {@link remixlab.util.Pool}.
+ * <p>
+ * The pool flags its objects while they're released to it, so that an object can't be
+ * released twice, which would hand it out to two different callers afterwards.
+ */
+public interface Poolable {
+  /**
+   * Internal use. Atomically sets whether or not the object is released to a pool.
+   * Returns {@code false} if it already was in the {@code released} state.
+   */
+  public boolean setReleased(boolean released);
+}
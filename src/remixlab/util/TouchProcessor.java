@@ -5,14 +5,22 @@
 
 package remixlab.util;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-
-import remixlab.dandelion.geom.Vec;
-
-//import remixlab.dandelion.geom.Vec;
-
-
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recognizes the {@link Gestures} performed on a multi-touch surface from the pointer
+ * samples it receives (see {@link #pointDown(float, float, int)},
+ * {@link #pointMoved(float, float, int)} and {@link #pointUp(int)}).
+ * <p>
+ * Pointer state is kept in fixed-capacity primitive arrays indexed by the pointer id
+ * (ids not in [0..{@link #MAX_POINTERS}) are ignored), and the centroid is updated
+ * incrementally, so that processing samples and parsing gestures doesn't allocate.
+ * <p>
+ * The point update methods and the parse methods may be called from different threads
+ * (e.g., the UI and the rendering threads) without locking: samples are appended to a
+ * single-producer single-consumer ring buffer, and processed by the next parse call.
+ * There should be a single thread updating points and a single thread parsing them.
+ */
 public class TouchProcessor {
 	// heuristic constants
 	public static enum Gestures {
@@ -58,77 +66,233 @@ public class TouchProcessor {
 	private final float		TURN_THRESHOLD						= 0.01f;
 	private final float		PINCH_THRESHOLD						= 1.2f;
 
-	// A list of currently active touch points
-	ArrayList<TouchPoint>	touchPoints;
-
-	// Used for tap/doubletaps
-	TouchPoint						firstTap;
-	TouchPoint						secondTap;
+	/**
+	 * Maximum number of pointers (and pointer id) the processor handles.
+	 */
+	public static final int	MAX_POINTERS							= 32;
+
+	// Per pointer state, indexed by pointer id
+	final float[]					x													= new float[MAX_POINTERS];
+	final float[]					y													= new float[MAX_POINTERS];
+	final float[]					px												= new float[MAX_POINTERS];
+	final float[]					py												= new float[MAX_POINTERS];
+	final float[]					angle											= new float[MAX_POINTERS];
+	final float[]					oldAngle									= new float[MAX_POINTERS];
+	final float[]					pinch											= new float[MAX_POINTERS];
+	final float[]					oldPinch									= new float[MAX_POINTERS];
+	// serial number of the touch currently using the pointer id
+	final long[]					serial										= new long[MAX_POINTERS];
+	final boolean[]				down											= new boolean[MAX_POINTERS];
+
+	// Ids of the currently active touch points, in touch order
+	final int[]						points										= new int[MAX_POINTERS];
+	int										count;
+	long									touches;
+
+	// Used for tap/doubletaps: the serial numbers and (last) positions of the touches
+	long									firstTap									= -1;
+	long									secondTap									= -1;
+	float									firstTapX, firstTapY, secondTapX, secondTapY;
 	long									tap;
 	int										tapCount									= 0;
 
-	// Events to be broadcast to the sketch
-	ArrayList<TouchEvent>	events;
+	// Reused gesture events
+	final DragEvent				dragEvent									= new DragEvent();
+	final PinchEvent			pinchEvent								= new PinchEvent();
+	final TurnEvent				turnEvent									= new TurnEvent();
+	final TapEvent				tapEvent									= new TapEvent();
 
 	// centroid information
 	private float					cx;
 	private float					cy;
 	float									old_cx, old_cy;
+	// sum of the active point coordinates, so that the centroid is updated incrementally
+	float									sx, sy;
 	private float					r;
 	private float					z													= 1;
 
 	boolean								pointsChanged							= false;
 
+	// Samples ring buffer, written by the point update functions and read by the parse ones
+	static final int			DOWN											= 0;
+	static final int			UP												= 1;
+	static final int			MOVED											= 2;
+	final int							mask;
+	final int[]						sampleType;
+	final int[]						sampleId;
+	final float[]					sampleX;
+	final float[]					sampleY;
+	final long[]					sampleTime;
+	final AtomicLong			written										= new AtomicLong();
+	final AtomicLong			read											= new AtomicLong();
+	volatile long					overflows;
+
 	// -------------------------------------------------------------------------------------
+	/**
+	 * Same as {@code this(1024)}.
+	 */
 	public TouchProcessor() {
-		touchPoints = new ArrayList<TouchPoint>();
-		events = new ArrayList<TouchEvent>();
+		this(1024);
+	}
+
+	/**
+	 * Creates a processor buffering at most {@code capacity} (rounded up to the next
+	 * power of two) samples between two parse calls.
+	 */
+	public TouchProcessor(int capacity) {
+		int size = 1;
+		while (size < capacity)
+			size <<= 1;
+		mask = size - 1;
+		sampleType = new int[size];
+		sampleId = new int[size];
+		sampleX = new float[size];
+		sampleY = new float[size];
+		sampleTime = new long[size];
 	}
 
 	// -------------------------------------------------------------------------------------
 	// Point Update functions
-	public synchronized void pointDown(float x, float y, int id) {
-		TouchPoint p = new TouchPoint(x, y, id);
-		touchPoints.add(p);
+	public void pointDown(float x, float y, int id) {
+		offer(DOWN, x, y, id);
+	}
+
+	public void pointUp(int id) {
+		offer(UP, 0, 0, id);
+	}
+
+	public void pointMoved(float x, float y, int id) {
+		offer(MOVED, x, y, id);
+	}
+
+	/**
+	 * Returns the number of samples dropped because the ring buffer was full, i.e.,
+	 * because the points were not parsed often enough.
+	 */
+	public long overflows() {
+		return overflows;
+	}
+
+	/**
+	 * Returns the number of samples waiting to be processed by the next parse call.
+	 */
+	public int pendingSamples() {
+		return (int) (written.get() - read.get());
+	}
+
+	// -------------------------------------------------------------------------------------
+	// Ring buffer: only the writer advances written, and only the reader advances read
+	boolean offer(int type, float x, float y, int id) {
+		long w = written.get();
+		if (w - read.get() > mask) {
+			overflows++;
+			return false;
+		}
+		int i = (int) w & mask;
+		sampleType[i] = type;
+		sampleId[i] = id;
+		sampleX[i] = x;
+		sampleY[i] = y;
+		sampleTime[i] = System.currentTimeMillis();
+		// publish the sample
+		written.lazySet(w + 1);
+		return true;
+	}
+
+	void drain() {
+		long r = read.get();
+		long w = written.get();
+		for (; r < w; r++) {
+			int i = (int) r & mask;
+			switch (sampleType[i]) {
+			case DOWN:
+				down(sampleX[i], sampleY[i], sampleId[i], sampleTime[i]);
+				break;
+			case UP:
+				up(sampleId[i], sampleTime[i]);
+				break;
+			case MOVED:
+				moved(sampleX[i], sampleY[i], sampleId[i]);
+				break;
+			}
+		}
+		// release the slots
+		read.lazySet(r);
+	}
+
+	// -------------------------------------------------------------------------------------
+	void down(float x, float y, int id, long time) {
+		if (id < 0 || id >= MAX_POINTERS || down[id])
+			return;
+		this.x[id] = this.px[id] = x;
+		this.y[id] = this.py[id] = y;
+		down[id] = true;
+		serial[id] = touches++;
+		points[count++] = id;
+		sx += x;
+		sy += y;
 		setZ(1);
 		setR(0);
 		updateCentroid();
-		if (touchPoints.size() >= 2) {
-			p.initGestureData(getCx(), getCy());
-			if (touchPoints.size() == 2) {
+		if (count >= 2) {
+			initGestureData(id, getCx(), getCy());
+			if (count == 2) {
 				// if this is the second point, we now have a valid centroid to update the first point
-				TouchPoint frst = touchPoints.get(0);
-				frst.initGestureData(getCx(), getCy());
+				initGestureData(points[0], getCx(), getCy());
 			}
 		}
 
 		// tap detection
 		if (tapCount == 0) {
-			firstTap = p;
+			firstTap = serial[id];
+			firstTapX = x;
+			firstTapY = y;
 		}
 		if (tapCount == 1) {
-			secondTap = p;
+			secondTap = serial[id];
+			secondTapX = x;
+			secondTapY = y;
 		}
-		tap = System.currentTimeMillis();
+		tap = time;
 		pointsChanged = true;
 	}
 
 	// -------------------------------------------------------------------------------------
-	public synchronized void pointUp(int id) {
-		TouchPoint p = getPoint(id);
-		touchPoints.remove(p);
+	void up(int id, long time) {
+		if (id < 0 || id >= MAX_POINTERS || !down[id])
+			return;
+		down[id] = false;
+		int i = 0;
+		while (points[i] != id)
+			i++;
+		System.arraycopy(points, i + 1, points, i, count - i - 1);
+		count--;
+		if (count == 0) {
+			// get rid of the accumulated rounding errors
+			sx = 0;
+			sy = 0;
+		}
+		else {
+			sx -= x[id];
+			sy -= y[id];
+		}
 
 		// tap detection
 		// TODO: handle a long press event here?
-		if (p == firstTap || p == secondTap) {
+		boolean first = serial[id] == firstTap, second = serial[id] == secondTap;
+		if (first) {
+			firstTapX = x[id];
+			firstTapY = y[id];
+		}
+		if (second) {
+			secondTapX = x[id];
+			secondTapY = y[id];
+		}
+		if (first || second) {
 			// this could be either a Tap or a Flick gesture, based on movement
-			float d = Util.distance(p.x, p.y, p.px, p.py);
-			if (d > FLICK_VELOCITY_THRESHOLD) {
-				FlickEvent event = new FlickEvent(p.px, p.py, new Vec(p.x - p.px, p.y - p.py));
-				events.add(event);
-			}
-			else {
-				long interval = System.currentTimeMillis() - tap;
+			float d = Util.distance(x[id], y[id], px[id], py[id]);
+			if (d <= FLICK_VELOCITY_THRESHOLD) {
+				long interval = time - tap;
 
 				if (interval < TAP_INTERVAL) {
 					tapCount++;
@@ -139,9 +303,15 @@ public class TouchProcessor {
 	}
 
 	// -------------------------------------------------------------------------------------
-	public synchronized void pointMoved(float x, float y, int id) {
-		TouchPoint p = getPoint(id);
-		p.update(x, y);
+	void moved(float x, float y, int id) {
+		if (id < 0 || id >= MAX_POINTERS || !down[id])
+			return;
+		sx += x - this.x[id];
+		sy += y - this.y[id];
+		px[id] = this.x[id];
+		py[id] = this.y[id];
+		this.x[id] = x;
+		this.y[id] = y;
 		// since the events will be in sync with draw(), we just wait until analyse() to
 		// look for gestures
 		pointsChanged = true;
@@ -152,20 +322,22 @@ public class TouchProcessor {
 	void updateCentroid() {
 		old_cx = getCx();
 		old_cy = getCy();
-		setCx(0);
-		setCy(0);
-		for (int i = 0; i < touchPoints.size(); i++) {
-			TouchPoint p = touchPoints.get(i);
-			setCx(getCx() + p.x);
-			setCy(getCy() + p.y);
+		if (count > 0) {
+			setCx(sx / count);
+			setCy(sy / count);
 		}
-		setCx(getCx() / touchPoints.size());
-		setCy(getCy() / touchPoints.size());
 	}
 
 	// -------------------------------------------------------------------------------------
+	void initGestureData(int id, float cx, float cy) {
+		pinch[id] = oldPinch[id] = Util.distance(x[id], y[id], cx, cy);
+		angle[id] = oldAngle[id] = (float) Math.atan2((y[id] - cy), (x[id] - cx));
+	}
 
-	public synchronized void parse() {
+	// -------------------------------------------------------------------------------------
+
+	public void parse() {
+		drain();
 		// simple event priority rule: do not try to rotate or pinch while dragging
 		// this gets rid of a lot of jittery events
 		if (pointsChanged) {
@@ -174,14 +346,16 @@ public class TouchProcessor {
 		}
 	}
 
-	public synchronized Gestures parseTap() {
+	public Gestures parseTap() {
+		drain();
 		if (handleTaps() == null)
 			return null;
 		else
 			return Gestures.TAP_ID;
 	}
 
-	public synchronized Gestures parseGesture() {
+	public Gestures parseGesture() {
+		drain();
 		Gestures gesture = null;
 		if (pointsChanged) {
 			updateCentroid();
@@ -210,7 +384,7 @@ public class TouchProcessor {
 				else if (TurnEvent.numberOfPoints == 3)
 					gesture = Gestures.TURN_THREE_ID;
 			} else {
-				if (touchPoints.size() == 3)
+				if (count == 3)
 					gesture = Gestures.OPPOSABLE_THREE_ID;
 			}
 			pointsChanged = false;
@@ -220,84 +394,74 @@ public class TouchProcessor {
 
 	// -------------------------------------------------------------------------------------
 	TapEvent handleTaps() {
-		TapEvent tapEvent = null;
+		TapEvent event = null;
 		if (tapCount == 2) {
 			// check if the tap point has moved
-			float d = Util.distance(firstTap.x, firstTap.y, secondTap.x, secondTap.y);
+			float d = Util.distance(firstTapX, firstTapY, secondTapX, secondTapY);
 			if (d > DOUBLE_TAP_DIST_THRESHOLD) {
 				// if the two taps are apart, count them as two single taps
-				// TapEvent event1 = new TapEvent(firstTap.x, firstTap.y, TapEvent.SINGLE);
-				// onTap(event1);
-				// TapEvent event2 = new TapEvent(secondTap.x, secondTap.y, TapEvent.SINGLE);
-				// onTap(event2);
-				tapEvent = new TapEvent(firstTap.x, firstTap.y, TapEvent.SINGLE);
-				events.add(tapEvent);
+				event = tapEvent.set(firstTapX, firstTapY, TapEvent.SINGLE);
 			}
 			else {
-				tapEvent = new TapEvent(firstTap.x, firstTap.y, TapEvent.DOUBLE);
-				events.add(tapEvent);
+				event = tapEvent.set(firstTapX, firstTapY, TapEvent.DOUBLE);
 			}
 			tapCount = 0;
 		}
 		else if (tapCount == 1) {
 			long interval = System.currentTimeMillis() - tap;
 			if (interval > TAP_TIMEOUT) {
-				tapEvent = new TapEvent(firstTap.x, firstTap.y, TapEvent.SINGLE);
-				events.add(tapEvent);
+				event = tapEvent.set(firstTapX, firstTapY, TapEvent.SINGLE);
 				tapCount = 0;
 			}
 		}
-		return tapEvent;
+		return event;
 	}
 
 	// -------------------------------------------------------------------------------------
 	// turn is the average angle change between each point and the centroid
 	TurnEvent handleTurn() {
-		TurnEvent TurnEvent = null;
-		if (touchPoints.size() >= 2) {
+		TurnEvent event = null;
+		if (count >= 2) {
 			// look for turn events
 			float turn = 0;
-			for (int i = 0; i < touchPoints.size(); i++) {
-				TouchPoint p = touchPoints.get(i);
-				float angle = (float) Math.atan2(p.y - getCy(), p.x - getCx());
-				p.setAngle(angle);
-				float delta = p.angle - p.oldAngle;
+			for (int i = 0; i < count; i++) {
+				int p = points[i];
+				oldAngle[p] = angle[p];
+				angle[p] = (float) Math.atan2(y[p] - getCy(), x[p] - getCx());
+				float delta = angle[p] - oldAngle[p];
 				if (delta > Math.PI)
 					delta -= 2 * Math.PI;
 				if (delta < -Math.PI)
 					delta += 2 * Math.PI;
 				turn += delta;
 			}
-			turn /= touchPoints.size();
+			turn /= count;
 			if (Math.abs(turn) > TURN_THRESHOLD) {
-				TurnEvent = new TurnEvent(getCx(), getCy(), turn, touchPoints.size());
-				events.add(TurnEvent);
+				event = turnEvent.set(getCx(), getCy(), turn, count);
 			}
 		}
-		return TurnEvent;
+		return event;
 	}
 
 	// -------------------------------------------------------------------------------------
 	// pinch is simply the average distance change from each points to the centroid
 	PinchEvent handlePinch() {
-		PinchEvent pinchEvent = null;
-		if (touchPoints.size() >= 2) {
+		PinchEvent event = null;
+		if (count >= 2) {
 			// look for pinch events
-			float pinch = 0;
-			for (int i = 0; i < touchPoints.size(); i++) {
-				TouchPoint p = touchPoints.get(i);
-				float distance = Util.distance(p.x, p.y, getCx(), getCy());
-				p.setPinch(distance);
-				float delta = p.pinch - p.oldPinch;
-				pinch += delta;
+			float amount = 0;
+			for (int i = 0; i < count; i++) {
+				int p = points[i];
+				oldPinch[p] = pinch[p];
+				pinch[p] = Util.distance(x[p], y[p], getCx(), getCy());
+				amount += pinch[p] - oldPinch[p];
 			}
-			pinch /= touchPoints.size();
-			if (Math.abs(pinch) > PINCH_THRESHOLD) {
-				pinchEvent = new PinchEvent(getCx(), getCy(), pinch, touchPoints.size());
-				events.add(pinchEvent);
+			amount /= count;
+			if (Math.abs(amount) > PINCH_THRESHOLD) {
+				event = pinchEvent.set(getCx(), getCy(), amount, count);
 			}
 		}
-		return pinchEvent;
+		return event;
 	}
 
 	// -------------------------------------------------------------------------------------
@@ -309,19 +473,19 @@ public class TouchProcessor {
 		boolean clustered = false;
 		int first_x_dir = 0;
 		int first_y_dir = 0;
-		DragEvent dragEvent = null;
+		DragEvent event = null;
 
-		for (int i = 0; i < touchPoints.size(); i++) {
-			TouchPoint p = touchPoints.get(i);
+		for (int i = 0; i < count; i++) {
+			int p = points[i];
 			int x_dir = 0;
 			int y_dir = 0;
-			if (p.dx() > 0)
+			if (dx(p) > 0)
 				x_dir = 1;
-			if (p.dx() < 0)
+			if (dx(p) < 0)
 				x_dir = -1;
-			if (p.dy() > 0)
+			if (dy(p) > 0)
 				y_dir = 1;
-			if (p.dy() < 0)
+			if (dy(p) < 0)
 				y_dir = -1;
 
 			if (i == 0) {
@@ -341,10 +505,10 @@ public class TouchProcessor {
 			if (y_dir == 0)
 				y_drag = false;
 
-			if (touchPoints.size() == 1)
+			if (count == 1)
 				clustered = true;
 			else {
-				float distance = Util.distance(p.x, p.y, getCx(), getCy());
+				float distance = Util.distance(x[p], y[p], getCx(), getCy());
 				if (distance < MAX_MULTI_DRAG_DISTANCE) {
 					clustered = true;
 				}
@@ -352,36 +516,36 @@ public class TouchProcessor {
 		}
 
 		if ((x_drag || y_drag) && clustered) {
-			if (touchPoints.size() == 1) {
-				TouchPoint p = touchPoints.get(0);
+			if (count == 1) {
+				int p = points[0];
 				// use the centroid to calculate the position and delta of this drag event
-				dragEvent = new DragEvent(p.x, p.y, p.dx(), p.dy(), 1);
-				events.add(dragEvent);
+				event = dragEvent.set(x[p], y[p], dx(p), dy(p), 1);
 			}
 			else {
 				// use the centroid to calculate the position and delta of this drag event
-				dragEvent = new DragEvent(getCx(), getCy(), getCx() - old_cx, getCy() - old_cy, touchPoints.size());
-				events.add(dragEvent);
+				event = dragEvent.set(getCx(), getCy(), getCx() - old_cx, getCy() - old_cy, count);
 			}
 		}
-		return dragEvent;
+		return event;
 	}
 
 	// -------------------------------------------------------------------------------------
-	@SuppressWarnings("unchecked")
-	synchronized ArrayList<TouchPoint> getPoints() {
-		return (ArrayList<TouchPoint>) touchPoints.clone();
+	// delta x -- int to get rid of some noise
+	int dx(int id) {
+		return (int) (x[id] - px[id]);
 	}
 
 	// -------------------------------------------------------------------------------------
-	synchronized TouchPoint getPoint(int pid) {
-		Iterator<TouchPoint> i = touchPoints.iterator();
-		while (i.hasNext()) {
-			TouchPoint tp = i.next();
-			if (tp.id == pid)
-				return tp;
-		}
-		return null;
+	// delta y -- int to get rid of some noise
+	int dy(int id) {
+		return (int) (y[id] - py[id]);
+	}
+
+	/**
+	 * Returns the number of active touch points, as of the last parse call.
+	 */
+	public int pointCount() {
+		return count;
 	}
 
 	public float getCx() {
@@ -417,6 +581,7 @@ public class TouchProcessor {
 	}
 }
 
+// Gesture events, reused by the processor (see the set methods)
 class TouchEvent {
 	// empty base class to make event handling easier
 }
@@ -429,12 +594,13 @@ class DragEvent extends TouchEvent {
 	float	dy;
 	int		numberOfPoints;
 
-	DragEvent(float x, float y, float dx, float dy, int n) {
+	DragEvent set(float x, float y, float dx, float dy, int n) {
 		this.x = x;
 		this.y = y;
 		this.dx = dx;
 		this.dy = dy;
 		numberOfPoints = n;
+		return this;
 	}
 }
 
@@ -446,11 +612,12 @@ class PinchEvent extends TouchEvent {
 	float	amount;				// in pixels
 	int		numberOfPoints;
 
-	PinchEvent(float centerX, float centerY, float amount, int n) {
+	PinchEvent set(float centerX, float centerY, float amount, int n) {
 		this.centerX = centerX;
 		this.centerY = centerY;
 		this.amount = amount;
 		this.numberOfPoints = n;
+		return this;
 	}
 }
 
@@ -461,11 +628,12 @@ class TurnEvent extends TouchEvent {
 	float	angle;					// delta, in radians
 	int		numberOfPoints;
 
-	TurnEvent(float centerX, float centerY, float angle, int n) {
+	TurnEvent set(float centerX, float centerY, float angle, int n) {
 		this.centerX = centerX;
 		this.centerY = centerY;
 		this.angle = angle;
 		this.numberOfPoints = n;
+		return this;
 	}
 }
 
@@ -478,10 +646,11 @@ class TapEvent extends TouchEvent {
 	float							y;
 	int								type;
 
-	TapEvent(float x, float y, int type) {
+	TapEvent set(float x, float y, int type) {
 		this.x = x;
 		this.y = y;
 		this.type = type;
+		return this;
 	}
 
 	boolean isSingleTap() {
@@ -492,77 +661,3 @@ class TapEvent extends TouchEvent {
 		return (type == DOUBLE) ? true : false;
 	}
 }
-
-// /////////////////////////////////////////////////////////////////////////////////
-class FlickEvent extends TouchEvent {
-	float	x;
-	float	y;
-	Vec		velocity;
-
-	FlickEvent(float x, float y, Vec velocity) {
-		this.x = x;
-		this.y = y;
-		this.velocity = velocity;
-	}
-}
-
-class TouchPoint {
-	float	x;
-	float	y;
-	float	px;
-	float	py;
-	int		id;
-
-	// used for gesture detection
-	float	angle;
-	float	oldAngle;
-	float	pinch;
-	float	oldPinch;
-
-	// -------------------------------------------------------------------------------------
-	TouchPoint(float x, float y, int id) {
-		this.x = x;
-		this.y = y;
-		this.px = x;
-		this.py = y;
-		this.id = id;
-	}
-
-	// -------------------------------------------------------------------------------------
-	void update(float x, float y) {
-		px = this.x;
-		py = this.y;
-		this.x = x;
-		this.y = y;
-	}
-
-	// -------------------------------------------------------------------------------------
-	void initGestureData(float cx, float cy) {
-		pinch = oldPinch = Vec.distance(new Vec(x, y), new Vec(cx, cy));
-		angle = oldAngle = (float) Math.atan2((y - cy), (x - cx));
-	}
-
-	// -------------------------------------------------------------------------------------
-	// delta x -- int to get rid of some noise
-	int dx() {
-		return (int) (x - px);
-	}
-
-	// -------------------------------------------------------------------------------------
-	// delta y -- int to get rid of some noise
-	int dy() {
-		return (int) (y - py);
-	}
-
-	// -------------------------------------------------------------------------------------
-	void setAngle(float angle) {
-		oldAngle = this.angle;
-		this.angle = angle;
-	}
-
-	// -------------------------------------------------------------------------------------
-	void setPinch(float pinch) {
-		oldPinch = this.pinch;
-		this.pinch = pinch;
-	}
-}
\ No newline at end of file
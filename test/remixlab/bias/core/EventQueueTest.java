@@ -0,0 +1,85 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import remixlab.bias.event.KeyboardEvent;
+
+/**
+ * Checks the {@link InputHandler} event tuple queue removals.
+ */
+public class EventQueueTest {
+  @Test
+  public void removedTuplesAreRecycledAndKeptOnesPerformedInOrder() {
+    InputHandler handler = new InputHandler(4);
+    MotionCoalescingTest.RecordingGrabber grabber = new MotionCoalescingTest.RecordingGrabber();
+    Agent agent = MotionCoalescingTest.agent(handler, grabber);
+    agent.enableMotionCoalescing(false);
+    BogusEvent removed = new KeyboardEvent(2);
+    agent.handle(new KeyboardEvent(1));
+    agent.handle(removed);
+    agent.handle(new KeyboardEvent(3));
+    agent.handle(removed);
+    int pooled = handler.tuplePool.size();
+    handler.removeEventTuple(removed);
+    assertEquals(pooled + 2, handler.tuplePool.size());
+    // the queue has room again: nothing enqueued so far may be lost
+    assertTrue(agent.handle(new KeyboardEvent(4)));
+    assertTrue(agent.handle(new KeyboardEvent(5)));
+    assertTrue(agent.handle(new KeyboardEvent(6)));
+    assertEquals(5, handler.eventTupleQueue().size());
+    handler.handle();
+    assertEquals("[KeyboardEvent:1, KeyboardEvent:3, KeyboardEvent:4, KeyboardEvent:5, KeyboardEvent:6]",
+        grabber.performed.toString());
+  }
+
+  @Test
+  public void clearedTuplesAreRecycled() {
+    InputHandler handler = new InputHandler();
+    MotionCoalescingTest.RecordingGrabber grabber = new MotionCoalescingTest.RecordingGrabber();
+    Agent agent = MotionCoalescingTest.agent(handler, grabber);
+    for (int i = 1; i <= 3; i++)
+      agent.handle(new KeyboardEvent(i));
+    int pooled = handler.tuplePool.size();
+    handler.removeEventTuples();
+    assertEquals(pooled + 3, handler.tuplePool.size());
+    handler.handle();
+    assertEquals(0, grabber.performed.size());
+  }
+
+  @Test
+  public void queuedTuplesAreNotEnqueuedTwice() {
+    InputHandler handler = new InputHandler();
+    MotionCoalescingTest.RecordingGrabber grabber = new MotionCoalescingTest.RecordingGrabber();
+    Agent agent = MotionCoalescingTest.agent(handler, grabber);
+    EventGrabberTuple tuple = new EventGrabberTuple(new KeyboardEvent(1), grabber);
+    assertTrue(handler.enqueueEventTuple(tuple));
+    assertFalse(handler.enqueueEventTuple(tuple));
+    handler.handle();
+    // performed tuples may be enqueued again
+    assertTrue(handler.enqueueEventTuple(tuple));
+    handler.handle();
+    assertEquals("[KeyboardEvent:1, KeyboardEvent:1]", grabber.performed.toString());
+    EventGrabberTuple pooled = handler.obtainEventTuple(new KeyboardEvent(2), grabber, agent);
+    assertTrue(handler.enqueueEventTuple(pooled));
+    assertFalse(handler.enqueueEventTuple(pooled));
+    int size = handler.tuplePool.size();
+    handler.handle();
+    assertEquals(size + 1, handler.tuplePool.size());
+    // released tuples are refused by the pool
+    assertFalse(handler.tuplePool.release(pooled));
+    assertEquals(size + 1, handler.tuplePool.size());
+    assertSame(pooled, handler.tuplePool.obtain());
+  }
+}
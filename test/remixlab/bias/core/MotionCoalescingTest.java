@@ -0,0 +1,157 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.core;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import remixlab.bias.event.DOF1Event;
+import remixlab.bias.event.DOF2Event;
+
+/**
+ * Checks how the {@link InputHandler} coalesces the motion events produced during a
+ * frame.
+ */
+public class MotionCoalescingTest {
+  static final int WHEEL_ID = 8;
+
+  // records the events it performs
+  static class RecordingGrabber implements Grabber {
+    List<String> performed = new ArrayList<String>();
+    float wheel;
+
+    @Override
+    public boolean checkIfGrabsInput(BogusEvent event) {
+      return false;
+    }
+
+    @Override
+    public void performInteraction(BogusEvent event) {
+      if (event instanceof DOF1Event)
+        wheel += ((DOF1Event) event).dx();
+      performed.add(event.getClass().getSimpleName() + ":" + event.id());
+    }
+  }
+
+  static Agent agent(InputHandler handler, Grabber grabber) {
+    Agent agent = new Agent(handler) {
+    };
+    agent.addGrabber(grabber);
+    agent.setDefaultGrabber(grabber);
+    return agent;
+  }
+
+  @Test
+  public void wheelEventsOfAFrameAddUp() {
+    InputHandler handler = new InputHandler();
+    RecordingGrabber grabber = new RecordingGrabber();
+    Agent agent = agent(handler, grabber);
+    assertTrue(agent.isMotionCoalescingEnabled());
+    int[] counts = { 1, 2, -1, 3 };
+    for (int count : counts)
+      agent.handle(new DOF1Event(count, BogusEvent.NO_MODIFIER_MASK, WHEEL_ID));
+    handler.handle();
+    assertEquals(1, grabber.performed.size());
+    assertEquals(3, handler.coalescedEvents());
+    assertEquals(5f, grabber.wheel, 0f);
+  }
+
+  @Test
+  public void eventsAreNotMergedAcrossOtherAgents() {
+    InputHandler handler = new InputHandler();
+    RecordingGrabber grabber = new RecordingGrabber();
+    Agent first = agent(handler, grabber);
+    Agent second = agent(handler, grabber);
+    first.handle(new DOF2Event(1, 1, BogusEvent.NO_MODIFIER_MASK, 1));
+    second.handle(new DOF2Event(1, 1, BogusEvent.NO_MODIFIER_MASK, 2));
+    first.handle(new DOF2Event(2, 2, BogusEvent.NO_MODIFIER_MASK, 1));
+    handler.handle();
+    assertEquals(0, handler.coalescedEvents());
+    assertEquals("[DOF2Event:1, DOF2Event:2, DOF2Event:1]", grabber.performed.toString());
+  }
+
+  // polls the given wheel samples and counts the recycled ones
+  static class PolledAgent extends Agent {
+    final float[] wheel;
+    final AtomicInteger produced = new AtomicInteger();
+    final AtomicInteger recycled = new AtomicInteger();
+
+    PolledAgent(InputHandler handler, float... wheel) {
+      super(handler);
+      this.wheel = wheel;
+    }
+
+    @Override
+    protected BogusEvent handleFeed() {
+      int i = produced.get();
+      if (i == wheel.length)
+        return null;
+      produced.set(i + 1);
+      return new DOF1Event(wheel[i], BogusEvent.NO_MODIFIER_MASK, WHEEL_ID);
+    }
+
+    @Override
+    protected void recycle(BogusEvent event) {
+      recycled.incrementAndGet();
+    }
+
+    // polls every sample, then stops the poller
+    void pollAll(int capacity) throws InterruptedException {
+      startPolling(1000, capacity);
+      Thread thread = poller;
+      long deadline = System.currentTimeMillis() + 5000;
+      while (produced.get() < wheel.length && System.currentTimeMillis() < deadline)
+        Thread.sleep(1);
+      stopPolling();
+      thread.join(5000);
+      assertFalse(thread.isAlive());
+    }
+  }
+
+  @Test
+  public void polledSamplesAreRecycledWhenMergedOrDropped() throws InterruptedException {
+    InputHandler handler = new InputHandler();
+    RecordingGrabber grabber = new RecordingGrabber();
+    PolledAgent agent = new PolledAgent(handler, 1, 2, -1, 3);
+    agent.addGrabber(grabber);
+    agent.setDefaultGrabber(grabber);
+    agent.pollAll(2);
+    assertEquals(2, agent.droppedSamples());
+    assertEquals(2, agent.recycled.get());
+    agent.handleSamples();
+    handler.handle();
+    assertEquals(1, grabber.performed.size());
+    assertEquals(3f, grabber.wheel, 0f);
+    // the merged sample, and then the performed one
+    assertEquals(4, agent.recycled.get());
+  }
+
+  @Test
+  public void polledSamplesAreNotMergedWhenCoalescingIsDisabled() throws InterruptedException {
+    InputHandler handler = new InputHandler();
+    RecordingGrabber grabber = new RecordingGrabber();
+    PolledAgent agent = new PolledAgent(handler, 1, 2, -1, 3);
+    agent.addGrabber(grabber);
+    agent.setDefaultGrabber(grabber);
+    agent.enableMotionCoalescing(false);
+    agent.pollAll(4);
+    agent.handleSamples();
+    handler.handle();
+    assertEquals(4, grabber.performed.size());
+    assertEquals(5f, grabber.wheel, 0f);
+    assertEquals(4, agent.recycled.get());
+  }
+}
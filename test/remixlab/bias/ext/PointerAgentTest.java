@@ -0,0 +1,111 @@
+/**************************************************************************************
+ * bias_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.bias.ext;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import remixlab.bias.core.*;
+import remixlab.bias.event.*;
+
+/**
+ * Checks that the {@link PointerAgent} events are reused from the device callback to the
+ * {@link Profile} dispatch.
+ */
+public class PointerAgentTest {
+  static final int BUTTON_ID = 1101;
+
+  // a grabber whose actions are dispatched by a profile
+  public static class Target extends GrabberObject {
+    protected Profile profile;
+    protected int fired, flushed;
+    protected long moved;
+    protected BogusEvent firstFired, lastFlushed;
+
+    public Target(Agent agent) {
+      super(agent);
+      profile = new Profile(this);
+      profile.setBinding(new MotionShortcut(BUTTON_ID), "drag");
+    }
+
+    @Override
+    public boolean checkIfGrabsInput(BogusEvent event) {
+      return true;
+    }
+
+    @Override
+    public void performInteraction(BogusEvent event) {
+      profile.handle(event);
+    }
+
+    public void drag(DOF2Event event) {
+      if (event.fired()) {
+        if (firstFired == null)
+          firstFired = event;
+        fired++;
+      } else if (event.flushed()) {
+        lastFlushed = event;
+        flushed++;
+      } else
+        moved++;
+    }
+  }
+
+  // one press, drag, drag, release gesture per handled frame event
+  static void gestures(InputHandler handler, PointerAgent agent, int events) {
+    for (int i = 0; i < events; i++) {
+      int step = i % 4;
+      agent.pointerEvent(10 + i % 97, 20 + i % 89, BUTTON_ID, true, step == 0, step == 3);
+      handler.handle();
+    }
+  }
+
+  @Test
+  public void pooledEventIsReusedOnPressAndRelease() {
+    InputHandler handler = new InputHandler();
+    PointerAgent agent = new PointerAgent(handler);
+    Profile.registerMotionID(BUTTON_ID, PointerAgent.class, 2);
+    Target target = new Target(agent);
+    agent.setDefaultGrabber(target);
+    // the first event has no previous one to be relative to, and is thus discarded
+    agent.pointerEvent(0, 0, BUTTON_ID, true, false, false);
+    gestures(handler, agent, 8);
+    assertEquals(2, target.fired);
+    assertEquals(2, target.flushed);
+    assertEquals(4, target.moved);
+    assertSame(target.firstFired, target.lastFlushed);
+    assertEquals(1, agent.eventPool.size());
+    assertEquals(10 + 7, agent.lastEvent().x(), 0);
+  }
+
+  @Test
+  public void steadyStateDoesNotAllocate() {
+    InputHandler handler = new InputHandler();
+    PointerAgent agent = new PointerAgent(handler);
+    Profile.registerMotionID(BUTTON_ID, PointerAgent.class, 2);
+    Target target = new Target(agent);
+    agent.setDefaultGrabber(target);
+    if (InputStress.allocatedBytes() < 0)
+      return;
+    // warm up the pools and the reflective dispatch, and give the jit (whose escape
+    // analysis removes the iterators) a few rounds to reach the steady state
+    int events = 10000;
+    long least = Long.MAX_VALUE;
+    for (int round = 0; round < 20 && least > 0; round++) {
+      long bytes = InputStress.allocatedBytes();
+      gestures(handler, agent, events);
+      least = Math.min(least, (InputStress.allocatedBytes() - bytes) / events);
+    }
+    assertEquals("bytes per event", 0, least);
+    assertEquals(0, target.moved % (events / 2));
+  }
+}
@@ -0,0 +1,49 @@
+/**************************************************************************************
+ * fpstiming_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.fpstiming;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Checks the {@link TimingWheel} bookkeeping of the timers it holds.
+ */
+public class TimingWheelTest {
+  @Test
+  public void rerunningATaskKeepsTheWheelSize() {
+    TimingHandler handler = new TimingHandler();
+    TimingTask task = new TimingTask() {
+      @Override
+      public void execute() {
+      }
+    };
+    handler.registerTask(task);
+    task.run(10);
+    task.run(10);
+    assertEquals(1, handler.wheel.size());
+    task.stop();
+    assertEquals(0, handler.wheel.size());
+  }
+
+  @Test
+  public void movingATimerKeepsTheWheelSize() {
+    TimingWheel wheel = new TimingWheel(0);
+    SeqTimer timer = new SeqTimer(null);
+    wheel.add(timer, 5);
+    wheel.add(timer, 5000);
+    assertEquals(1, wheel.size());
+    wheel.remove(timer);
+    assertEquals(0, wheel.size());
+    wheel.remove(timer);
+    assertEquals(0, wheel.size());
+  }
+}
@@ -0,0 +1,105 @@
+/**************************************************************************************
+ * util_tree
+ * Copyright (c) 2014-2016 National University of Colombia, https://github.com/remixlab
+ * @author Jean Pierre Charalambos, http://otrolado.info/
+ *
+ * All rights reserved. Library that eases the creation of interactive
+ * scenes, released under the terms of the GNU Public License v3.0
+ * which is available at http://www.gnu.org/licenses/gpl.html
+ **************************************************************************************/
+
+package remixlab.util;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Checks the {@link Pool} bookkeeping, also when objects are obtained and released by
+ * different threads.
+ */
+public class PoolTest {
+  static class Item implements Poolable {
+    boolean released;
+    // 1 while the item is handed out
+    AtomicInteger used = new AtomicInteger();
+
+    @Override
+    public synchronized boolean setReleased(boolean released) {
+      if (this.released == released)
+        return false;
+      this.released = released;
+      return true;
+    }
+  }
+
+  static class ItemPool extends Pool<Item> {
+    AtomicLong created = new AtomicLong();
+
+    ItemPool(int capacity) {
+      super(capacity);
+    }
+
+    @Override
+    protected Item create() {
+      created.incrementAndGet();
+      return new Item();
+    }
+  }
+
+  @Test
+  public void releasedObjectsAreReusedOnce() {
+    ItemPool pool = new ItemPool(2);
+    Item a = pool.obtain(), b = pool.obtain(), c = pool.obtain();
+    assertTrue(pool.release(a));
+    assertFalse(pool.release(a));
+    assertTrue(pool.release(b));
+    // full
+    assertFalse(pool.release(c));
+    assertEquals(2, pool.size());
+    assertSame(a, pool.obtain());
+    assertSame(b, pool.obtain());
+    assertEquals(0, pool.size());
+    // c may be released once there's room again
+    assertTrue(pool.release(c));
+    assertEquals(3, pool.created.get());
+  }
+
+  @Test
+  public void objectsAreHandedOutOnceAcrossThreads() throws InterruptedException {
+    final ItemPool pool = new ItemPool(64);
+    final MpscQueue<Item> handoff = new MpscQueue<Item>(64);
+    final int count = 200000;
+    final AtomicInteger violations = new AtomicInteger();
+    Thread device = new Thread() {
+      @Override
+      public void run() {
+        for (int i = 0; i < count; i++) {
+          Item item = pool.obtain();
+          if (!item.used.compareAndSet(0, 1))
+            violations.incrementAndGet();
+          while (!handoff.offer(item))
+            Thread.yield();
+        }
+      }
+    };
+    device.start();
+    for (int i = 0; i < count;) {
+      Item item = handoff.poll();
+      if (item == null) {
+        Thread.yield();
+        continue;
+      }
+      item.used.set(0);
+      pool.release(item);
+      i++;
+    }
+    device.join();
+    assertEquals(0, violations.get());
+    // items are reused (a few may be created while a release is still in progress)
+    assertTrue(pool.created.get() < count / 100);
+  }
+}